@@ -15,7 +15,6 @@
  */
 package net.mwplay.cocostudio.ui;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Action;
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -29,6 +28,7 @@ import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
 import net.mwplay.cocostudio.ui.model.ObjectData;
 import net.mwplay.cocostudio.ui.model.timelines.CCTimelineActionData;
@@ -67,46 +67,54 @@ public abstract class BaseWidgetParser {
                              Group parent, Actor actor) {
         this.editor = editor;
         actor.setName(widget.getName());
-        actor.setSize(widget.getSize().getX(), widget.getSize().getY());
-        // set origin
-        if (widget.getAnchorPoint() != null) {
-            actor.setOrigin(widget.getAnchorPoint().getScaleX() * actor.getWidth(),
-                widget.getAnchorPoint().getScaleY() * actor.getHeight());
-        }
 
-        //判空，因为新版本的单独节点没有Postion属性
-        if (widget.getPosition() != null) {
-            actor.setPosition(widget.getPosition().getX() - actor.getOriginX(),
-                widget.getPosition().getY() - actor.getOriginY());
-        }
+        CCLayoutPlan.Node node = editor.plan == null ? null : editor.plan.get(widget);
+        if (node != null) {
+            // 尺寸、变换和颜色已在构建计划中算好
+            node.apply(actor);
+        } else {
+            actor.setSize(widget.getSize().getX(), widget.getSize().getY());
+            // set origin
+            if (widget.getAnchorPoint() != null) {
+                actor.setOrigin(widget.getAnchorPoint().getScaleX() * actor.getWidth(),
+                    widget.getAnchorPoint().getScaleY() * actor.getHeight());
+            }
 
-        // CocoStudio的编辑器ScaleX,ScaleY 会有负数情况
-        //判空，因为新版本的单独节点没有Scale属性
-        if (widget.getScale() != null) {
-            actor.setScale(widget.getScale().getScaleX(), widget.getScale()
-                .getScaleY());
-        }
+            //判空，因为新版本的单独节点没有Postion属性
+            if (widget.getPosition() != null) {
+                actor.setPosition(widget.getPosition().getX() - actor.getOriginX(),
+                    widget.getPosition().getY() - actor.getOriginY());
+            }
 
-        if (widget.getRotation() != 0) {// CocoStudio 是顺时针方向旋转,转换下.
-            actor.setRotation(360 - widget.getRotation() % 360);
-        }
-        //添加倾斜角
-        if (widget.getRotationSkewX() != 0 && widget.getRotationSkewX() == widget.getRotationSkewY()) {
-            actor.setRotation(360 - widget.getRotationSkewX() % 360);
-        }
+            // CocoStudio的编辑器ScaleX,ScaleY 会有负数情况
+            //判空，因为新版本的单独节点没有Scale属性
+            if (widget.getScale() != null) {
+                actor.setScale(widget.getScale().getScaleX(), widget.getScale()
+                    .getScaleY());
+            }
 
-        // 设置可见
-        actor.setVisible(widget.isVisibleForFrame());
+            if (widget.getRotation() != 0) {// CocoStudio 是顺时针方向旋转,转换下.
+                actor.setRotation(360 - widget.getRotation() % 360);
+            }
+            //添加倾斜角
+            if (widget.getRotationSkewX() != 0 && widget.getRotationSkewX() == widget.getRotationSkewY()) {
+                actor.setRotation(360 - widget.getRotationSkewX() % 360);
+            }
 
-        Color color = editor.getColor(widget.getCColor(), widget.getAlpha());
+            // 设置可见
+            actor.setVisible(widget.isVisibleForFrame());
 
-        actor.setColor(color);
+            actor.setColor(editor.getColor(widget.getCColor(), widget.getAlpha()));
+        }
 
         actor.setTouchable(deduceTouchable(actor, widget));
 
         // callback
-
-        addCallback(actor, widget);
+        if (node != null) {
+            addCallback(actor, widget, node.callback);
+        } else {
+            addCallback(actor, widget);
+        }
         // callback
 
         addActor(editor, actor, widget);
@@ -137,7 +145,8 @@ public abstract class BaseWidgetParser {
         float duration = ccTimelineActionData.getDuration();
         float speed = ccTimelineActionData.getSpeed();
 
-        List<CCTimelineData> ccTimelineDatas = ccTimelineActionData.getTimelines();
+        List<CCTimelineData> ccTimelineDatas = editor.plan != null
+            ? editor.plan.getTimelines(widget.getActionTag()) : ccTimelineActionData.getTimelines();
 
         ParallelAction parallelAction = new ParallelAction();
 
@@ -270,12 +279,25 @@ public abstract class BaseWidgetParser {
         actor.addAction(Actions.forever(parallelAction));
     }
 
-    public void addCallback(final Actor actor, final ObjectData widget) {
-        if (widget.getCallBackType() == null
-            || widget.getCallBackType().isEmpty()) {
-            return;
+    static final int CALLBACK_NONE = 0;
+    static final int CALLBACK_CLICK = 1;
+    static final int CALLBACK_TOUCH = 2;
+
+    static int callbackType(String callBackType) {
+        if ("Click".equals(callBackType)) {
+            return CALLBACK_CLICK;
+        } else if ("Touch".equals(callBackType)) {
+            return CALLBACK_TOUCH;
         }
-        if ("Click".equals(widget.getCallBackType())) {
+        return CALLBACK_NONE;
+    }
+
+    public void addCallback(final Actor actor, final ObjectData widget) {
+        addCallback(actor, widget, callbackType(widget.getCallBackType()));
+    }
+
+    private void addCallback(final Actor actor, final ObjectData widget, int callbackType) {
+        if (callbackType == CALLBACK_CLICK) {
             actor.addListener(new ClickListener() {
                 @Override
                 public void clicked(InputEvent event, float x, float y) {
@@ -283,7 +305,7 @@ public abstract class BaseWidgetParser {
                     super.clicked(event, x, y);
                 }
             });
-        } else if ("Touch".equals(widget.getCallBackType())) {
+        } else if (callbackType == CALLBACK_TOUCH) {
 
             actor.addListener(new ClickListener() {
                 @Override
@@ -347,10 +369,64 @@ public abstract class BaseWidgetParser {
         editor.getActionActors().put(option.getActionTag(), actor);
     }
 
+    /**
+     * 解析子控件并添加到容器,完成后调用 finishChildren.
+     * 延迟解析的节点只添加占位符,增量构建时子控件会在之后的帧中解析.
+     */
+    protected void parseChildren(CocoStudioUIEditor editor, ObjectData widget, Group container) {
+        if (editor.isLazy(widget)) {
+            CCLazyNode lazyNode = new CCLazyNode(editor, this, widget, container);
+            editor.lazyNodes.add(lazyNode);
+            container.addActor(lazyNode);
+            return;
+        }
+        if (editor.builder != null) {
+            editor.builder.push(this, widget, container);
+            return;
+        }
+        buildChildren(editor, widget, container);
+    }
+
+    void buildChildren(CocoStudioUIEditor editor, ObjectData widget, Group container) {
+        for (ObjectData childrenWidget : widget.getChildren()) {
+            Actor childrenActor = editor.parseWidget(container, childrenWidget);
+            if (childrenActor == null) {
+                continue;
+            }
+            attachChild(widget, container, childrenActor);
+        }
+        finishChildren(widget, container);
+    }
+
+    /**
+     * 把解析好的子控件添加到容器
+     */
+    protected void attachChild(ObjectData widget, Group container, Actor child) {
+        container.addActor(child);
+    }
+
+    /**
+     * 所有子控件添加完成
+     */
+    protected void finishChildren(ObjectData widget, Group container) {
+        sort(widget, container);
+    }
+
     /**
      * 子控件根据zOrder属性排序
      */
     protected void sort(final ObjectData widget, Group group) {
+        CCLayoutPlan.Node node = editor.plan == null ? null : editor.plan.get(widget);
+        if (node != null && node.zOrders != null) {
+            final ObjectIntMap<String> zOrders = node.zOrders;
+            group.getChildren().sort(new Comparator<Actor>() {
+                @Override
+                public int compare(Actor arg0, Actor arg1) {
+                    return zOrder(zOrders, arg0.getName()) - zOrder(zOrders, arg1.getName());
+                }
+            });
+            return;
+        }
         group.getChildren().sort(new Comparator<Actor>() {
             @Override
             public int compare(Actor arg0, Actor arg1) {
@@ -361,6 +437,10 @@ public abstract class BaseWidgetParser {
 
     }
 
+    private static int zOrder(ObjectIntMap<String> zOrders, String name) {
+        return name == null ? 0 : zOrders.get(name, 0);
+    }
+
     /**
      * 由于libgdx的zindex并不表示渲染层级,所以这里采用这种方式来获取子控件的当前层级
      */
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.mwplay.cocostudio.ui.model.ObjectData;
+
+/**
+ * 编辑器范围内共用的 Drawable 缓存.
+ * 按 (资源路径, 九宫格参数, 翻转, 九宫格颜色) 查找,相同参数的控件得到同一个 Drawable,
+ * 不再为每个控件、每次时间线切换图片重新创建 NinePatch 和 TextureRegion.
+ * 缓存的 Drawable 会被多个控件共用,不要修改.只能在GL线程使用
+ */
+public class CCDrawableCache {
+
+    private final ObjectMap<Key, Drawable> drawables = new ObjectMap<Key, Drawable>();
+
+    /**
+     * 查找时复用,避免每次查找都创建键
+     */
+    private final Key lookup = new Key();
+
+    private int hits;
+    private int misses;
+
+    /**
+     * @param color 九宫格的颜色,rgba8888 格式,不是九宫格时忽略
+     * @return 没有缓存时返回 null
+     */
+    public Drawable get(ObjectData option, String name, int color) {
+        Drawable drawable = drawables.get(lookup.set(option, name, color));
+        if (drawable == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return drawable;
+    }
+
+    public void put(ObjectData option, String name, int color, Drawable drawable) {
+        drawables.put(new Key().set(option, name, color), drawable);
+    }
+
+    public int size() {
+        return drawables.size;
+    }
+
+    public void clear() {
+        drawables.clear();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * 命中率,没有查找过时为 0
+     */
+    public float getHitRate() {
+        int total = hits + misses;
+        return total == 0 ? 0 : (float) hits / total;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CCDrawableCache{drawables=" + drawables.size + ", hits=" + hits + ", misses=" + misses + "}";
+    }
+
+    private static class Key {
+        String name;
+        boolean scale9;
+        int originX;
+        int originY;
+        int width;
+        int height;
+        int color;
+        boolean flipX;
+        boolean flipY;
+
+        Key set(ObjectData option, String name, int color) {
+            this.name = name;
+            scale9 = option.isScale9Enable();
+            flipX = option.isFlipX();
+            flipY = option.isFlipY();
+            if (scale9) {
+                originX = option.getScale9OriginX();
+                originY = option.getScale9OriginY();
+                width = option.getScale9Width();
+                height = option.getScale9Height();
+                this.color = color;
+            } else {
+                originX = 0;
+                originY = 0;
+                width = 0;
+                height = 0;
+                this.color = 0;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return scale9 == key.scale9 && originX == key.originX && originY == key.originY
+                && width == key.width && height == key.height && color == key.color
+                && flipX == key.flipX && flipY == key.flipY && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + (scale9 ? 1 : 0);
+            result = 31 * result + originX;
+            result = 31 * result + originY;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + color;
+            result = 31 * result + (flipX ? 1 : 0);
+            result = 31 * result + (flipY ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.utils.Array;
+
+import net.mwplay.cocostudio.ui.model.ObjectData;
+
+import java.util.List;
+
+/**
+ * 分帧构建大布局.每次 update 只解析一部分节点(按节点数或耗时),避免在一帧内构建整棵树.
+ * <p>
+ * 节点仍通过各个转换器的 parse/commonParse 解析,自定义转换器同样适用,构建顺序与 createGroup 相同.
+ * 用法:每帧调用 {@link #update()},或把 {@link #action()} 添加到 Stage 上.
+ */
+public class CCIncrementalBuilder {
+
+    /**
+     * 构建进度回调
+     */
+    public interface BuildListener {
+        void onProgress(int built, int total);
+
+        void onComplete(Group group);
+    }
+
+    /**
+     * 正在解析子控件的节点
+     */
+    static class Frame {
+        BaseWidgetParser parser;
+        ObjectData widget;
+        Group container;
+        int index;
+    }
+
+    private final CocoStudioUIEditor editor;
+    private final ObjectData rootWidget;
+    private final Array<Frame> frames = new Array<Frame>();
+    private final int total;
+
+    private int nodeBudget = 50;
+    private long timeBudget;
+    private boolean attachWhileBuilding;
+    private BuildListener listener;
+
+    private Group root;
+    private int built;
+    private boolean started;
+    private boolean done;
+
+    public CCIncrementalBuilder(CocoStudioUIEditor editor) {
+        this.editor = editor;
+        this.rootWidget = editor.export.getContent().getContent().getObjectData();
+        this.total = count(rootWidget);
+    }
+
+    /**
+     * 每次 update 最多解析的节点数,0 表示不限制
+     */
+    public CCIncrementalBuilder setNodeBudget(int nodeBudget) {
+        this.nodeBudget = nodeBudget;
+        return this;
+    }
+
+    /**
+     * 每次 update 最多花费的时间(纳秒),0 表示不限制.至少会解析一个节点.
+     */
+    public CCIncrementalBuilder setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+        return this;
+    }
+
+    /**
+     * 为 true 时根节点解析后即可通过 getRoot 获取,之后解析的控件会直接出现在树中;
+     * 否则完成前 getRoot 返回 null.
+     */
+    public CCIncrementalBuilder setAttachWhileBuilding(boolean attachWhileBuilding) {
+        this.attachWhileBuilding = attachWhileBuilding;
+        return this;
+    }
+
+    public CCIncrementalBuilder setListener(BuildListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * 解析一部分节点
+     *
+     * @return 是否已构建完成
+     */
+    public boolean update() {
+        if (done) {
+            return true;
+        }
+        long start = System.nanoTime();
+        int nodes = 0;
+
+        editor.builder = this;
+        try {
+            if (!started) {
+                started = true;
+                editor.prepareGlyphs();
+                root = (Group) editor.parseWidget(null, rootWidget);
+                built++;
+                nodes++;
+            }
+            while (true) {
+                Frame frame = frames.size == 0 ? null : frames.peek();
+                if (frame == null) {
+                    done = true;
+                    break;
+                }
+                List<ObjectData> children = frame.widget.getChildren();
+                if (frame.index == children.size()) {
+                    frame.parser.finishChildren(frame.widget, frame.container);
+                    frames.pop();
+                    continue;
+                }
+                if (nodeBudget > 0 && nodes >= nodeBudget
+                    || timeBudget > 0 && nodes > 0 && System.nanoTime() - start >= timeBudget) {
+                    break;
+                }
+                ObjectData child = children.get(frame.index++);
+                Actor actor = editor.parseWidget(frame.container, child);
+                if (actor != null) {
+                    frame.parser.attachChild(frame.widget, frame.container, actor);
+                }
+                built++;
+                nodes++;
+            }
+        } finally {
+            editor.builder = null;
+        }
+
+        if (listener != null) {
+            listener.onProgress(built, total);
+            if (done) {
+                listener.onComplete(root);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * 每帧调用一次 update 的Action,构建完成后自动结束
+     */
+    public Action action() {
+        return new Action() {
+            @Override
+            public boolean act(float delta) {
+                return update();
+            }
+        };
+    }
+
+    void push(BaseWidgetParser parser, ObjectData widget, Group container) {
+        Frame frame = new Frame();
+        frame.parser = parser;
+        frame.widget = widget;
+        frame.container = container;
+        frames.add(frame);
+    }
+
+    /**
+     * 延迟解析的节点只创建占位符,子控件不由构建器解析,不计入总数
+     */
+    private int count(ObjectData widget) {
+        int count = 1;
+        if (widget.getChildren() != null && editor.parsers.containsKey(widget.getCtype())
+            && !editor.isLazy(widget)) {
+            for (ObjectData child : widget.getChildren()) {
+                count += count(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 构建完成前返回 null,除非设置了 attachWhileBuilding
+     */
+    public Group getRoot() {
+        return done || attachWhileBuilding ? root : null;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public int getBuilt() {
+        return built;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public float getProgress() {
+        return total == 0 ? 1 : built / (float) total;
+    }
+}
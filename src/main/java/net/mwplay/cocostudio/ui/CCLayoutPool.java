@@ -0,0 +1,327 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Event;
+import com.badlogic.gdx.scenes.scene2d.EventListener;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+import com.badlogic.gdx.scenes.scene2d.ui.Button;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener.ChangeEvent;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+import net.mwplay.cocostudio.ui.widget.TLoadingBar;
+
+/**
+ * 布局实例池,适合反复显示的弹窗、提示和列表项.
+ * <p>
+ * obtain 返回构建好的 Group,free 时从父节点移除,并把每个控件的位置、大小、缩放、旋转、颜色、
+ * 可见性、文字、选中状态、进度和时间线动画恢复为导出时的初始状态.
+ * 超出容量的实例会被丢弃.
+ * 创建时会编译编辑器的构建计划,所有实例共用纹理.
+ * 不要手动移除实例上的时间线动画,也不要增删布局中的控件,这些改动不会被还原.
+ */
+public class CCLayoutPool extends Pool<Group> {
+
+    private final CocoStudioUIEditor editor;
+    private final ObjectMap<Group, Array<ActorState>> states = new ObjectMap<Group, Array<ActorState>>();
+
+    private int created;
+    private int obtained;
+    private int freed;
+    private int discarded;
+
+    public CCLayoutPool(CocoStudioUIEditor editor, int max) {
+        this(editor, Math.min(16, max), max);
+    }
+
+    public CCLayoutPool(CocoStudioUIEditor editor, int initialCapacity, int max) {
+        super(initialCapacity, max);
+        this.editor = editor;
+        editor.compile();
+    }
+
+    @Override
+    protected Group newObject() {
+        Group group = editor.createGroup();
+        Array<ActorState> snapshot = new Array<ActorState>();
+        capture(group, snapshot);
+        states.put(group, snapshot);
+        created++;
+        return group;
+    }
+
+    @Override
+    public Group obtain() {
+        obtained++;
+        return super.obtain();
+    }
+
+    @Override
+    public void free(Group group) {
+        if (group == null) {
+            throw new IllegalArgumentException("group cannot be null.");
+        }
+        if (getFree() >= max) {
+            discard(group);
+            return;
+        }
+        freed++;
+        super.free(group);
+    }
+
+    @Override
+    public void freeAll(Array<Group> groups) {
+        for (Group group : groups) {
+            free(group);
+        }
+    }
+
+    @Override
+    protected void reset(Group group) {
+        group.remove();
+        Array<ActorState> snapshot = states.get(group);
+        if (snapshot == null) {
+            return;
+        }
+        for (ActorState state : snapshot) {
+            state.restore();
+        }
+    }
+
+    /**
+     * 预先创建实例
+     */
+    public void fill(int count) {
+        for (int i = 0; i < count && getFree() < max; i++) {
+            super.free(newObject());
+        }
+    }
+
+    @Override
+    public void clear() {
+        while (getFree() > 0) {
+            discard(super.obtain());
+        }
+    }
+
+    private void discard(Group group) {
+        group.remove();
+        Array<ActorState> snapshot = states.remove(group);
+        if (snapshot != null) {
+            for (ActorState state : snapshot) {
+                Array<Actor> named = editor.getActors().get(state.actor.getName());
+                if (named != null) {
+                    named.removeValue(state.actor, true);
+                }
+                editor.getActorActionMap().remove(state.actor);
+            }
+        }
+        discarded++;
+    }
+
+    private static void capture(Actor actor, Array<ActorState> snapshot) {
+        snapshot.add(new ActorState(actor));
+        if (actor instanceof Group) {
+            for (Actor child : ((Group) actor).getChildren()) {
+                capture(child, snapshot);
+            }
+        }
+    }
+
+    /**
+     * 池中创建过的实例数
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    public int getObtained() {
+        return obtained;
+    }
+
+    public int getFreed() {
+        return freed;
+    }
+
+    /**
+     * 超出容量被丢弃的实例数
+     */
+    public int getDiscarded() {
+        return discarded;
+    }
+
+    public void resetStats() {
+        created = 0;
+        obtained = 0;
+        freed = 0;
+        discarded = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CCLayoutPool{free=" + getFree() + "/" + max + ", peak=" + peak + ", created=" + created
+            + ", obtained=" + obtained + ", freed=" + freed + ", discarded=" + discarded + "}";
+    }
+
+    /**
+     * 停止还原状态时触发的 ChangeEvent,不取消,控件的值照常修改
+     */
+    static final EventListener CHANGE_BLOCKER = new EventListener() {
+        @Override
+        public boolean handle(Event event) {
+            if (event instanceof ChangeEvent) {
+                event.stop();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * 控件的初始状态
+     */
+    static class ActorState {
+        final Actor actor;
+        final float x;
+        final float y;
+        final float width;
+        final float height;
+        final float originX;
+        final float originY;
+        final float scaleX;
+        final float scaleY;
+        final float rotation;
+        final Color color;
+        final boolean visible;
+        final Touchable touchable;
+        final Array<Action> actions;
+        String text;
+        boolean checked;
+        boolean disabled;
+        float value;
+        float scrollX;
+        float scrollY;
+        Drawable drawable;
+
+        ActorState(Actor actor) {
+            this.actor = actor;
+            x = actor.getX();
+            y = actor.getY();
+            width = actor.getWidth();
+            height = actor.getHeight();
+            originX = actor.getOriginX();
+            originY = actor.getOriginY();
+            scaleX = actor.getScaleX();
+            scaleY = actor.getScaleY();
+            rotation = actor.getRotation();
+            color = new Color(actor.getColor());
+            visible = actor.isVisible();
+            touchable = actor.getTouchable();
+            actions = new Array<Action>(actor.getActions());
+            for (Action action : actions) {
+                // 移除时不归还到 Actions 的对象池,否则无法再次使用
+                action.setPool(null);
+            }
+
+            if (actor instanceof Label) {
+                text = ((Label) actor).getText().toString();
+            } else if (actor instanceof TextField) {
+                text = ((TextField) actor).getText();
+            } else if (actor instanceof Button) {
+                checked = ((Button) actor).isChecked();
+                disabled = ((Button) actor).isDisabled();
+            } else if (actor instanceof ProgressBar) {
+                value = ((ProgressBar) actor).getValue();
+            } else if (actor instanceof TLoadingBar) {
+                value = ((TLoadingBar) actor).getValue();
+            } else if (actor instanceof Image) {
+                drawable = ((Image) actor).getDrawable();
+            } else if (actor instanceof ScrollPane) {
+                scrollX = ((ScrollPane) actor).getScrollX();
+                scrollY = ((ScrollPane) actor).getScrollY();
+            }
+        }
+
+        void restore() {
+            Array<Action> running = actor.getActions();
+            for (int i = running.size - 1; i >= 0; i--) {
+                actor.removeAction(running.get(i));
+            }
+            // 还原状态不是用户操作,不通知用户的 ChangeListener
+            actor.addCaptureListener(CHANGE_BLOCKER);
+            try {
+                restoreWidget();
+            } finally {
+                actor.removeCaptureListener(CHANGE_BLOCKER);
+            }
+            for (Action action : actions) {
+                action.restart();
+                actor.addAction(action);
+            }
+
+            actor.setBounds(x, y, width, height);
+            actor.setOrigin(originX, originY);
+            actor.setScale(scaleX, scaleY);
+            actor.setRotation(rotation);
+            actor.setColor(color);
+            actor.setVisible(visible);
+            actor.setTouchable(touchable);
+        }
+
+        private void restoreWidget() {
+            if (actor instanceof Label) {
+                ((Label) actor).setText(text);
+            } else if (actor instanceof TextField) {
+                // setText 会按最大长度截断,初始文字可能比最大长度长
+                TextField textField = (TextField) actor;
+                int maxLength = textField.getMaxLength();
+                textField.setMaxLength(0);
+                textField.setText(text);
+                textField.setMaxLength(maxLength);
+            } else if (actor instanceof Button) {
+                Button button = (Button) actor;
+                if (button.isChecked() != checked) {
+                    button.setChecked(checked);
+                }
+                button.setDisabled(disabled);
+            } else if (actor instanceof ProgressBar) {
+                ((ProgressBar) actor).setValue(value);
+                // 没有动作时结束数值动画,直接显示初始值
+                actor.act(Float.MAX_VALUE);
+            } else if (actor instanceof TLoadingBar) {
+                ((TLoadingBar) actor).setValue((int) value);
+            } else if (actor instanceof Image) {
+                ((Image) actor).setDrawable(drawable);
+            } else if (actor instanceof ScrollPane) {
+                ((ScrollPane) actor).setScrollX(scrollX);
+                ((ScrollPane) actor).setScrollY(scrollY);
+                ((ScrollPane) actor).updateVisualScroll();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+
+import net.mwplay.cocostudio.ui.model.ObjectData;
+
+/**
+ * 延迟解析的子控件占位符.
+ * 保存节点的 ObjectData,所在控件及其所有父控件都可见时,或通过 findActor 查找其中的控件时才解析子控件.
+ */
+public class CCLazyNode extends Actor {
+
+    private final CocoStudioUIEditor editor;
+    private final BaseWidgetParser parser;
+    private final ObjectData widget;
+    private final Group container;
+
+    CCLazyNode(CocoStudioUIEditor editor, BaseWidgetParser parser, ObjectData widget, Group container) {
+        this.editor = editor;
+        this.parser = parser;
+        this.widget = widget;
+        this.container = container;
+        setTouchable(Touchable.disabled);
+    }
+
+    @Override
+    public void act(float delta) {
+        for (Actor actor = container; actor != null; actor = actor.getParent()) {
+            if (!actor.isVisible()) {
+                return;
+            }
+        }
+        materialize();
+    }
+
+    /**
+     * 解析子控件并替换占位符.占位符已被移出所在控件时不再解析
+     */
+    public void materialize() {
+        // 先移出待解析列表,否则 findActor 和 materializeAll 会一直尝试解析它
+        editor.lazyNodes.removeValue(this, true);
+        if (getParent() != container) {
+            return;
+        }
+        remove();
+        parser.buildChildren(editor, widget, container);
+    }
+
+    /**
+     * 子控件中是否有这个名字的控件
+     */
+    boolean contains(String name) {
+        return contains(widget, name);
+    }
+
+    private static boolean contains(ObjectData widget, String name) {
+        if (widget.getChildren() == null) {
+            return false;
+        }
+        for (ObjectData child : widget.getChildren()) {
+            if (name.equals(child.getName()) || contains(child, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ObjectData getWidget() {
+        return widget;
+    }
+}
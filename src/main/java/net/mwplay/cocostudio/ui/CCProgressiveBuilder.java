@@ -0,0 +1,227 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.mwplay.cocostudio.ui.loader.CCTextureCache;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.model.Size;
+import net.mwplay.cocostudio.ui.widget.ScaledTextureRegion;
+
+/**
+ * 渐进加载大布局.控件立即创建,还没加载完的图片先用占位,由 AssetManager 在之后的帧中加载,加载完后替换.
+ * <p>
+ * Image、Button、CheckBox、Panel等通过 findDrawable 取图片的控件得到一个加载前不绘制的 Drawable,
+ * LoadingBar、Slider得到透明的占位区域.控件尺寸来自 ObjectData 的 Size,替换时布局不会跳动.
+ * LabelAtlas 等需要按图片切分的控件仍然同步加载.
+ * 用法:每帧调用 {@link #update()},或把 {@link #action()} 添加到 Stage 上.
+ */
+public class CCProgressiveBuilder {
+
+    private final CocoStudioUIEditor editor;
+    private final AssetManager assetManager;
+
+    /**
+     * k: 图片路径 v: 等待替换的占位
+     */
+    private final ObjectMap<String, Array<Placeholder>> pending = new ObjectMap<String, Array<Placeholder>>();
+
+    private int uploadBudget = 8;
+    private int total;
+    private Group root;
+
+    CCProgressiveBuilder(CocoStudioUIEditor editor, AssetManager assetManager) {
+        this.editor = editor;
+        this.assetManager = assetManager;
+    }
+
+    void build() {
+        root = editor.createGroup(assetManager);
+    }
+
+    /**
+     * 每帧用于加载和上传纹理的毫秒数,见 AssetManager.update(int)
+     */
+    public CCProgressiveBuilder setUploadBudget(int uploadBudget) {
+        this.uploadBudget = uploadBudget;
+        return this;
+    }
+
+    /**
+     * 加载一部分图片,替换已加载完的占位
+     *
+     * @return 是否全部替换完成
+     */
+    public boolean update() {
+        if (pending.size == 0) {
+            return true;
+        }
+        assetManager.update(uploadBudget);
+        ObjectMap.Entries<String, Array<Placeholder>> entries = pending.entries();
+        while (entries.hasNext()) {
+            ObjectMap.Entry<String, Array<Placeholder>> entry = entries.next();
+            if (assetManager.isLoaded(entry.key, Texture.class)) {
+                for (Placeholder placeholder : entry.value) {
+                    placeholder.replace();
+                }
+                entries.remove();
+            }
+        }
+        return pending.size == 0;
+    }
+
+    /**
+     * 每帧调用 update 的 Action,完成后自动移除
+     */
+    public Action action() {
+        return new Action() {
+            @Override
+            public boolean act(float delta) {
+                return update();
+            }
+        };
+    }
+
+    public Group getRoot() {
+        return root;
+    }
+
+    public boolean isDone() {
+        return pending.size == 0;
+    }
+
+    /**
+     * 等待加载的图片数
+     */
+    public int getPendingCount() {
+        return pending.size;
+    }
+
+    /**
+     * 已加载的图片比例
+     */
+    public float getProgress() {
+        return total == 0 ? 1 : (total - pending.size) / (float) total;
+    }
+
+    TextureRegion placeholderRegion(CocoStudioUIEditor owner, final ObjectData option, String name) {
+        Size size = option.getSize();
+        final ScaledTextureRegion region = new ScaledTextureRegion(clearTexture(owner), 1, 0, 0,
+            size == null ? 1 : Math.max(1, (int) size.getX()), size == null ? 1 : Math.max(1, (int) size.getY()));
+        final String path = owner.resolvePath(name);
+        final float scale = owner.getTextureScale(name);
+        add(path, new Placeholder() {
+            @Override
+            public void replace() {
+                // 低分辨率档位的纹理保持逻辑尺寸
+                region.setScale(scale);
+                region.setRegion(assetManager.get(path, Texture.class));
+                // setRegion 重置了纹理坐标,与 findTextureRegion 一样翻转
+                if (option.isFlipX() || option.isFlipY()) {
+                    region.flip(option.isFlipX(), option.isFlipY());
+                }
+            }
+        });
+        return region;
+    }
+
+    Drawable placeholderDrawable(CocoStudioUIEditor owner, ObjectData option, String name) {
+        PlaceholderDrawable drawable = new PlaceholderDrawable(owner, option, name);
+        add(owner.resolvePath(name), drawable);
+        return drawable;
+    }
+
+    private void add(String path, Placeholder placeholder) {
+        Array<Placeholder> placeholders = pending.get(path);
+        if (placeholders == null) {
+            placeholders = new Array<Placeholder>(false, 4);
+            pending.put(path, placeholders);
+            total++;
+            if (!assetManager.isLoaded(path, Texture.class)) {
+                assetManager.load(path, Texture.class);
+            }
+        }
+        placeholders.add(placeholder);
+    }
+
+    private static Texture clearTexture(CocoStudioUIEditor owner) {
+        Texture texture = owner.textures.get(CCTextureCache.CLEAR);
+        if (texture == null) {
+            texture = owner.getTextureCache().obtainClear();
+            owner.textures.put(CCTextureCache.CLEAR, texture);
+        }
+        return texture;
+    }
+
+    interface Placeholder {
+        void replace();
+    }
+
+    /**
+     * 加载完成前不绘制,之后转发给真正的 Drawable
+     */
+    static class PlaceholderDrawable extends BaseDrawable implements Placeholder {
+        final CocoStudioUIEditor owner;
+        final ObjectData option;
+        final String name;
+        Drawable drawable;
+
+        PlaceholderDrawable(CocoStudioUIEditor owner, ObjectData option, String name) {
+            this.owner = owner;
+            this.option = option;
+            this.name = name;
+            Size size = option.getSize();
+            if (size != null) {
+                setMinWidth(size.getX());
+                setMinHeight(size.getY());
+            }
+        }
+
+        @Override
+        public void replace() {
+            drawable = owner.findDrawable(option, name);
+            if (drawable != null) {
+                setLeftWidth(drawable.getLeftWidth());
+                setRightWidth(drawable.getRightWidth());
+                setTopHeight(drawable.getTopHeight());
+                setBottomHeight(drawable.getBottomHeight());
+                setMinWidth(drawable.getMinWidth());
+                setMinHeight(drawable.getMinHeight());
+            }
+        }
+
+        public Drawable getDrawable() {
+            return drawable;
+        }
+
+        @Override
+        public void draw(Batch batch, float x, float y, float width, float height) {
+            if (drawable != null) {
+                drawable.draw(batch, x, y, width, height);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Collection;
+
+/**
+ * 所有合并纹理的区域索引,按名字和下标哈希查找,代替逐个图集的线性查找.
+ * 同名区域以先出现的为准,与依次调用 TextureAtlas.findRegion 的结果相同.
+ * 图集内容变化后需要重新创建.多个编辑器使用同一组图集时可以通过
+ * {@link CocoStudioUIEditor#setRegionIndex(CCRegionIndex)} 共用.
+ */
+public class CCRegionIndex {
+
+    private final ObjectMap<String, AtlasRegion> regions = new ObjectMap<String, AtlasRegion>();
+    private final ObjectMap<String, IntMap<AtlasRegion>> indexedRegions =
+        new ObjectMap<String, IntMap<AtlasRegion>>();
+
+    /**
+     * k: 导出文件中的资源路径 v: 对应区域,找不到时为 null
+     */
+    private final ObjectMap<String, AtlasRegion> resolved = new ObjectMap<String, AtlasRegion>();
+
+    /**
+     * 区域像素相对布局逻辑尺寸的比例,低分辨率档位的图集小于1
+     */
+    private float scale = 1;
+
+    public CCRegionIndex(Collection<TextureAtlas> textureAtlas) {
+        for (TextureAtlas atlas : textureAtlas) {
+            if (atlas == null) {
+                continue;
+            }
+            for (AtlasRegion region : atlas.getRegions()) {
+                if (!regions.containsKey(region.name)) {
+                    regions.put(region.name, region);
+                }
+                if (region.index != -1) {
+                    IntMap<AtlasRegion> indexed = indexedRegions.get(region.name);
+                    if (indexed == null) {
+                        indexed = new IntMap<AtlasRegion>();
+                        indexedRegions.put(region.name, indexed);
+                    }
+                    if (!indexed.containsKey(region.index)) {
+                        indexed.put(region.index, region);
+                    }
+                }
+            }
+        }
+    }
+
+    public AtlasRegion findRegion(String name) {
+        return regions.get(name);
+    }
+
+    public AtlasRegion findRegion(String name, int index) {
+        IntMap<AtlasRegion> indexed = indexedRegions.get(name);
+        return indexed == null ? null : indexed.get(index);
+    }
+
+    /**
+     * 按导出文件中的资源路径查找区域.路径去掉第一级目录和扩展名后作为区域名,
+     * 名字以 _N 结尾时先按 name 和下标 N 查找,找不到再按完整名字查找.
+     * 结果会被缓存
+     *
+     * @return 找不到时返回 null
+     */
+    public AtlasRegion find(String path) {
+        if (resolved.containsKey(path)) {
+            return resolved.get(path);
+        }
+
+        String name = normalize(path);
+        AtlasRegion region = null;
+        int underscore = name.lastIndexOf('_');
+        if (underscore != -1) {
+            int index = parseIndex(name, underscore + 1);
+            if (index != -1) {
+                region = findRegion(name.substring(0, underscore), index);
+            }
+        }
+        if (region == null) {
+            region = findRegion(name);
+        }
+        resolved.put(path, region);
+        return region;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * 见 {@link CCResolutionTier}
+     */
+    public void setScale(float scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * 区域数量,不含同名的重复区域
+     */
+    public int size() {
+        return regions.size;
+    }
+
+    /**
+     * 资源路径对应的区域名,LevelSelection/LS01.png -> LS01,与打包时去掉的目录层级一致
+     */
+    public static String normalize(String path) {
+        int slash = path.indexOf('/');
+        String name = slash == -1 ? path : path.substring(slash + 1);
+        int dot = name.lastIndexOf('.');
+        if (dot > name.lastIndexOf('/')) {
+            name = name.substring(0, dot);
+        }
+        return name;
+    }
+
+    /**
+     * @return 不是非负整数时返回 -1
+     */
+    static int parseIndex(String name, int start) {
+        int length = name.length() - start;
+        if (length == 0 || length > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + c - '0';
+        }
+        return index;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 图片的分辨率档位.低分辨率的图片放在布局目录下以档位后缀命名的目录中,相对路径与原图相同,
+ * 如 image/bg.png 的 @1x 档位为 @1x/image/bg.png,尺寸为原图的 scale 倍.
+ * 控件仍按导出文件中的逻辑尺寸、九宫格参数和坐标布局,只有纹理变小.没有该档位文件的图片使用原图.
+ * 使用合并纹理时传入该档位的图集,见 {@link #resolveAtlas(FileHandle)}.
+ * <pre>
+ * CCResolutionTier tier = CCResolutionTier.select(
+ *     new CCResolutionTier("@1x", 0.5f, 0), new CCResolutionTier(null, 1, 1.5f));
+ * editor.setResolutionTier(tier);
+ * </pre>
+ */
+public class CCResolutionTier {
+
+    private final String suffix;
+    private final float scale;
+    private final float minDensity;
+
+    /**
+     * k: 原图路径 v: 档位中的路径,没有该档位文件时为原图路径.可能在工作线程中查找
+     */
+    private final Map<String, String> resolved = new HashMap<String, String>();
+
+    /**
+     * @param suffix     档位目录和图集文件名的后缀,如 "@1x",为 null 表示原图
+     * @param scale      档位图片相对原图的比例
+     * @param minDensity 屏幕密度(Gdx.graphics.getDensity())不低于该值时才选择此档位
+     */
+    public CCResolutionTier(String suffix, float scale, float minDensity) {
+        this.suffix = suffix;
+        this.scale = suffix == null ? 1 : scale;
+        this.minDensity = minDensity;
+    }
+
+    /**
+     * 按当前屏幕密度选择档位
+     */
+    public static CCResolutionTier select(CCResolutionTier... tiers) {
+        return select(Gdx.graphics.getDensity(), tiers);
+    }
+
+    /**
+     * 选择 minDensity 不超过 density 的最高档位,都超过时选择 minDensity 最低的档位
+     */
+    public static CCResolutionTier select(float density, CCResolutionTier... tiers) {
+        CCResolutionTier selected = null;
+        CCResolutionTier lowest = null;
+        for (CCResolutionTier tier : tiers) {
+            if (tier.minDensity <= density && (selected == null || tier.minDensity > selected.minDensity)) {
+                selected = tier;
+            }
+            if (lowest == null || tier.minDensity < lowest.minDensity) {
+                lowest = tier;
+            }
+        }
+        return selected == null ? lowest : selected;
+    }
+
+    /**
+     * 图片在该档位中的路径
+     *
+     * @param dirName 布局目录,见 {@link CocoStudioUIEditor#resolveDirName(FileHandle)}
+     * @param name    导出文件中的资源路径
+     * @return 没有该档位文件时返回原图路径
+     */
+    public String resolve(String dirName, String name) {
+        String path = dirName + name;
+        if (suffix == null) {
+            return path;
+        }
+        synchronized (resolved) {
+            String tierPath = resolved.get(path);
+            if (tierPath == null) {
+                tierPath = dirName + suffix + "/" + name;
+                if (!Gdx.files.internal(tierPath).exists()) {
+                    tierPath = path;
+                }
+                resolved.put(path, tierPath);
+            }
+            return tierPath;
+        }
+    }
+
+    /**
+     * 图集在该档位中的文件,ui.atlas 的 @1x 档位为同目录下的 ui@1x.atlas
+     *
+     * @return 没有该档位文件时返回 atlasFile
+     */
+    public FileHandle resolveAtlas(FileHandle atlasFile) {
+        if (suffix == null) {
+            return atlasFile;
+        }
+        FileHandle tierFile = atlasFile.sibling(atlasFile.nameWithoutExtension() + suffix + "."
+            + atlasFile.extension());
+        return tierFile.exists() ? tierFile : atlasFile;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public float getMinDensity() {
+        return minDensity;
+    }
+
+    @Override
+    public String toString() {
+        return suffix == null ? "原图" : suffix + "(" + scale + ")";
+    }
+}
@@ -29,16 +29,23 @@ import com.badlogic.gdx.scenes.scene2d.Action;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.NinePatchDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Json;
 
+import net.mwplay.cocostudio.ui.loader.CCExportCache;
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
+import net.mwplay.cocostudio.ui.loader.CCGlyphSets;
+import net.mwplay.cocostudio.ui.loader.CCParallelLoader;
+import net.mwplay.cocostudio.ui.loader.CCPreparedResources;
+import net.mwplay.cocostudio.ui.loader.CCTextureCache;
 import net.mwplay.cocostudio.ui.model.CCExport;
 import net.mwplay.cocostudio.ui.model.CColor;
 import net.mwplay.cocostudio.ui.model.FileData;
 import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.model.Scale;
 import net.mwplay.cocostudio.ui.parser.group.CCButton;
 import net.mwplay.cocostudio.ui.parser.group.CCCheckBox;
 import net.mwplay.cocostudio.ui.parser.group.CCLabelAtlas;
@@ -58,17 +65,21 @@ import net.mwplay.cocostudio.ui.parser.widget.CCSpriteView;
 import net.mwplay.cocostudio.ui.parser.widget.CCTImageView;
 import net.mwplay.cocostudio.ui.parser.widget.CCTextAtlas;
 import net.mwplay.cocostudio.ui.parser.widget.CCTextField;
-import net.mwplay.cocostudio.ui.util.FontUtil;
+import net.mwplay.cocostudio.ui.util.FontUtil.PreparedFont;
 import net.mwplay.cocostudio.ui.util.LogUtil;
+import net.mwplay.cocostudio.ui.widget.GradientDrawable;
+import net.mwplay.cocostudio.ui.widget.ScaledTextureRegion;
 import net.mwplay.cocostudio.ui.widget.TTFLabelStyle;
 import net.mwplay.nativefont.NativeFont;
-import net.mwplay.nativefont.NativeFontPaint;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * CocoStudio ui 解析器.根据CocoStudio的ui编辑器生成的json文件,创建出一个对应Group.
@@ -79,9 +90,9 @@ public class CocoStudioUIEditor {
     final String tag = CocoStudioUIEditor.class.getName();
 
     /**
-     * json文件所在目录
+     * json文件所在目录,每个编辑器独立,并发加载多个布局时互不影响
      */
-    public static String dirName;
+    protected String dirName;
 
     /**
      * 所有纹理
@@ -116,11 +127,103 @@ public class CocoStudioUIEditor {
     protected CCExport export;
 
     protected Map<String, BaseWidgetParser> parsers;
+
+    /**
+     * 构建计划,调用 compile 后生效
+     */
+    protected CCLayoutPlan plan;
+
+    /**
+     * 正在进行的分帧构建
+     */
+    CCIncrementalBuilder builder;
+
+    /**
+     * 不可见节点的子控件是否延迟解析
+     */
+    protected boolean lazyHidden;
+
+    /**
+     * 需要延迟解析子控件的节点名字
+     */
+    protected Set<String> lazyNames;
+
+    /**
+     * 还未解析的占位符
+     */
+    final Array<CCLazyNode> lazyNodes = new Array<CCLazyNode>();
     /**
      * 默认ttf字体文件
      */
     protected FileHandle defaultFont;
 
+    /**
+     * 工作线程中预先准备好的资源,见 {@link CCParallelLoader}
+     */
+    protected CCPreparedResources prepared;
+
+    /**
+     * 并行解码图片使用的工作线程
+     */
+    protected CCParallelLoader parallelLoader;
+
+    /**
+     * 渐进加载时替换占位的构建器
+     */
+    protected CCProgressiveBuilder progressive;
+
+    /**
+     * 合并纹理的区域索引
+     */
+    protected CCRegionIndex regionIndex;
+
+    /**
+     * 图片的分辨率档位,为 null 时使用原图
+     */
+    protected CCResolutionTier resolutionTier;
+
+    /**
+     * 小文件方式加载图片时使用的纹理缓存
+     */
+    protected CCTextureCache textureCache = CCTextureCache.getDefault();
+
+    /**
+     * ttf字体使用的字体缓存
+     */
+    protected CCFontCache fontCache = CCFontCache.getDefault();
+
+    /**
+     * 布局和嵌套布局用到的字符,为 null 时第一次 createGroup 前统计
+     */
+    protected CCGlyphSets glyphSets;
+
+    private boolean glyphsPrepared;
+
+    /**
+     * 本布局引用的纹理,k: 路径
+     */
+    protected final Map<String, Texture> textures = new HashMap<String, Texture>();
+
+    /**
+     * 本布局从 {@link CCFontCache} 引用的字体
+     */
+    protected final Set<BitmapFont> usedFonts = new HashSet<BitmapFont>();
+
+    /**
+     * 单色、渐变背景共用的白色纹理区域
+     */
+    protected TextureRegion whiteRegion;
+
+    /**
+     * 本布局和多次实例化共用的 Drawable
+     */
+    protected final CCDrawableCache drawableCache = new CCDrawableCache();
+
+    /**
+     * 嵌套节点的编辑器,随本编辑器一起释放
+     */
+    protected final Array<CocoStudioUIEditor> nestedEditors = new Array<CocoStudioUIEditor>();
+
     /**
      * 不需要显示文字
      *
@@ -133,7 +236,7 @@ public class CocoStudioUIEditor {
     }
 
     /**
-     * @param jsonFile     ui编辑成生成的json文件
+     * @param jsonFile     ui编辑成生成的json文件,或编译后的二进制布局
      * @param textureAtlas 资源文件,传入 null表示使用小文件方式加载图片.
      * @param ttfs         字体文件集合
      * @param bitmapFonts  自定义字体文件集合
@@ -180,27 +283,27 @@ public class CocoStudioUIEditor {
 
         actorActionMap = new HashMap<Actor, Action>();
 
-        dirName = jsonFile.parent().toString();
+        dirName = resolveDirName(jsonFile);
+        export = CCExportCache.getDefault().get(jsonFile);
+    }
+
+    /**
+     * 资源路径相对的目录,即json文件所在目录
+     */
+    public static String resolveDirName(FileHandle jsonFile) {
+        String dirName = jsonFile.parent().toString();
 
         if (!dirName.equals("")) {
             dirName += File.separator;
         }
-        String json = jsonFile.readString("utf-8");
-        Json jj = new Json();
-        jj.setIgnoreUnknownFields(true);
-        export = jj.fromJson(CCExport.class, json);
+        return dirName;
     }
 
+    /**
+     * 导出文件用到的资源,路径相对于 {@link #resolveDirName(FileHandle)}
+     */
     public static List<String> getResources(FileHandle jsonFile) {
-        dirName = jsonFile.parent().toString();
-
-        if (!dirName.equals("")) {
-            dirName += File.separator;
-        }
-        String json = jsonFile.readString("utf-8");
-        Json jj = new Json();
-        jj.setIgnoreUnknownFields(true);
-        CCExport export = jj.fromJson(CCExport.class, json);
+        CCExport export = CCExportCache.getDefault().get(jsonFile);
         return export.getContent().getContent().getUsedResources();
     }
 
@@ -218,7 +321,7 @@ public class CocoStudioUIEditor {
      * @return
      */
     public <T extends Actor> T findActor(String name) {
-        Array<Actor> array = actors.get(name);
+        Array<Actor> array = findActors(name);
         if (array == null || array.size == 0) {
             return null;
         }
@@ -226,28 +329,199 @@ public class CocoStudioUIEditor {
     }
 
     /**
-     * 查找所有同名的控件
+     * 查找所有同名的控件,包含这个名字的延迟节点会被解析
      */
     public Array<Actor> findActors(String name) {
-
+        // 解析出的子控件里可能还有延迟节点
+        CCLazyNode lazyNode = name == null ? null : findLazyNode(name);
+        while (lazyNode != null) {
+            lazyNode.materialize();
+            lazyNode = findLazyNode(name);
+        }
         return actors.get(name);
     }
 
+    private CCLazyNode findLazyNode(String name) {
+        for (CCLazyNode lazyNode : lazyNodes) {
+            if (lazyNode.contains(name)) {
+                return lazyNode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 开启后,VisibleForFrame 为 false 的节点的子控件先用占位符代替,
+     * 在节点及其父控件都可见后的下一次 act,或者通过 findActor 查找时再解析.
+     * 需要在 createGroup 前设置.
+     */
+    public void setLazyHidden(boolean lazyHidden) {
+        this.lazyHidden = lazyHidden;
+    }
+
+    /**
+     * 指定名字的节点的子控件延迟解析,规则同 {@link #setLazyHidden(boolean)}
+     */
+    public void addLazy(String name) {
+        if (lazyNames == null) {
+            lazyNames = new HashSet<String>();
+        }
+        lazyNames.add(name);
+    }
+
+    boolean isLazy(ObjectData widget) {
+        return lazyHidden && !widget.isVisibleForFrame()
+            || lazyNames != null && lazyNames.contains(widget.getName());
+    }
+
+    /**
+     * 解析所有延迟的节点
+     */
+    public void materializeAll() {
+        while (lazyNodes.size > 0) {
+            lazyNodes.peek().materialize();
+        }
+    }
+
+    /**
+     * 还未解析的延迟节点
+     */
+    public Array<CCLazyNode> getLazyNodes() {
+        return lazyNodes;
+    }
+
     /**
      * 根据json文件创建并返回Group
      *
      * @return
      */
     public Group createGroup() {
+        boolean decoded = parallelLoader != null && prepared == null && textures.isEmpty()
+            && (textureAtlas == null || textureAtlas.isEmpty());
+        if (decoded) {
+            prepared = parallelLoader.decodeImages(export, dirName, resolutionTier);
+            uploadPrepared();
+        }
+        prepareGlyphs();
         Actor actor = parseWidget(null, export.getContent().getContent()
             .getObjectData());
+        if (decoded) {
+            prepared.disposeUnused();
+            prepared = null;
+        }
 
         return (Group) actor;
     }
 
+    /**
+     * 创建控件前把每个 (字体文件, 字号) 用到的全部字符一次光栅化,之后的ttf控件都从字体缓存中取出共用字体.
+     * 只在第一次调用时生效
+     */
+    public void prepareGlyphs() {
+        if (glyphsPrepared) {
+            return;
+        }
+        glyphsPrepared = true;
+        if (glyphSets == null) {
+            glyphSets = CCGlyphSets.collect(export, dirName, ttfs, defaultFont, true);
+        }
+        for (CCGlyphSets.GlyphSet set : glyphSets.getSets()) {
+            PreparedFont preparedFont = prepared == null ? null
+                : prepared.takeFont(set.getFontFile(), set.getSize());
+            if (preparedFont != null) {
+                fontCache.adopt(set.getFontFile(), set.getSize(), preparedFont);
+            }
+            BitmapFont font = fontCache.obtain(set.getFontFile(), set.getSize(), null, set.getCharacters());
+            if (font != null) {
+                retain(font);
+            }
+        }
+    }
+
+    /**
+     * 本布局第一次使用缓存中的字体时增加引用计数,dispose 时释放
+     */
+    private BitmapFont retain(BitmapFont font) {
+        if (usedFonts.add(font)) {
+            fontCache.retain(font);
+        }
+        return font;
+    }
+
+    /**
+     * 一次上传所有预先解码的图片,包括嵌套布局的
+     */
+    private void uploadPrepared() {
+        for (String path : prepared.getTexturePaths()) {
+            if (!textures.containsKey(path)) {
+                textures.put(path, textureCache.obtain(path, prepared.takeTextureData(path)));
+            }
+        }
+    }
+
+    /**
+     * 小文件方式下第一次 createGroup 时用工作线程并行解码布局和嵌套布局的所有图片,再在GL线程中一次上传.
+     * 为 null 时在GL线程中逐张加载
+     */
+    public void setParallelLoader(CCParallelLoader parallelLoader) {
+        this.parallelLoader = parallelLoader;
+    }
+
+    public CCParallelLoader getParallelLoader() {
+        return parallelLoader;
+    }
+
+    public CCProgressiveBuilder getProgressive() {
+        return progressive;
+    }
+
+    /**
+     * 嵌套布局与外层布局共用同一个渐进加载
+     */
+    public void setProgressive(CCProgressiveBuilder progressive) {
+        this.progressive = progressive;
+    }
+
+    /**
+     * 预编译构建计划,之后的 createGroup 直接使用计划中解析好的转换器、颜色、时间线和纹理.
+     * 适合同一个布局需要反复创建的情况,如列表项和弹窗.
+     * 编译后添加的转换器不会生效.
+     */
+    public CCLayoutPlan compile() {
+        if (plan == null) {
+            plan = new CCLayoutPlan(this);
+        }
+        return plan;
+    }
+
+    /**
+     * 渐进加载,立即创建控件,图片由 AssetManager 在之后的帧中加载,见 {@link CCProgressiveBuilder}
+     */
+    public CCProgressiveBuilder createGroupProgressive(AssetManager assetManager) {
+        progressive = new CCProgressiveBuilder(this, assetManager);
+        progressive.build();
+        return progressive;
+    }
+
+    /**
+     * 分帧构建布局,见 {@link CCIncrementalBuilder}
+     */
+    public CCIncrementalBuilder createGroupIncremental() {
+        return new CCIncrementalBuilder(this);
+    }
+
+    public CCLayoutPlan getPlan() {
+        return plan;
+    }
+
     AssetManager assetManager;
+
+    /**
+     * 从 AssetManager 中取出纹理、.fnt字体和嵌套的布局,需要先用 CocosLoader 加载完成
+     */
     public Group createGroup(AssetManager assetManager) {
         this.assetManager = assetManager;
+        prepareGlyphs();
         Actor actor = parseWidget(null, export.getContent().getContent()
             .getObjectData());
 
@@ -340,29 +614,31 @@ public class CocoStudioUIEditor {
     }
 
     protected TextureRegion findRegion(String name) {
-        for (TextureAtlas ta : textureAtlas) {
-            if (ta == null) {
-                continue;
-            }
-            TextureRegion tr = ta.findRegion(name);
-            if (tr != null) {
-                return tr;
-            }
-        }
-        return null;
+        return getRegionIndex().findRegion(name);
     }
 
     protected TextureRegion findRegion(String name, int index) {
-        for (TextureAtlas ta : textureAtlas) {
-            if (ta == null) {
-                continue;
-            }
-            TextureRegion tr = ta.findRegion(name, index);
-            if (tr != null) {
-                return tr;
+        return getRegionIndex().findRegion(name, index);
+    }
+
+    /**
+     * 合并纹理的区域索引,第一次使用时创建.没有合并纹理时返回 null
+     */
+    public CCRegionIndex getRegionIndex() {
+        if (regionIndex == null && textureAtlas != null) {
+            regionIndex = new CCRegionIndex(textureAtlas);
+            if (resolutionTier != null) {
+                regionIndex.setScale(resolutionTier.getScale());
             }
         }
-        return null;
+        return regionIndex;
+    }
+
+    /**
+     * 使用已经建好的区域索引,多个布局使用同一组合并纹理时可以共用
+     */
+    public void setRegionIndex(CCRegionIndex regionIndex) {
+        this.regionIndex = regionIndex;
     }
 
     public String findParticePath(String name) {
@@ -386,49 +662,24 @@ public class CocoStudioUIEditor {
         }
         TextureRegion tr = null;
 
-        if (assetManager != null) {
-            return new TextureRegion(assetManager.get(dirName + name, Texture.class));
-        }
-
-        if (textureAtlas == null || textureAtlas.size() == 0) {// 不使用合并纹理
-            tr = new TextureRegion(new Texture(Gdx.files.internal(dirName
-                + name)));
-        } else {
-            try {
-                String[] arr = name.split("\\/");
-                if (arr.length == 1) {
-                    // support same folder with json file
-                    // add by @xiaozc
-
-                    name = name.substring(0, name.length() - 4);
-                } else {
-                    name = name.substring(arr[0].length() + 1,
-                        name.length() - 4);
-                }
-            } catch (Exception e) {
-                error(option, "资源名称不符合约定,无法解析.请查看github项目wiki第十条");
+        if (textureAtlas != null && textureAtlas.size() > 0) {
+            CCRegionIndex index = getRegionIndex();
+            tr = index.find(name);
+            if (tr != null && index.getScale() != 1) {
+                tr = new ScaledTextureRegion(tr, index.getScale());
             }
-
-            // 考虑index下标
-
-            if (name.indexOf("_") == -1) {
-                tr = findRegion(name);
-            } else {
-                try {
-                    int length = name.lastIndexOf("_");
-
-                    Integer index = Integer.parseInt(name.substring(length + 1,
-                        name.length()));
-                    // 这里可能报错,属于正常,因为会出现 xx_xx名字的资源而不是xx_2这种
-
-                    name = name.substring(0, length);
-
-                    tr = findRegion(name, index);
-
-                } catch (Exception e) {
-                    tr = findRegion(name);
-                }
+            if (tr == null && Gdx.files.internal(dirName + name).exists()) {
+                // 没有合并进图集的图片,如运行时合并时超过页面大小的图片
+                tr = newRegion(loadTexture(name), name);
             }
+        } else if (assetManager != null) {
+            if (streams(name)) {
+                // 渐进加载时不能使用占位的控件,直接加载
+                return newRegion(loadTexture(name), name);
+            }
+            return newRegion(assetManager.get(resolvePath(name), Texture.class), name);
+        } else {// 不使用合并纹理,loadTexture 按路径缓存
+            tr = newRegion(loadTexture(name), name);
         }
 
         if (tr == null) {
@@ -441,7 +692,7 @@ public class CocoStudioUIEditor {
             if (textureAtlas == null) {
                 tr.flip(option.isFlipX(), option.isFlipY());
             } else {
-                tr = new TextureRegion(tr);
+                tr = ScaledTextureRegion.copy(tr);
                 tr.flip(option.isFlipX(), option.isFlipY());
             }
         }
@@ -449,6 +700,62 @@ public class CocoStudioUIEditor {
         return tr;
     }
 
+    /**
+     * 与 {@link #findTextureRegion(ObjectData, String)} 相同,渐进加载时图片还没加载完则返回占位区域,
+     * 加载完后区域内容被替换.只用于不缓存区域尺寸的控件
+     */
+    public TextureRegion findTextureRegionDeferred(ObjectData option, String name) {
+        if (name != null && streams(name)) {
+            return progressive.placeholderRegion(this, option, name);
+        }
+        return findTextureRegion(option, name);
+    }
+
+    /**
+     * 图片是否还需要等待渐进加载
+     */
+    boolean streams(String name) {
+        return progressive != null && assetManager != null && (textureAtlas == null || textureAtlas.isEmpty())
+            && !assetManager.isLoaded(resolvePath(name), Texture.class);
+    }
+
+    /**
+     * 图片在当前分辨率档位中的路径,见 {@link CCResolutionTier#resolve(String, String)}
+     */
+    public String resolvePath(String name) {
+        return resolutionTier == null ? dirName + name : resolutionTier.resolve(dirName, name);
+    }
+
+    /**
+     * 图片纹理像素相对逻辑尺寸的比例,使用原图时为1
+     */
+    public float getTextureScale(String name) {
+        if (resolutionTier == null || resolvePath(name).equals(dirName + name)) {
+            return 1;
+        }
+        return resolutionTier.getScale();
+    }
+
+    /**
+     * 整张纹理的区域,低分辨率档位的纹理保持原图的逻辑尺寸
+     */
+    private TextureRegion newRegion(Texture texture, String name) {
+        float scale = getTextureScale(name);
+        return scale == 1 ? new TextureRegion(texture) : new ScaledTextureRegion(texture, scale);
+    }
+
+    public CCResolutionTier getResolutionTier() {
+        return resolutionTier;
+    }
+
+    /**
+     * 使用低分辨率档位的图片,控件尺寸不变.需要在 createGroup 前设置,嵌套布局使用相同的档位
+     */
+    public void setResolutionTier(CCResolutionTier resolutionTier) {
+        this.resolutionTier = resolutionTier;
+        regionIndex = null;
+    }
+
     public Drawable findDrawable(ObjectData option, FileData fileData) {
         //显示Default
         if (fileData == null) {// 默认值不显示
@@ -458,24 +765,211 @@ public class CocoStudioUIEditor {
         return findDrawable(option, fileData.getPath());
     }
 
+    /**
+     * 小文件方式下纹理由 {@link CCTextureCache} 管理,不要自行 dispose.
+     * 使用低分辨率档位时返回档位的纹理,尺寸见 {@link #getTextureScale(String)}
+     */
     public Texture findTexture(ObjectData option, FileData fileData) {
         //显示Default
         if (fileData == null) {// 默认值不显示
             return null;
         }
 
-        return new Texture(dirName + fileData.getPath());
+        if (assetManager != null) {
+            return assetManager.get(resolvePath(fileData.getPath()), Texture.class);
+        }
+        return loadTexture(fileData.getPath());
+    }
+
+    /**
+     * 从纹理缓存中取出小图纹理,每个布局对同一张图片只持有一个引用.
+     * 有预先解码的图片时只需上传
+     */
+    private Texture loadTexture(String name) {
+        String path = resolvePath(name);
+        Texture texture = textures.get(path);
+        if (texture == null) {
+            texture = textureCache.obtain(path, prepared == null ? null : prepared.takeTextureData(path));
+            textures.put(path, texture);
+        }
+        return texture;
+    }
+
+    /**
+     * 单色、渐变背景共用的1x1白色纹理区域,所有布局共用一个纹理
+     */
+    public TextureRegion getWhiteRegion() {
+        if (whiteRegion == null) {
+            Texture texture = textureCache.obtainWhite();
+            textures.put(CCTextureCache.WHITE, texture);
+            whiteRegion = new TextureRegion(texture);
+        }
+        return whiteRegion;
+    }
+
+    /**
+     * Panel、ScrollView的背景颜色,用白色纹理着色,不为每个控件创建纹理
+     *
+     * @return 单色(ComboBoxIndex 1)或渐变(ComboBoxIndex 2)背景,无颜色或 BackColorAlpha 为 0 时返回 null
+     */
+    public Drawable createBackground(ObjectData widget, float width, float height) {
+        if (widget.getBackColorAlpha() == 0) {// 完全透明,不需要绘制
+            return null;
+        }
+        BaseDrawable drawable;
+        if (widget.getComboBoxIndex() == 1) {
+            drawable = (BaseDrawable) new TextureRegionDrawable(getWhiteRegion())
+                .tint(getColor(widget.getSingleColor(), widget.getBackColorAlpha()));
+        } else if (widget.getComboBoxIndex() == 2) {
+            Scale vector = widget.getColorVector();
+            drawable = new GradientDrawable(getWhiteRegion(),
+                getColor(widget.getFirstColor(), widget.getBackColorAlpha()),
+                getColor(widget.getEndColor(), widget.getBackColorAlpha()),
+                vector == null ? 0 : vector.getScaleX(), vector == null ? -1 : vector.getScaleY());
+        } else {
+            return null;
+        }
+        // 与原来整张纹理的背景保持相同的最小尺寸
+        drawable.setMinWidth(width);
+        drawable.setMinHeight(height);
+        return drawable;
+    }
+
+    /**
+     * 释放本布局和嵌套布局引用的纹理和字体,之后创建的控件不能再使用
+     */
+    public void dispose() {
+        for (String path : textures.keySet()) {
+            textureCache.release(path);
+        }
+        textures.clear();
+        for (BitmapFont font : usedFonts) {
+            fontCache.release(font);
+        }
+        usedFonts.clear();
+        whiteRegion = null;
+        drawableCache.clear();
+        for (CocoStudioUIEditor nestedEditor : nestedEditors) {
+            nestedEditor.dispose();
+        }
+        nestedEditors.clear();
+    }
+
+    /**
+     * 嵌套节点的编辑器,dispose 时一起释放
+     */
+    public void addNestedEditor(CocoStudioUIEditor editor) {
+        nestedEditors.add(editor);
     }
 
+    public Array<CocoStudioUIEditor> getNestedEditors() {
+        return nestedEditors;
+    }
+
+    /**
+     * 本布局从 {@link CCTextureCache} 引用的纹理路径,不含嵌套布局
+     */
+    public Set<String> getTexturePaths() {
+        return Collections.unmodifiableSet(textures.keySet());
+    }
+
+    /**
+     * 本布局从 {@link CCFontCache} 引用的字体,不含嵌套布局
+     */
+    public Set<BitmapFont> getUsedFonts() {
+        return Collections.unmodifiableSet(usedFonts);
+    }
+
+    public CCDrawableCache getDrawableCache() {
+        return drawableCache;
+    }
+
+    public CCFontCache getFontCache() {
+        return fontCache;
+    }
+
+    /**
+     * 需要在 createGroup 前设置
+     */
+    public void setFontCache(CCFontCache fontCache) {
+        this.fontCache = fontCache;
+    }
+
+    public CCGlyphSets getGlyphSets() {
+        return glyphSets;
+    }
+
+    /**
+     * 使用已经统计好的字符,不再遍历布局.需要在 createGroup 前设置
+     */
+    public void setGlyphSets(CCGlyphSets glyphSets) {
+        this.glyphSets = glyphSets;
+    }
+
+    public CCTextureCache getTextureCache() {
+        return textureCache;
+    }
+
+    /**
+     * 需要在 createGroup 前设置
+     */
+    public void setTextureCache(CCTextureCache textureCache) {
+        this.textureCache = textureCache;
+    }
+
+    /**
+     * 相同图片、九宫格参数、翻转和颜色的控件共用同一个 Drawable,不要修改返回值
+     */
     public Drawable findDrawable(ObjectData option, String name) {
+        if (name == null || name.equals("")) {
+            return null;
+        }
+        if (streams(name)) {
+            return progressive.placeholderDrawable(this, option, name);
+        }
+        // 只用颜色值查找,命中缓存时不创建 Color
+        int color = option.isScale9Enable() ? colorBits(option.getCColor(), option.getAlpha()) : 0;
+        Drawable drawable = drawableCache.get(option, name, color);
+        if (drawable == null) {
+            drawable = createDrawable(option, name);
+            if (drawable != null) {
+                drawableCache.put(option, name, color, drawable);
+            }
+        }
+        return drawable;
+    }
 
+    /**
+     * 与 {@link #getColor(CColor, int)} 相同的颜色,rgba8888 格式
+     */
+    static int colorBits(CColor c, int alpha) {
+        int rgb;
+        if (c == null || c.getR() + c.getG() + c.getB() == 0) {
+            rgb = 0xffffff;
+        } else {
+            rgb = (c.getR() & 0xff) << 16 | (c.getG() & 0xff) << 8 | (c.getB() & 0xff);
+        }
+        return rgb << 8 | (alpha != 0 ? alpha & 0xff : 0xff);
+    }
+
+    private Drawable createDrawable(ObjectData option, String name) {
         if (option.isScale9Enable()) {// 九宫格支持
             TextureRegion textureRegion = findTextureRegion(option, name);
+            float scale = ScaledTextureRegion.scaleOf(textureRegion);
+            if (scale != 1) {
+                // 按纹理像素切分,之后缩放回逻辑尺寸
+                textureRegion = new TextureRegion(textureRegion);
+            }
+            int left = Math.round(option.getScale9OriginX() * scale);
+            int top = Math.round(option.getScale9OriginY() * scale);
             NinePatch np = new NinePatch(textureRegion,
-                option.getScale9OriginX(),
-                textureRegion.getRegionWidth() - option.getScale9Width() - option.getScale9OriginX(),
-                option.getScale9OriginY(),
-                textureRegion.getRegionHeight() - option.getScale9Height() - option.getScale9OriginY());
+                left,
+                textureRegion.getRegionWidth() - Math.round(option.getScale9Width() * scale) - left,
+                top,
+                textureRegion.getRegionHeight() - Math.round(option.getScale9Height() * scale) - top);
+            if (scale != 1) {
+                np.scale(1 / scale, 1 / scale);
+            }
 
             np.setColor(getColor(option.getCColor(), option.getAlpha()));
             return new NinePatchDrawable(np);
@@ -517,7 +1011,8 @@ public class CocoStudioUIEditor {
     public Actor parseWidget(Group parent, ObjectData widget) {
 
         String className = widget.getCtype();
-        BaseWidgetParser parser = parsers.get(className);
+        CCLayoutPlan.Node node = plan == null ? null : plan.get(widget);
+        BaseWidgetParser parser = node != null ? node.parser : parsers.get(className);
 
         if (parser == null) {
             debug(widget, "not support Widget:" + className);
@@ -576,7 +1071,12 @@ public class CocoStudioUIEditor {
      * @return
      */
 
-    public static Map<String, NativeFont> fonts = new HashMap<>();
+    /**
+     * @deprecated NativeFont 由 {@link CCFontCache#obtainNative(int, CharSequence)} 按字号共用并随布局释放,
+     * 不再放入这里
+     */
+    @Deprecated
+    public static final Map<String, NativeFont> fonts = new HashMap<>();
     public static final String DEFAULT_CHARS =
         "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz1234567890!`?'.,;:()[]{}<>|/@\\^$-%+=#_&~*";
 
@@ -598,33 +1098,35 @@ public class CocoStudioUIEditor {
 
         BitmapFont font = null;
         if (fontFile == null) {
-            String name = "nativefont" + option.getFontSize();
-            NativeFont nativeFont = fonts.get(name);
-            if (nativeFont == null) {
-                nativeFont = new NativeFont(new NativeFontPaint(option.getFontSize()));
-                nativeFont.appendText(DEFAULT_CHARS);
-                fonts.put(name, nativeFont);
-            }
-
-            nativeFont.appendText(option.getLabelText());
             LogUtil.log(option.getLabelText());
-            font = nativeFont;
+            font = retain(fontCache.obtainNative(option.getFontSize(), option.getLabelText()));
         } else {
-            font = FontUtil.createFont(fontFile, text, option.getFontSize());
+            font = obtainFont(fontFile, option.getFontSize(), text);
         }
 
-        return new TTFLabelStyle(new LabelStyle(font, color), fontFile,
+        TTFLabelStyle labelStyle = new TTFLabelStyle(new LabelStyle(font, color), fontFile,
             option.getFontSize());
+        labelStyle.setFontCache(fontCache);
+        return labelStyle;
     }
 
     /**
      * 创建LabelStyle的BitmapFont
      *
-     * @param option
-     * @return
+     * @deprecated 颜色不再写入字形,使用 {@link #createLabelStyleBitmapFint(ObjectData, String)},
+     * 再设置 LabelStyle.fontColor
      */
+    @Deprecated
     public BitmapFont createLabelStyleBitmapFint(ObjectData option, String text,
                                                  Color color) {
+        return createLabelStyleBitmapFint(option, text);
+    }
+
+    /**
+     * 创建LabelStyle的BitmapFont.字形为白色,各种颜色的文字共用同一个字体,
+     * 颜色通过 LabelStyle.fontColor / TextButtonStyle.fontColor 着色
+     */
+    public BitmapFont createLabelStyleBitmapFint(ObjectData option, String text) {
 
         FileHandle fontFile = null;
         if (ttfs != null && option.getFontResource() != null) {
@@ -645,12 +1147,15 @@ public class CocoStudioUIEditor {
             }
         }
 
-        BitmapFont font = FontUtil.createFont(fontFile, text,
-            option.getFontSize(), color);
-
-        font.setColor(color);
+        return obtainFont(fontFile, option.getFontSize(), text);
+    }
 
-        return font;
+    /**
+     * 从字体缓存中取出共用的字体,没有字体文件或无法生成时使用默认字体
+     */
+    private BitmapFont obtainFont(FileHandle fontFile, int fontSize, String text) {
+        BitmapFont font = fontFile == null ? null : fontCache.obtain(fontFile, fontSize, null, text);
+        return font == null ? new BitmapFont() : retain(font);
     }
 
     public Map<String, Array<Actor>> getActors() {
@@ -697,7 +1202,40 @@ public class CocoStudioUIEditor {
         return defaultFont;
     }
 
+    /**
+     * createGroup(AssetManager) 时使用的 AssetManager,其他情况为 null
+     */
+    public AssetManager getAssetManager() {
+        return assetManager;
+    }
+
+    /**
+     * 解析好的导出文件,被缓存共用,不要修改
+     */
+    public CCExport getExport() {
+        return export;
+    }
+
+    public CCPreparedResources getPrepared() {
+        return prepared;
+    }
+
+    /**
+     * 设置预先准备好的资源,需要在 createGroup 前设置
+     */
+    public void setPrepared(CCPreparedResources prepared) {
+        this.prepared = prepared;
+    }
+
     public Collection<TextureAtlas> getTextureAtlas() {
         return textureAtlas;
     }
+
+    /**
+     * 更换合并纹理,需要在 createGroup 前设置
+     */
+    public void setTextureAtlas(Collection<TextureAtlas> textureAtlas) {
+        this.textureAtlas = textureAtlas;
+        regionIndex = null;
+    }
 }
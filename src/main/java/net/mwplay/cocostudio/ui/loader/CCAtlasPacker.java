@@ -0,0 +1,338 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker.Page;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import net.mwplay.cocostudio.ui.CCRegionIndex;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.model.CCExport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * 运行时把布局用到的小图(UsedResources)合并成几张大图,减少 draw call,不需要美术重新导出.
+ * 区域名与 {@link CCRegionIndex} 按资源路径查找时使用的名字相同,
+ * 生成的 TextureAtlas 直接传给 CocoStudioUIEditor 即可,九宫格和翻转同样支持.
+ * 合并结果默认缓存在本地存储,之后启动时直接读取.
+ * <pre>
+ * TextureAtlas atlas = new CCAtlasPacker().pack(jsonFile);
+ * CocoStudioUIEditor editor = new CocoStudioUIEditor(jsonFile, Collections.singletonList(atlas));
+ * </pre>
+ * 也可以通过 {@link CocosLoader.CocosParameter#packer} 在 AssetManager 中使用.
+ */
+public class CCAtlasPacker {
+
+    final String tag = CCAtlasPacker.class.getName();
+
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+
+    /**
+     * 缓存格式变化时修改,旧缓存自动失效
+     */
+    static final int VERSION = 1;
+
+    private final int pageSize;
+    private int padding = 2;
+    private TextureFilter minFilter = TextureFilter.Linear;
+    private TextureFilter magFilter = TextureFilter.Linear;
+    private boolean cacheEnabled = true;
+    private FileHandle cacheDir;
+
+    public CCAtlasPacker() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public CCAtlasPacker(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 合并并创建图集,只能在GL线程调用
+     */
+    public TextureAtlas pack(FileHandle jsonFile) {
+        return prepare(jsonFile).createAtlas();
+    }
+
+    /**
+     * 读取缓存或者合并图片,包含嵌套节点用到的图片.不创建纹理,可以在工作线程调用
+     */
+    public PackedAtlas prepare(FileHandle jsonFile) {
+        return prepare(jsonFile, true);
+    }
+
+    PackedAtlas prepare(FileHandle jsonFile, boolean includeNested) {
+        Map<String, FileHandle> images = new LinkedHashMap<String, FileHandle>();
+        collect(jsonFile, includeNested, images, new HashSet<String>());
+
+        String key = key(images);
+        FileHandle atlasFile = null;
+        if (cacheEnabled && Gdx.files.isLocalStorageAvailable()) {
+            atlasFile = getCacheDir().child(jsonFile.nameWithoutExtension() + "-" + key + ".atlas");
+            if (atlasFile.exists()) {
+                try {
+                    return loadCache(atlasFile);
+                } catch (Exception e) {
+                    Gdx.app.error(tag, "合并纹理缓存损坏: " + atlasFile.path(), e);
+                }
+            }
+        }
+
+        PixmapPacker packer = packImages(images);
+        if (atlasFile != null) {
+            try {
+                write(packer, atlasFile);
+            } catch (Exception e) {
+                Gdx.app.error(tag, "无法写入合并纹理缓存: " + atlasFile.path(), e);
+            }
+        }
+        return new PackedAtlas(packer);
+    }
+
+    /**
+     * k: 区域名 v: 图片文件
+     */
+    private void collect(FileHandle jsonFile, final boolean includeNested,
+                         final Map<String, FileHandle> images, final Set<String> visited) {
+        if (!visited.add(jsonFile.path())) {
+            return;
+        }
+        CCExport export = CCExportCache.getDefault().get(jsonFile);
+        final String dirName = CocoStudioUIEditor.resolveDirName(jsonFile);
+        new CCExportVisitor() {
+            @Override
+            void image(String path) {
+                String name = CCRegionIndex.normalize(path.substring(dirName.length()));
+                if (!images.containsKey(name)) {
+                    images.put(name, Gdx.files.internal(path));
+                }
+            }
+
+            @Override
+            void export(String path) {
+                if (includeNested) {
+                    collect(Gdx.files.internal(path), true, images, visited);
+                }
+            }
+        }.visit(export, dirName);
+    }
+
+    /**
+     * 参数、图片路径、大小和修改时间参与计算,图片变化后缓存失效.
+     * 取不到修改时间(如 Android 的 internal 文件)时才读取图片内容计算校验和
+     */
+    private String key(Map<String, FileHandle> images) {
+        CRC32 crc = new CRC32();
+        StringBuilder sb = new StringBuilder();
+        sb.append(VERSION).append(',').append(pageSize).append(',').append(padding);
+        try {
+            for (Map.Entry<String, FileHandle> entry : images.entrySet()) {
+                FileHandle file = entry.getValue();
+                sb.append(',').append(entry.getKey()).append('=').append(file.path())
+                    .append(':').append(file.length());
+                long lastModified = file.lastModified();
+                if (lastModified != 0) {
+                    sb.append(':').append(lastModified);
+                } else if (file.exists()) {
+                    crc.update(file.readBytes());
+                }
+            }
+            crc.update(sb.toString().getBytes("UTF-8"));
+        } catch (IOException e) {
+            throw new GdxRuntimeException(e);
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private PixmapPacker packImages(Map<String, FileHandle> images) {
+        final Map<String, Pixmap> pixmaps = new LinkedHashMap<String, Pixmap>();
+        for (Map.Entry<String, FileHandle> entry : images.entrySet()) {
+            try {
+                pixmaps.put(entry.getKey(), new Pixmap(entry.getValue()));
+            } catch (Exception e) {
+                Gdx.app.error(tag, "无法读取图片: " + entry.getValue().path(), e);
+            }
+        }
+
+        // 先放大图,排列更紧凑
+        List<String> names = new ArrayList<String>(pixmaps.keySet());
+        Collections.sort(names, new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return pixmaps.get(o2).getHeight() - pixmaps.get(o1).getHeight();
+            }
+        });
+
+        PixmapPacker packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, padding, false);
+        for (String name : names) {
+            Pixmap pixmap = pixmaps.get(name);
+            try {
+                packer.pack(name, pixmap);
+            } catch (GdxRuntimeException e) {
+                // 比页面还大的图片,创建控件时按小文件方式加载
+                Gdx.app.error(tag, "图片太大,不合并: " + name);
+            }
+            pixmap.dispose();
+        }
+        return packer;
+    }
+
+    private void write(PixmapPacker packer, FileHandle atlasFile) throws IOException {
+        String base = atlasFile.nameWithoutExtension();
+        Writer writer = atlasFile.writer(false, "UTF-8");
+        try {
+            int index = 0;
+            for (Page page : packer.getPages()) {
+                String pageName = base + "-" + index++ + ".png";
+                PixmapIO.writePNG(atlasFile.sibling(pageName), page.getPixmap());
+
+                writer.write("\n" + pageName + "\n");
+                writer.write("size: " + page.getPixmap().getWidth() + "," + page.getPixmap().getHeight() + "\n");
+                writer.write("format: " + page.getPixmap().getFormat() + "\n");
+                writer.write("filter: " + minFilter + "," + magFilter + "\n");
+                writer.write("repeat: none\n");
+                for (String name : page.getRects().keys()) {
+                    Rectangle rect = page.getRects().get(name);
+                    int x = (int) rect.x;
+                    int y = (int) rect.y;
+                    int width = (int) rect.width;
+                    int height = (int) rect.height;
+                    writer.write(name + "\n");
+                    writer.write("  rotate: false\n");
+                    writer.write("  xy: " + x + ", " + y + "\n");
+                    writer.write("  size: " + width + ", " + height + "\n");
+                    writer.write("  orig: " + width + ", " + height + "\n");
+                    writer.write("  offset: 0, 0\n");
+                    writer.write("  index: -1\n");
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private PackedAtlas loadCache(FileHandle atlasFile) {
+        TextureAtlasData data = new TextureAtlasData(atlasFile, atlasFile.parent(), false);
+        List<Pixmap> pixmaps = new ArrayList<Pixmap>();
+        try {
+            for (TextureAtlasData.Page page : data.getPages()) {
+                // 工作线程中解码,GL线程只上传
+                pixmaps.add(new Pixmap(page.textureFile));
+            }
+        } catch (RuntimeException e) {
+            for (Pixmap pixmap : pixmaps) {
+                pixmap.dispose();
+            }
+            throw e;
+        }
+        return new PackedAtlas(data, pixmaps);
+    }
+
+    /**
+     * 缓存目录,默认为本地存储的 cocos-atlas
+     */
+    public FileHandle getCacheDir() {
+        if (cacheDir == null) {
+            cacheDir = Gdx.files.local("cocos-atlas");
+        }
+        return cacheDir;
+    }
+
+    public void setCacheDir(FileHandle cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * 关闭后每次都重新合并
+     */
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public void setPadding(int padding) {
+        this.padding = padding;
+    }
+
+    public void setFilter(TextureFilter minFilter, TextureFilter magFilter) {
+        this.minFilter = minFilter;
+        this.magFilter = magFilter;
+    }
+
+    /**
+     * 合并好,还没有创建纹理的图集
+     */
+    public class PackedAtlas {
+        private PixmapPacker packer;
+        private TextureAtlasData data;
+        private List<Pixmap> pixmaps;
+
+        PackedAtlas(PixmapPacker packer) {
+            this.packer = packer;
+        }
+
+        PackedAtlas(TextureAtlasData data, List<Pixmap> pixmaps) {
+            this.data = data;
+            this.pixmaps = pixmaps;
+        }
+
+        /**
+         * 是否读取自缓存
+         */
+        public boolean isCached() {
+            return data != null;
+        }
+
+        /**
+         * 上传纹理并创建图集,只能在GL线程调用一次.图集由调用者 dispose
+         */
+        public TextureAtlas createAtlas() {
+            if (packer != null) {
+                TextureAtlas atlas = packer.generateTextureAtlas(minFilter, magFilter, false);
+                packer.dispose();
+                packer = null;
+                return atlas;
+            }
+            for (int i = 0; i < data.getPages().size; i++) {
+                TextureAtlasData.Page page = data.getPages().get(i);
+                page.texture = new Texture(new FileTextureData(page.textureFile, pixmaps.get(i),
+                    page.format, page.useMipMaps));
+            }
+            return new TextureAtlas(data);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+/**
+ * 二进制布局格式的常量定义,由 {@link CCBinaryWriter} 与 {@link CCBinaryReader} 共用.
+ * <p>
+ * 文件结构: 魔数 "CCUI" + 版本号 + 字符串表 + 根对象.
+ * 每个字段以 varint 标签开头,标签 = 字段编号 &lt;&lt; 2 | 类型,对象以标签 0 结束.
+ * 整数使用 zigzag varint,浮点数为4字节,字符串为字符串表下标+1(0 表示 null).
+ * 与默认值相同的字段不写入,读取时遇到未知字段会按类型跳过.
+ */
+final class CCBinaryFormat {
+
+    static final byte[] MAGIC = {'C', 'C', 'U', 'I'};
+    static final int VERSION = 1;
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FLOAT = 1;
+    static final int WIRE_OBJECT = 2;
+    static final int WIRE_LIST = 3;
+
+    // CCExport
+    static final int EXPORT_ID = 1;
+    static final int EXPORT_VERSION = 2;
+    static final int EXPORT_TYPE = 3;
+    static final int EXPORT_NAME = 4;
+    static final int EXPORT_CONTENT = 5;
+
+    // CCData
+    static final int DATA_CONTENT = 1;
+
+    // GameProjectData
+    static final int PROJECT_ANIMATION = 1;
+    static final int PROJECT_ANIMATION_LIST = 2;
+    static final int PROJECT_OBJECT_DATA = 3;
+    static final int PROJECT_USED_RESOURCES = 4;
+
+    // ObjectData
+    static final int WIDGET_NAME = 1;
+    static final int WIDGET_CTYPE = 2;
+    static final int WIDGET_ACTION_TAG = 3;
+    static final int WIDGET_TAG = 4;
+    static final int WIDGET_Z_ORDER = 5;
+    static final int WIDGET_ALPHA = 6;
+    static final int WIDGET_ROTATION = 7;
+    static final int WIDGET_ROTATION_SKEW_X = 8;
+    static final int WIDGET_ROTATION_SKEW_Y = 9;
+    static final int WIDGET_VISIBLE_FOR_FRAME = 10;
+    static final int WIDGET_TOUCH_ENABLE = 11;
+    static final int WIDGET_FLIP_X = 12;
+    static final int WIDGET_FLIP_Y = 13;
+    static final int WIDGET_CLIP_ABLE = 14;
+    static final int WIDGET_SCALE9_ENABLE = 15;
+    static final int WIDGET_SCALE9_WIDTH = 16;
+    static final int WIDGET_SCALE9_HEIGHT = 17;
+    static final int WIDGET_SCALE9_ORIGIN_X = 18;
+    static final int WIDGET_SCALE9_ORIGIN_Y = 19;
+    static final int WIDGET_LEFT_MARGIN = 20;
+    static final int WIDGET_RIGHT_MARGIN = 21;
+    static final int WIDGET_TOP_MARGIN = 22;
+    static final int WIDGET_BOTTOM_MARGIN = 23;
+    static final int WIDGET_FONT_SIZE = 24;
+    static final int WIDGET_LABEL_TEXT = 25;
+    static final int WIDGET_BUTTON_TEXT = 26;
+    static final int WIDGET_PLACE_HOLDER_TEXT = 27;
+    static final int WIDGET_HORIZONTAL_ALIGNMENT = 28;
+    static final int WIDGET_VERTICAL_ALIGNMENT = 29;
+    static final int WIDGET_COMBO_BOX_INDEX = 30;
+    static final int WIDGET_BACK_COLOR_ALPHA = 31;
+    static final int WIDGET_PROGRESS_INFO = 32;
+    static final int WIDGET_PERCENT_INFO = 33;
+    static final int WIDGET_CHAR_WIDTH = 34;
+    static final int WIDGET_CHAR_HEIGHT = 35;
+    static final int WIDGET_START_CHAR = 36;
+    static final int WIDGET_MAX_LENGTH_ENABLE = 37;
+    static final int WIDGET_MAX_LENGTH_TEXT = 38;
+    static final int WIDGET_PASSWORD_ENABLE = 39;
+    static final int WIDGET_PASSWORD_STYLE_TEXT = 40;
+    static final int WIDGET_DISPLAY_STATE = 41;
+    static final int WIDGET_IS_BOUNCE_ENABLED = 42;
+    static final int WIDGET_SCROLL_DIRECTION_TYPE = 43;
+    static final int WIDGET_CALL_BACK_TYPE = 44;
+    static final int WIDGET_CALL_BACK_NAME = 45;
+    static final int WIDGET_FRAME_EVENT = 46;
+    static final int WIDGET_BUTTON_TYPE = 47;
+    static final int WIDGET_IS_CUSTOM_SIZE = 48;
+    static final int WIDGET_SIZE = 49;
+    static final int WIDGET_POSITION = 50;
+    static final int WIDGET_PRE_POSITION = 51;
+    static final int WIDGET_PRE_SIZE = 52;
+    static final int WIDGET_SCALE = 53;
+    static final int WIDGET_ANCHOR_POINT = 54;
+    static final int WIDGET_C_COLOR = 55;
+    static final int WIDGET_TEXT_COLOR = 56;
+    static final int WIDGET_SINGLE_COLOR = 57;
+    static final int WIDGET_FIRST_COLOR = 58;
+    static final int WIDGET_INNER_NODE_SIZE = 59;
+    static final int WIDGET_FILE_DATA = 60;
+    static final int WIDGET_IMAGE_FILE_DATA = 61;
+    static final int WIDGET_DISABLED_FILE_DATA = 62;
+    static final int WIDGET_PRESSED_FILE_DATA = 63;
+    static final int WIDGET_NORMAL_FILE_DATA = 64;
+    static final int WIDGET_FONT_RESOURCE = 65;
+    static final int WIDGET_LABEL_BM_FONT_FILE = 66;
+    static final int WIDGET_LABEL_ATLAS_FILE_IMAGE = 67;
+    static final int WIDGET_NORMAL_BACK_FILE_DATA = 68;
+    static final int WIDGET_PRESSED_BACK_FILE_DATA = 69;
+    static final int WIDGET_DISABLE_BACK_FILE_DATA = 70;
+    static final int WIDGET_NODE_NORMAL_FILE_DATA = 71;
+    static final int WIDGET_NODE_DISABLE_FILE_DATA = 72;
+    static final int WIDGET_BACK_GROUND_DATA = 73;
+    static final int WIDGET_PROGRESS_BAR_DATA = 74;
+    static final int WIDGET_BALL_NORMAL_DATA = 75;
+    static final int WIDGET_BALL_PRESSED_DATA = 76;
+    static final int WIDGET_BALL_DISABLED_DATA = 77;
+    static final int WIDGET_CHILDREN = 78;
+    static final int WIDGET_END_COLOR = 79;
+    static final int WIDGET_COLOR_VECTOR = 80;
+    static final int WIDGET_PROGRESS_TYPE = 81;
+
+    // Size, Scale
+    static final int VECTOR_X = 1;
+    static final int VECTOR_Y = 2;
+
+    // CColor
+    static final int COLOR_R = 1;
+    static final int COLOR_G = 2;
+    static final int COLOR_B = 3;
+
+    // FileData
+    static final int FILE_TYPE = 1;
+    static final int FILE_PATH = 2;
+
+    // InnerNodeSize
+    static final int INNER_WIDTH = 1;
+    static final int INNER_HEIGHT = 2;
+
+    // CCTimelineActionData
+    static final int ACTION_DATA_DURATION = 1;
+    static final int ACTION_DATA_SPEED = 2;
+    static final int ACTION_DATA_CTYPE = 3;
+    static final int ACTION_DATA_TIMELINES = 4;
+
+    // CCTimelineData
+    static final int TIMELINE_ACTION_TAG = 1;
+    static final int TIMELINE_PROPERTY = 2;
+    static final int TIMELINE_CTYPE = 3;
+    static final int TIMELINE_FRAMES = 4;
+
+    // CCTimelineFrame
+    static final int FRAME_X = 1;
+    static final int FRAME_Y = 2;
+    static final int FRAME_INDEX = 3;
+    static final int FRAME_CTYPE = 4;
+    static final int FRAME_VALUE = 5;
+    static final int FRAME_TWEEN = 6;
+    static final int FRAME_EASING_TYPE = 7;
+    static final int FRAME_TEXTURE_FILE = 8;
+    static final int FRAME_HAS_EASING = 9;
+
+    // CCAnimation, CCAction, CCActionNode 共用
+    static final int ANIMATION_CLASSNAME = 1;
+    static final int ANIMATION_NAME = 2;
+    static final int ANIMATION_CHILDREN = 3;
+    static final int ANIMATION_ACTION_TAG = 4;
+
+    // CCActionFrame
+    static final int ACTION_FRAME_CLASSNAME = 1;
+    static final int ACTION_FRAME_NAME = 2;
+    static final int ACTION_FRAME_ID = 3;
+    static final int ACTION_FRAME_COLOR_B = 4;
+    static final int ACTION_FRAME_COLOR_G = 5;
+    static final int ACTION_FRAME_COLOR_R = 6;
+    static final int ACTION_FRAME_OPACITY = 7;
+    static final int ACTION_FRAME_POSITION_X = 8;
+    static final int ACTION_FRAME_POSITION_Y = 9;
+    static final int ACTION_FRAME_ROTATION = 10;
+    static final int ACTION_FRAME_SCALE_X = 11;
+    static final int ACTION_FRAME_SCALE_Y = 12;
+    static final int ACTION_FRAME_START_TIME = 13;
+    static final int ACTION_FRAME_TWEEN_PARAMETER = 14;
+    static final int ACTION_FRAME_TWEEN_TYPE = 15;
+    static final int ACTION_FRAME_VISIBLE = 16;
+
+    private CCBinaryFormat() {
+    }
+}
@@ -0,0 +1,870 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.SerializationException;
+
+import net.mwplay.cocostudio.ui.model.CCData;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.CColor;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.GameProjectData;
+import net.mwplay.cocostudio.ui.model.InnerNodeSize;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.model.Scale;
+import net.mwplay.cocostudio.ui.model.Size;
+import net.mwplay.cocostudio.ui.model.animation.CCAction;
+import net.mwplay.cocostudio.ui.model.animation.CCActionFrame;
+import net.mwplay.cocostudio.ui.model.animation.CCActionNode;
+import net.mwplay.cocostudio.ui.model.animation.CCAnimation;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineActionData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineEasingData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineFrame;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.mwplay.cocostudio.ui.loader.CCBinaryFormat.*;
+
+/**
+ * 读取 {@link CCBinaryWriter} 生成的二进制布局,结果与解析对应的json一致.
+ * 非线程安全,每次读取请新建实例.
+ */
+public class CCBinaryReader {
+
+    private byte[] data;
+    private int position;
+    private String[] strings;
+
+    public CCExport read(FileHandle file) {
+        try {
+            return read(file.readBytes());
+        } catch (RuntimeException e) {
+            throw new SerializationException("Error reading file: " + file, e);
+        }
+    }
+
+    public CCExport read(byte[] bytes) {
+        data = bytes;
+        position = 0;
+        for (byte b : MAGIC) {
+            if (position >= data.length || data[position++] != b) {
+                throw new SerializationException("不是二进制布局文件");
+            }
+        }
+        int version = readVarint();
+        if (version > VERSION) {
+            throw new SerializationException("不支持的二进制布局版本: " + version);
+        }
+        strings = new String[readVarint()];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readVarint();
+            strings[i] = utf8(position, length);
+            position += length;
+        }
+        try {
+            return readExport();
+        } finally {
+            data = null;
+            strings = null;
+        }
+    }
+
+    /**
+     * 判断数据是否以二进制布局的魔数开头
+     */
+    public static boolean isBinary(byte[] bytes) {
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CCExport readExport() {
+        CCExport export = new CCExport();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case EXPORT_ID:
+                    export.setID(readString());
+                    break;
+                case EXPORT_VERSION:
+                    export.setVersion(readString());
+                    break;
+                case EXPORT_TYPE:
+                    export.setType(readString());
+                    break;
+                case EXPORT_NAME:
+                    export.setName(readString());
+                    break;
+                case EXPORT_CONTENT:
+                    export.setContent(readData());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return export;
+    }
+
+    private CCData readData() {
+        CCData ccData = new CCData();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            if (tag >>> 2 == DATA_CONTENT) {
+                ccData.setContent(readProject());
+            } else {
+                skip(tag);
+            }
+        }
+        return ccData;
+    }
+
+    private GameProjectData readProject() {
+        GameProjectData project = new GameProjectData();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case PROJECT_ANIMATION:
+                    project.setAnimation(readTimelineAction());
+                    break;
+                case PROJECT_ANIMATION_LIST: {
+                    int size = readListHeader();
+                    List<CCAnimation> animations = new ArrayList<CCAnimation>(size);
+                    for (int i = 0; i < size; i++) {
+                        animations.add(readAnimation());
+                    }
+                    project.setAnimationList(animations);
+                    break;
+                }
+                case PROJECT_OBJECT_DATA:
+                    project.setObjectData(readWidget());
+                    break;
+                case PROJECT_USED_RESOURCES: {
+                    int size = readListHeader();
+                    List<String> resources = new ArrayList<String>(size);
+                    for (int i = 0; i < size; i++) {
+                        resources.add(readString());
+                    }
+                    project.setUsedResources(resources);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return project;
+    }
+
+    private ObjectData readWidget() {
+        ObjectData widget = new ObjectData();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case WIDGET_NAME:
+                    widget.setName(readString());
+                    break;
+                case WIDGET_CTYPE:
+                    widget.setCtype(readString());
+                    break;
+                case WIDGET_ACTION_TAG:
+                    widget.setActionTag(readInt());
+                    break;
+                case WIDGET_TAG:
+                    widget.setTag(readInt());
+                    break;
+                case WIDGET_Z_ORDER:
+                    widget.setZOrder(readInt());
+                    break;
+                case WIDGET_ALPHA:
+                    widget.setAlpha(readInt());
+                    break;
+                case WIDGET_ROTATION:
+                    widget.setRotation(readFloat());
+                    break;
+                case WIDGET_ROTATION_SKEW_X:
+                    widget.setRotationSkewX(readFloat());
+                    break;
+                case WIDGET_ROTATION_SKEW_Y:
+                    widget.setRotationSkewY(readFloat());
+                    break;
+                case WIDGET_VISIBLE_FOR_FRAME:
+                    widget.setVisibleForFrame(readBoolean());
+                    break;
+                case WIDGET_TOUCH_ENABLE:
+                    widget.setTouchEnable(readBoolean());
+                    break;
+                case WIDGET_FLIP_X:
+                    widget.setFlipX(readBoolean());
+                    break;
+                case WIDGET_FLIP_Y:
+                    widget.setFlipY(readBoolean());
+                    break;
+                case WIDGET_CLIP_ABLE:
+                    widget.setClipAble(readBoolean());
+                    break;
+                case WIDGET_SCALE9_ENABLE:
+                    widget.setScale9Enable(readBoolean());
+                    break;
+                case WIDGET_SCALE9_WIDTH:
+                    widget.setScale9Width(readInt());
+                    break;
+                case WIDGET_SCALE9_HEIGHT:
+                    widget.setScale9Height(readInt());
+                    break;
+                case WIDGET_SCALE9_ORIGIN_X:
+                    widget.setScale9OriginX(readInt());
+                    break;
+                case WIDGET_SCALE9_ORIGIN_Y:
+                    widget.setScale9OriginY(readInt());
+                    break;
+                case WIDGET_LEFT_MARGIN:
+                    widget.setLeftMargin(readFloat());
+                    break;
+                case WIDGET_RIGHT_MARGIN:
+                    widget.setRightMargin(readFloat());
+                    break;
+                case WIDGET_TOP_MARGIN:
+                    widget.setTopMargin(readFloat());
+                    break;
+                case WIDGET_BOTTOM_MARGIN:
+                    widget.setBottomMargin(readFloat());
+                    break;
+                case WIDGET_FONT_SIZE:
+                    widget.setFontSize(readInt());
+                    break;
+                case WIDGET_LABEL_TEXT:
+                    widget.setLabelText(readString());
+                    break;
+                case WIDGET_BUTTON_TEXT:
+                    widget.setButtonText(readString());
+                    break;
+                case WIDGET_PLACE_HOLDER_TEXT:
+                    widget.setPlaceHolderText(readString());
+                    break;
+                case WIDGET_HORIZONTAL_ALIGNMENT:
+                    widget.setHorizontalAlignmentType(readString());
+                    break;
+                case WIDGET_VERTICAL_ALIGNMENT:
+                    widget.setVerticalAlignmentType(readString());
+                    break;
+                case WIDGET_COMBO_BOX_INDEX:
+                    widget.setComboBoxIndex(readInt());
+                    break;
+                case WIDGET_BACK_COLOR_ALPHA:
+                    widget.setBackColorAlpha(readInt());
+                    break;
+                case WIDGET_PROGRESS_INFO:
+                    widget.setProgressInfo(readInt());
+                    break;
+                case WIDGET_PROGRESS_TYPE:
+                    widget.setProgressType(readString());
+                    break;
+                case WIDGET_PERCENT_INFO:
+                    widget.setPercentInfo(readInt());
+                    break;
+                case WIDGET_CHAR_WIDTH:
+                    widget.setCharWidth(readInt());
+                    break;
+                case WIDGET_CHAR_HEIGHT:
+                    widget.setCharHeight(readInt());
+                    break;
+                case WIDGET_START_CHAR:
+                    widget.setStartChar(readString());
+                    break;
+                case WIDGET_MAX_LENGTH_ENABLE:
+                    widget.setMaxLengthEnable(readBoolean());
+                    break;
+                case WIDGET_MAX_LENGTH_TEXT:
+                    widget.setMaxLengthText(readInt());
+                    break;
+                case WIDGET_PASSWORD_ENABLE:
+                    widget.setPasswordEnable(readBoolean());
+                    break;
+                case WIDGET_PASSWORD_STYLE_TEXT:
+                    widget.setPasswordStyleText((char) readInt());
+                    break;
+                case WIDGET_DISPLAY_STATE:
+                    widget.setDisplayState(readBoolean());
+                    break;
+                case WIDGET_IS_BOUNCE_ENABLED:
+                    widget.setIsBounceEnabled(readBoolean());
+                    break;
+                case WIDGET_SCROLL_DIRECTION_TYPE:
+                    widget.setScrollDirectionType(readString());
+                    break;
+                case WIDGET_CALL_BACK_TYPE:
+                    widget.setCallBackType(readString());
+                    break;
+                case WIDGET_CALL_BACK_NAME:
+                    widget.setCallBackName(readString());
+                    break;
+                case WIDGET_FRAME_EVENT:
+                    widget.setFrameEvent(readString());
+                    break;
+                case WIDGET_BUTTON_TYPE:
+                    widget.setButtonType(readString());
+                    break;
+                case WIDGET_IS_CUSTOM_SIZE:
+                    widget.setIsCustomSize(readBoolean());
+                    break;
+                case WIDGET_SIZE:
+                    widget.setSize(readSize());
+                    break;
+                case WIDGET_POSITION:
+                    widget.setPosition(readSize());
+                    break;
+                case WIDGET_PRE_POSITION:
+                    widget.setPrePosition(readSize());
+                    break;
+                case WIDGET_PRE_SIZE:
+                    widget.setPreSize(readSize());
+                    break;
+                case WIDGET_SCALE:
+                    widget.setScale(readScale());
+                    break;
+                case WIDGET_ANCHOR_POINT:
+                    widget.setAnchorPoint(readScale());
+                    break;
+                case WIDGET_C_COLOR:
+                    widget.setCColor(readColor());
+                    break;
+                case WIDGET_TEXT_COLOR:
+                    widget.setTextColor(readColor());
+                    break;
+                case WIDGET_SINGLE_COLOR:
+                    widget.setSingleColor(readColor());
+                    break;
+                case WIDGET_FIRST_COLOR:
+                    widget.setFirstColor(readColor());
+                    break;
+                case WIDGET_END_COLOR:
+                    widget.setEndColor(readColor());
+                    break;
+                case WIDGET_COLOR_VECTOR:
+                    widget.setColorVector(readScale());
+                    break;
+                case WIDGET_FILE_DATA:
+                    widget.setFileData(readFileData());
+                    break;
+                case WIDGET_IMAGE_FILE_DATA:
+                    widget.setImageFileData(readFileData());
+                    break;
+                case WIDGET_DISABLED_FILE_DATA:
+                    widget.setDisabledFileData(readFileData());
+                    break;
+                case WIDGET_PRESSED_FILE_DATA:
+                    widget.setPressedFileData(readFileData());
+                    break;
+                case WIDGET_NORMAL_FILE_DATA:
+                    widget.setNormalFileData(readFileData());
+                    break;
+                case WIDGET_FONT_RESOURCE:
+                    widget.setFontResource(readFileData());
+                    break;
+                case WIDGET_LABEL_BM_FONT_FILE:
+                    widget.setLabelBMFontFile_CNB(readFileData());
+                    break;
+                case WIDGET_LABEL_ATLAS_FILE_IMAGE:
+                    widget.setLabelAtlasFileImage_CNB(readFileData());
+                    break;
+                case WIDGET_NORMAL_BACK_FILE_DATA:
+                    widget.setNormalBackFileData(readFileData());
+                    break;
+                case WIDGET_PRESSED_BACK_FILE_DATA:
+                    widget.setPressedBackFileData(readFileData());
+                    break;
+                case WIDGET_DISABLE_BACK_FILE_DATA:
+                    widget.setDisableBackFileData(readFileData());
+                    break;
+                case WIDGET_NODE_NORMAL_FILE_DATA:
+                    widget.setNodeNormalFileData(readFileData());
+                    break;
+                case WIDGET_NODE_DISABLE_FILE_DATA:
+                    widget.setNodeDisableFileData(readFileData());
+                    break;
+                case WIDGET_BACK_GROUND_DATA:
+                    widget.setBackGroundData(readFileData());
+                    break;
+                case WIDGET_PROGRESS_BAR_DATA:
+                    widget.setProgressBarData(readFileData());
+                    break;
+                case WIDGET_BALL_NORMAL_DATA:
+                    widget.setBallNormalData(readFileData());
+                    break;
+                case WIDGET_BALL_PRESSED_DATA:
+                    widget.setBallPressedData(readFileData());
+                    break;
+                case WIDGET_BALL_DISABLED_DATA:
+                    widget.setBallDisabledData(readFileData());
+                    break;
+                case WIDGET_INNER_NODE_SIZE:
+                    widget.setInnerNodeSize(readInnerNodeSize());
+                    break;
+                case WIDGET_CHILDREN: {
+                    int size = readListHeader();
+                    List<ObjectData> children = new ArrayList<ObjectData>(size);
+                    for (int i = 0; i < size; i++) {
+                        children.add(readWidget());
+                    }
+                    widget.setChildren(children);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return widget;
+    }
+
+    private CCTimelineActionData readTimelineAction() {
+        CCTimelineActionData action = new CCTimelineActionData();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case ACTION_DATA_DURATION:
+                    action.setDuration(readFloat());
+                    break;
+                case ACTION_DATA_SPEED:
+                    action.setSpeed(readFloat());
+                    break;
+                case ACTION_DATA_CTYPE:
+                    action.setCtype(readString());
+                    break;
+                case ACTION_DATA_TIMELINES: {
+                    int size = readListHeader();
+                    List<CCTimelineData> timelines = new ArrayList<CCTimelineData>(size);
+                    for (int i = 0; i < size; i++) {
+                        timelines.add(readTimeline());
+                    }
+                    action.setTimelines(timelines);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return action;
+    }
+
+    private CCTimelineData readTimeline() {
+        CCTimelineData timeline = new CCTimelineData();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case TIMELINE_ACTION_TAG:
+                    timeline.setActionTag(readInt());
+                    break;
+                case TIMELINE_PROPERTY:
+                    timeline.setProperty(readString());
+                    break;
+                case TIMELINE_CTYPE:
+                    timeline.setCtype(readString());
+                    break;
+                case TIMELINE_FRAMES: {
+                    int size = readListHeader();
+                    List<CCTimelineFrame> frames = new ArrayList<CCTimelineFrame>(size);
+                    for (int i = 0; i < size; i++) {
+                        frames.add(readFrame());
+                    }
+                    timeline.setFrames(frames);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return timeline;
+    }
+
+    private CCTimelineFrame readFrame() {
+        CCTimelineFrame frame = new CCTimelineFrame();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case FRAME_X:
+                    frame.setX(readFloat());
+                    break;
+                case FRAME_Y:
+                    frame.setY(readFloat());
+                    break;
+                case FRAME_INDEX:
+                    frame.setFrameIndex(readInt());
+                    break;
+                case FRAME_CTYPE:
+                    frame.setCtype(readString());
+                    break;
+                case FRAME_VALUE:
+                    frame.setValue(readBoolean());
+                    break;
+                case FRAME_TWEEN:
+                    frame.setTween(readBoolean());
+                    break;
+                case FRAME_HAS_EASING:
+                    readBoolean();
+                    if (frame.getEasingData() == null) {
+                        frame.setEasingData(new CCTimelineEasingData());
+                    }
+                    break;
+                case FRAME_EASING_TYPE:
+                    if (frame.getEasingData() == null) {
+                        frame.setEasingData(new CCTimelineEasingData());
+                    }
+                    frame.getEasingData().setType(readInt());
+                    break;
+                case FRAME_TEXTURE_FILE:
+                    frame.setTextureFile(readFileData());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return frame;
+    }
+
+    private CCAnimation readAnimation() {
+        CCAnimation animation = new CCAnimation();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case ANIMATION_CLASSNAME:
+                    animation.setClassname(readString());
+                    break;
+                case ANIMATION_NAME:
+                    animation.setName(readString());
+                    break;
+                case ANIMATION_CHILDREN: {
+                    int size = readListHeader();
+                    List<CCAction> actions = new ArrayList<CCAction>(size);
+                    for (int i = 0; i < size; i++) {
+                        actions.add(readAction());
+                    }
+                    animation.setActionlist(actions);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return animation;
+    }
+
+    private CCAction readAction() {
+        CCAction action = new CCAction();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case ANIMATION_CLASSNAME:
+                    action.setClassname(readString());
+                    break;
+                case ANIMATION_NAME:
+                    action.setName(readString());
+                    break;
+                case ANIMATION_CHILDREN: {
+                    int size = readListHeader();
+                    List<CCActionNode> nodes = new ArrayList<CCActionNode>(size);
+                    for (int i = 0; i < size; i++) {
+                        nodes.add(readActionNode());
+                    }
+                    action.setActionnodelist(nodes);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return action;
+    }
+
+    private CCActionNode readActionNode() {
+        CCActionNode node = new CCActionNode();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case ANIMATION_CLASSNAME:
+                    node.setClassname(readString());
+                    break;
+                case ANIMATION_NAME:
+                    node.setName(readString());
+                    break;
+                case ANIMATION_ACTION_TAG:
+                    node.setActionTag(readInt());
+                    break;
+                case ANIMATION_CHILDREN: {
+                    int size = readListHeader();
+                    List<CCActionFrame> frames = new ArrayList<CCActionFrame>(size);
+                    for (int i = 0; i < size; i++) {
+                        frames.add(readActionFrame());
+                    }
+                    node.setActionframelist(frames);
+                    break;
+                }
+                default:
+                    skip(tag);
+            }
+        }
+        return node;
+    }
+
+    private CCActionFrame readActionFrame() {
+        CCActionFrame frame = new CCActionFrame();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case ACTION_FRAME_CLASSNAME:
+                    frame.setClassname(readString());
+                    break;
+                case ACTION_FRAME_NAME:
+                    frame.setName(readString());
+                    break;
+                case ACTION_FRAME_ID:
+                    frame.setFrameid(readInt());
+                    break;
+                case ACTION_FRAME_COLOR_B:
+                    frame.setColorb(readInt());
+                    break;
+                case ACTION_FRAME_COLOR_G:
+                    frame.setColorg(readInt());
+                    break;
+                case ACTION_FRAME_COLOR_R:
+                    frame.setColorr(readInt());
+                    break;
+                case ACTION_FRAME_OPACITY:
+                    frame.setOpacity(readInt());
+                    break;
+                case ACTION_FRAME_POSITION_X:
+                    frame.setPositionx(readFloat());
+                    break;
+                case ACTION_FRAME_POSITION_Y:
+                    frame.setPositiony(readFloat());
+                    break;
+                case ACTION_FRAME_ROTATION:
+                    frame.setRotation(readFloat());
+                    break;
+                case ACTION_FRAME_SCALE_X:
+                    frame.setScalex(readFloat());
+                    break;
+                case ACTION_FRAME_SCALE_Y:
+                    frame.setScaley(readFloat());
+                    break;
+                case ACTION_FRAME_START_TIME:
+                    frame.setStarttime(readString());
+                    break;
+                case ACTION_FRAME_TWEEN_PARAMETER: {
+                    int size = readListHeader();
+                    List<Float> parameters = new ArrayList<Float>(size);
+                    for (int i = 0; i < size; i++) {
+                        parameters.add(readFloat());
+                    }
+                    frame.setTweenParameter(parameters);
+                    break;
+                }
+                case ACTION_FRAME_TWEEN_TYPE:
+                    frame.setTweenType(readInt());
+                    break;
+                case ACTION_FRAME_VISIBLE:
+                    frame.setVisible(readBoolean());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return frame;
+    }
+
+    private Size readSize() {
+        Size size = new Size();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case VECTOR_X:
+                    size.setX(readFloat());
+                    break;
+                case VECTOR_Y:
+                    size.setY(readFloat());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return size;
+    }
+
+    private Scale readScale() {
+        Scale scale = new Scale();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case VECTOR_X:
+                    scale.setScaleX(readFloat());
+                    break;
+                case VECTOR_Y:
+                    scale.setScaleY(readFloat());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return scale;
+    }
+
+    private CColor readColor() {
+        CColor color = new CColor();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case COLOR_R:
+                    color.setR(readInt());
+                    break;
+                case COLOR_G:
+                    color.setG(readInt());
+                    break;
+                case COLOR_B:
+                    color.setB(readInt());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return color;
+    }
+
+    private FileData readFileData() {
+        FileData fileData = new FileData();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case FILE_TYPE:
+                    fileData.setType(readString());
+                    break;
+                case FILE_PATH:
+                    fileData.setPath(readString());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return fileData;
+    }
+
+    private InnerNodeSize readInnerNodeSize() {
+        InnerNodeSize innerNodeSize = new InnerNodeSize();
+        int tag;
+        while ((tag = readVarint()) != 0) {
+            switch (tag >>> 2) {
+                case INNER_WIDTH:
+                    innerNodeSize.setWidth(readInt());
+                    break;
+                case INNER_HEIGHT:
+                    innerNodeSize.setHeight(readInt());
+                    break;
+                default:
+                    skip(tag);
+            }
+        }
+        return innerNodeSize;
+    }
+
+    /**
+     * 跳过一个未知字段
+     */
+    private void skip(int tag) {
+        skipValue(tag & 3);
+    }
+
+    private void skipValue(int wire) {
+        switch (wire) {
+            case WIRE_VARINT:
+                readVarint();
+                break;
+            case WIRE_FLOAT:
+                position += 4;
+                break;
+            case WIRE_OBJECT: {
+                int tag;
+                while ((tag = readVarint()) != 0) {
+                    skip(tag);
+                }
+                break;
+            }
+            default: {
+                int size = readVarint();
+                int elementWire = readVarint();
+                for (int i = 0; i < size; i++) {
+                    skipValue(elementWire);
+                }
+            }
+        }
+    }
+
+    private int readListHeader() {
+        int size = readVarint();
+        readVarint();
+        return size;
+    }
+
+    private String readString() {
+        int index = readVarint();
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private int readInt() {
+        int value = readVarint();
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private boolean readBoolean() {
+        return readVarint() != 0;
+    }
+
+    private float readFloat() {
+        int bits = data[position] & 0xFF
+            | (data[position + 1] & 0xFF) << 8
+            | (data[position + 2] & 0xFF) << 16
+            | (data[position + 3] & 0xFF) << 24;
+        position += 4;
+        return Float.intBitsToFloat(bits);
+    }
+
+    private int readVarint() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private String utf8(int offset, int length) {
+        try {
+            return new String(data, offset, length, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import net.mwplay.cocostudio.ui.model.CCData;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.CColor;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.GameProjectData;
+import net.mwplay.cocostudio.ui.model.InnerNodeSize;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.model.Scale;
+import net.mwplay.cocostudio.ui.model.Size;
+import net.mwplay.cocostudio.ui.model.animation.CCAction;
+import net.mwplay.cocostudio.ui.model.animation.CCActionFrame;
+import net.mwplay.cocostudio.ui.model.animation.CCActionNode;
+import net.mwplay.cocostudio.ui.model.animation.CCAnimation;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineActionData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineFrame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+
+import static net.mwplay.cocostudio.ui.loader.CCBinaryFormat.*;
+
+/**
+ * 把 CCExport 编码为二进制布局格式,格式说明见 {@link CCBinaryFormat}.
+ * 非线程安全,每次编码请新建实例.
+ */
+public class CCBinaryWriter {
+
+    private final Array<String> strings = new Array<String>();
+    private final ObjectIntMap<String> stringIndex = new ObjectIntMap<String>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+
+    public void write(CCExport export, FileHandle file) {
+        OutputStream output = file.write(false);
+        try {
+            write(export, output);
+        } finally {
+            StreamUtils.closeQuietly(output);
+        }
+    }
+
+    public void write(CCExport export, OutputStream output) {
+        try {
+            output.write(toBytes(export));
+        } catch (IOException e) {
+            throw new GdxRuntimeException("二进制布局写入失败", e);
+        }
+    }
+
+    public byte[] toBytes(CCExport export) {
+        strings.clear();
+        stringIndex.clear();
+        body.reset();
+
+        writeExport(export);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.size() + 1024);
+        output.write(MAGIC, 0, MAGIC.length);
+        writeVarint(output, VERSION);
+        writeVarint(output, strings.size);
+        for (String value : strings) {
+            byte[] bytes = utf8(value);
+            writeVarint(output, bytes.length);
+            output.write(bytes, 0, bytes.length);
+        }
+        output.write(body.toByteArray(), 0, body.size());
+        return output.toByteArray();
+    }
+
+    private void writeExport(CCExport export) {
+        string(EXPORT_ID, export.getID());
+        string(EXPORT_VERSION, export.getVersion());
+        string(EXPORT_TYPE, export.getType());
+        string(EXPORT_NAME, export.getName());
+        CCData data = export.getContent();
+        if (data != null) {
+            tag(EXPORT_CONTENT, WIRE_OBJECT);
+            GameProjectData project = data.getContent();
+            if (project != null) {
+                tag(DATA_CONTENT, WIRE_OBJECT);
+                writeProject(project);
+                end();
+            }
+            end();
+        }
+        end();
+    }
+
+    private void writeProject(GameProjectData project) {
+        if (project.getAnimation() != null) {
+            tag(PROJECT_ANIMATION, WIRE_OBJECT);
+            writeTimelineAction(project.getAnimation());
+        }
+        if (project.getAnimationList() != null) {
+            list(PROJECT_ANIMATION_LIST, WIRE_OBJECT, project.getAnimationList());
+            for (CCAnimation animation : project.getAnimationList()) {
+                writeAnimation(animation);
+            }
+        }
+        if (project.getObjectData() != null) {
+            tag(PROJECT_OBJECT_DATA, WIRE_OBJECT);
+            writeWidget(project.getObjectData());
+        }
+        strings(PROJECT_USED_RESOURCES, project.getUsedResources());
+        end();
+    }
+
+    private void writeWidget(ObjectData widget) {
+        string(WIDGET_NAME, widget.getName());
+        string(WIDGET_CTYPE, widget.getCtype());
+        integer(WIDGET_ACTION_TAG, widget.getActionTag());
+        integer(WIDGET_TAG, widget.getTag());
+        integer(WIDGET_Z_ORDER, widget.getZOrder());
+        integer(WIDGET_ALPHA, widget.getAlpha());
+        decimal(WIDGET_ROTATION, widget.getRotation());
+        decimal(WIDGET_ROTATION_SKEW_X, widget.getRotationSkewX());
+        decimal(WIDGET_ROTATION_SKEW_Y, widget.getRotationSkewY());
+        bool(WIDGET_VISIBLE_FOR_FRAME, widget.isVisibleForFrame(), true);
+        bool(WIDGET_TOUCH_ENABLE, widget.isTouchEnable(), false);
+        bool(WIDGET_FLIP_X, widget.isFlipX(), false);
+        bool(WIDGET_FLIP_Y, widget.isFlipY(), false);
+        bool(WIDGET_CLIP_ABLE, widget.isClipAble(), false);
+        bool(WIDGET_SCALE9_ENABLE, widget.isScale9Enable(), false);
+        integer(WIDGET_SCALE9_WIDTH, widget.getScale9Width());
+        integer(WIDGET_SCALE9_HEIGHT, widget.getScale9Height());
+        integer(WIDGET_SCALE9_ORIGIN_X, widget.getScale9OriginX());
+        integer(WIDGET_SCALE9_ORIGIN_Y, widget.getScale9OriginY());
+        decimal(WIDGET_LEFT_MARGIN, widget.getLeftMargin());
+        decimal(WIDGET_RIGHT_MARGIN, widget.getRightMargin());
+        decimal(WIDGET_TOP_MARGIN, widget.getTopMargin());
+        decimal(WIDGET_BOTTOM_MARGIN, widget.getBottomMargin());
+        integer(WIDGET_FONT_SIZE, widget.getFontSize());
+        string(WIDGET_LABEL_TEXT, widget.getLabelText());
+        string(WIDGET_BUTTON_TEXT, widget.getButtonText());
+        string(WIDGET_PLACE_HOLDER_TEXT, widget.getPlaceHolderText());
+        string(WIDGET_HORIZONTAL_ALIGNMENT, widget.getHorizontalAlignmentType());
+        string(WIDGET_VERTICAL_ALIGNMENT, widget.getVerticalAlignmentType());
+        integer(WIDGET_COMBO_BOX_INDEX, widget.getComboBoxIndex());
+        integer(WIDGET_BACK_COLOR_ALPHA, widget.getBackColorAlpha());
+        integer(WIDGET_PROGRESS_INFO, widget.getProgressInfo());
+        string(WIDGET_PROGRESS_TYPE, widget.getProgressType());
+        integer(WIDGET_PERCENT_INFO, widget.getPercentInfo());
+        integer(WIDGET_CHAR_WIDTH, widget.getCharWidth());
+        integer(WIDGET_CHAR_HEIGHT, widget.getCharHeight());
+        string(WIDGET_START_CHAR, widget.getStartChar());
+        bool(WIDGET_MAX_LENGTH_ENABLE, widget.isMaxLengthEnable(), false);
+        integer(WIDGET_MAX_LENGTH_TEXT, widget.getMaxLengthText());
+        bool(WIDGET_PASSWORD_ENABLE, widget.isPasswordEnable(), false);
+        integer(WIDGET_PASSWORD_STYLE_TEXT, widget.getPasswordStyleText());
+        bool(WIDGET_DISPLAY_STATE, widget.isDisplayState(), false);
+        bool(WIDGET_IS_BOUNCE_ENABLED, widget.isIsBounceEnabled(), false);
+        string(WIDGET_SCROLL_DIRECTION_TYPE, widget.getScrollDirectionType());
+        string(WIDGET_CALL_BACK_TYPE, widget.getCallBackType());
+        string(WIDGET_CALL_BACK_NAME, widget.getCallBackName());
+        string(WIDGET_FRAME_EVENT, widget.getFrameEvent());
+        string(WIDGET_BUTTON_TYPE, widget.getButtonType());
+        bool(WIDGET_IS_CUSTOM_SIZE, widget.isIsCustomSize(), false);
+        size(WIDGET_SIZE, widget.getSize());
+        size(WIDGET_POSITION, widget.getPosition());
+        size(WIDGET_PRE_POSITION, widget.getPrePosition());
+        size(WIDGET_PRE_SIZE, widget.getPreSize());
+        scale(WIDGET_SCALE, widget.getScale());
+        scale(WIDGET_ANCHOR_POINT, widget.getAnchorPoint());
+        color(WIDGET_C_COLOR, widget.getCColor());
+        color(WIDGET_TEXT_COLOR, widget.getTextColor());
+        color(WIDGET_SINGLE_COLOR, widget.getSingleColor());
+        color(WIDGET_FIRST_COLOR, widget.getFirstColor());
+        color(WIDGET_END_COLOR, widget.getEndColor());
+        scale(WIDGET_COLOR_VECTOR, widget.getColorVector());
+        InnerNodeSize innerNodeSize = widget.getInnerNodeSize();
+        if (innerNodeSize != null) {
+            tag(WIDGET_INNER_NODE_SIZE, WIRE_OBJECT);
+            integer(INNER_WIDTH, innerNodeSize.getWidth());
+            integer(INNER_HEIGHT, innerNodeSize.getHeight());
+            end();
+        }
+        file(WIDGET_FILE_DATA, widget.getFileData());
+        file(WIDGET_IMAGE_FILE_DATA, widget.getImageFileData());
+        file(WIDGET_DISABLED_FILE_DATA, widget.getDisabledFileData());
+        file(WIDGET_PRESSED_FILE_DATA, widget.getPressedFileData());
+        file(WIDGET_NORMAL_FILE_DATA, widget.getNormalFileData());
+        file(WIDGET_FONT_RESOURCE, widget.getFontResource());
+        file(WIDGET_LABEL_BM_FONT_FILE, widget.getLabelBMFontFile_CNB());
+        file(WIDGET_LABEL_ATLAS_FILE_IMAGE, widget.getLabelAtlasFileImage_CNB());
+        file(WIDGET_NORMAL_BACK_FILE_DATA, widget.getNormalBackFileData());
+        file(WIDGET_PRESSED_BACK_FILE_DATA, widget.getPressedBackFileData());
+        file(WIDGET_DISABLE_BACK_FILE_DATA, widget.getDisableBackFileData());
+        file(WIDGET_NODE_NORMAL_FILE_DATA, widget.getNodeNormalFileData());
+        file(WIDGET_NODE_DISABLE_FILE_DATA, widget.getNodeDisableFileData());
+        file(WIDGET_BACK_GROUND_DATA, widget.getBackGroundData());
+        file(WIDGET_PROGRESS_BAR_DATA, widget.getProgressBarData());
+        file(WIDGET_BALL_NORMAL_DATA, widget.getBallNormalData());
+        file(WIDGET_BALL_PRESSED_DATA, widget.getBallPressedData());
+        file(WIDGET_BALL_DISABLED_DATA, widget.getBallDisabledData());
+        if (widget.getChildren() != null) {
+            list(WIDGET_CHILDREN, WIRE_OBJECT, widget.getChildren());
+            for (ObjectData child : widget.getChildren()) {
+                writeWidget(child);
+            }
+        }
+        end();
+    }
+
+    private void writeTimelineAction(CCTimelineActionData data) {
+        decimal(ACTION_DATA_DURATION, data.getDuration());
+        decimal(ACTION_DATA_SPEED, data.getSpeed());
+        string(ACTION_DATA_CTYPE, data.getCtype());
+        if (data.getTimelines() != null) {
+            list(ACTION_DATA_TIMELINES, WIRE_OBJECT, data.getTimelines());
+            for (CCTimelineData timeline : data.getTimelines()) {
+                integer(TIMELINE_ACTION_TAG, timeline.getActionTag());
+                string(TIMELINE_PROPERTY, timeline.getProperty());
+                string(TIMELINE_CTYPE, timeline.getCtype());
+                if (timeline.getFrames() != null) {
+                    list(TIMELINE_FRAMES, WIRE_OBJECT, timeline.getFrames());
+                    for (CCTimelineFrame frame : timeline.getFrames()) {
+                        writeFrame(frame);
+                    }
+                }
+                end();
+            }
+        }
+        end();
+    }
+
+    private void writeFrame(CCTimelineFrame frame) {
+        decimal(FRAME_X, frame.getX());
+        decimal(FRAME_Y, frame.getY());
+        integer(FRAME_INDEX, frame.getFrameIndex());
+        string(FRAME_CTYPE, frame.getCtype());
+        bool(FRAME_VALUE, frame.isValue(), false);
+        bool(FRAME_TWEEN, frame.isTween(), false);
+        if (frame.getEasingData() != null) {
+            bool(FRAME_HAS_EASING, true, false);
+            if (frame.getEasingData().getType() != null) {
+                tag(FRAME_EASING_TYPE, WIRE_VARINT);
+                writeVarint(body, zigzag(frame.getEasingData().getType()));
+            }
+        }
+        file(FRAME_TEXTURE_FILE, frame.getTextureFile());
+        end();
+    }
+
+    private void writeAnimation(CCAnimation animation) {
+        string(ANIMATION_CLASSNAME, animation.getClassname());
+        string(ANIMATION_NAME, animation.getName());
+        if (animation.getActionlist() != null) {
+            list(ANIMATION_CHILDREN, WIRE_OBJECT, animation.getActionlist());
+            for (CCAction action : animation.getActionlist()) {
+                string(ANIMATION_CLASSNAME, action.getClassname());
+                string(ANIMATION_NAME, action.getName());
+                if (action.getActionnodelist() != null) {
+                    list(ANIMATION_CHILDREN, WIRE_OBJECT, action.getActionnodelist());
+                    for (CCActionNode node : action.getActionnodelist()) {
+                        writeActionNode(node);
+                    }
+                }
+                end();
+            }
+        }
+        end();
+    }
+
+    private void writeActionNode(CCActionNode node) {
+        string(ANIMATION_CLASSNAME, node.getClassname());
+        string(ANIMATION_NAME, node.getName());
+        integer(ANIMATION_ACTION_TAG, node.getActionTag());
+        if (node.getActionframelist() != null) {
+            list(ANIMATION_CHILDREN, WIRE_OBJECT, node.getActionframelist());
+            for (CCActionFrame frame : node.getActionframelist()) {
+                string(ACTION_FRAME_CLASSNAME, frame.getClassname());
+                string(ACTION_FRAME_NAME, frame.getName());
+                integer(ACTION_FRAME_ID, frame.getFrameid());
+                integer(ACTION_FRAME_COLOR_B, frame.getColorb());
+                integer(ACTION_FRAME_COLOR_G, frame.getColorg());
+                integer(ACTION_FRAME_COLOR_R, frame.getColorr());
+                integer(ACTION_FRAME_OPACITY, frame.getOpacity());
+                decimal(ACTION_FRAME_POSITION_X, frame.getPositionx());
+                decimal(ACTION_FRAME_POSITION_Y, frame.getPositiony());
+                decimal(ACTION_FRAME_ROTATION, frame.getRotation());
+                decimal(ACTION_FRAME_SCALE_X, frame.getScalex());
+                decimal(ACTION_FRAME_SCALE_Y, frame.getScaley());
+                string(ACTION_FRAME_START_TIME, frame.getStarttime());
+                if (frame.getTweenParameter() != null) {
+                    list(ACTION_FRAME_TWEEN_PARAMETER, WIRE_FLOAT, frame.getTweenParameter());
+                    for (Float value : frame.getTweenParameter()) {
+                        writeFloat(value == null ? 0 : value);
+                    }
+                }
+                integer(ACTION_FRAME_TWEEN_TYPE, frame.getTweenType());
+                bool(ACTION_FRAME_VISIBLE, frame.isVisible(), false);
+                end();
+            }
+        }
+        end();
+    }
+
+    private void size(int id, Size size) {
+        if (size == null) {
+            return;
+        }
+        tag(id, WIRE_OBJECT);
+        decimal(VECTOR_X, size.getX());
+        decimal(VECTOR_Y, size.getY());
+        end();
+    }
+
+    private void scale(int id, Scale scale) {
+        if (scale == null) {
+            return;
+        }
+        tag(id, WIRE_OBJECT);
+        decimal(VECTOR_X, scale.getScaleX());
+        decimal(VECTOR_Y, scale.getScaleY());
+        end();
+    }
+
+    private void color(int id, CColor color) {
+        if (color == null) {
+            return;
+        }
+        tag(id, WIRE_OBJECT);
+        // CColor 的默认值是白色
+        component(COLOR_R, color.getR());
+        component(COLOR_G, color.getG());
+        component(COLOR_B, color.getB());
+        end();
+    }
+
+    private void component(int id, int value) {
+        if (value == 255) {
+            return;
+        }
+        tag(id, WIRE_VARINT);
+        writeVarint(body, zigzag(value));
+    }
+
+    private void file(int id, FileData fileData) {
+        if (fileData == null) {
+            return;
+        }
+        tag(id, WIRE_OBJECT);
+        string(FILE_TYPE, fileData.getType());
+        string(FILE_PATH, fileData.getPath());
+        end();
+    }
+
+    private void strings(int id, List<String> values) {
+        if (values == null) {
+            return;
+        }
+        list(id, WIRE_VARINT, values);
+        for (String value : values) {
+            writeVarint(body, stringRef(value));
+        }
+    }
+
+    private void list(int id, int elementWire, List<?> values) {
+        tag(id, WIRE_LIST);
+        writeVarint(body, values.size());
+        writeVarint(body, elementWire);
+    }
+
+    private void string(int id, String value) {
+        if (value == null) {
+            return;
+        }
+        tag(id, WIRE_VARINT);
+        writeVarint(body, stringRef(value));
+    }
+
+    private void integer(int id, int value) {
+        if (value == 0) {
+            return;
+        }
+        tag(id, WIRE_VARINT);
+        writeVarint(body, zigzag(value));
+    }
+
+    private void bool(int id, boolean value, boolean defaultValue) {
+        if (value == defaultValue) {
+            return;
+        }
+        tag(id, WIRE_VARINT);
+        writeVarint(body, value ? 1 : 0);
+    }
+
+    private void decimal(int id, float value) {
+        if (Float.floatToRawIntBits(value) == 0) {
+            return;
+        }
+        tag(id, WIRE_FLOAT);
+        writeFloat(value);
+    }
+
+    private void tag(int id, int wire) {
+        writeVarint(body, id << 2 | wire);
+    }
+
+    private void end() {
+        body.write(0);
+    }
+
+    private int stringRef(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int index = stringIndex.get(value, -1);
+        if (index == -1) {
+            index = strings.size;
+            strings.add(value);
+            stringIndex.put(value, index);
+        }
+        return index + 1;
+    }
+
+    private void writeFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        body.write(bits);
+        body.write(bits >>> 8);
+        body.write(bits >>> 16);
+        body.write(bits >>> 24);
+    }
+
+    private static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static byte[] utf8(String value) {
+        try {
+            return value.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+}
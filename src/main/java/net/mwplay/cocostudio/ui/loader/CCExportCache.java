@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import net.mwplay.cocostudio.ui.model.CCExport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内共享的导出文件缓存,按文件(类型+路径)缓存解析好的 CCExport,最近最少使用的先淘汰.
+ * 缓存的模型会被多个编辑器共用,取出后不要修改.
+ */
+public class CCExportCache {
+
+    /**
+     * 默认缓存的导出文件数量
+     */
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    private static final CCExportCache DEFAULT = new CCExportCache(DEFAULT_MAX_SIZE);
+
+    private final LinkedHashMap<FileHandle, CCExport> exports =
+        new LinkedHashMap<FileHandle, CCExport>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FileHandle, CCExport> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+
+    private int maxSize;
+    private int hits;
+    private int misses;
+    private int evictions;
+
+    public CCExportCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * CocoStudioUIEditor 使用的全局缓存
+     */
+    public static CCExportCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 取出解析好的导出文件,未缓存时读取并解析
+     */
+    public CCExport get(FileHandle file) {
+        synchronized (this) {
+            CCExport export = exports.get(file);
+            if (export != null) {
+                hits++;
+                return export;
+            }
+            misses++;
+        }
+
+        // 解析不占用锁,并发读取同一文件时以先放入的为准
+        CCExport export = CCExports.read(file);
+        synchronized (this) {
+            CCExport cached = exports.get(file);
+            if (cached != null) {
+                return cached;
+            }
+            if (maxSize > 0) {
+                exports.put(file, export);
+            }
+            return export;
+        }
+    }
+
+    /**
+     * 文件内容变化后移除对应缓存
+     */
+    public synchronized void invalidate(FileHandle file) {
+        exports.remove(file);
+    }
+
+    public synchronized void invalidateAll() {
+        exports.clear();
+    }
+
+    public synchronized boolean contains(FileHandle file) {
+        return exports.containsKey(file);
+    }
+
+    /**
+     * 设置最多缓存的导出文件数量,0 表示不缓存
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be >= 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        while (exports.size() > maxSize) {
+            exports.remove(exports.keySet().iterator().next());
+            evictions++;
+        }
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return exports.size();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized int getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CCExportCache{size=" + exports.size() + "/" + maxSize + ", hits=" + hits
+            + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
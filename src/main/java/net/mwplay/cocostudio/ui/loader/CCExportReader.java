@@ -0,0 +1,907 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.SerializationException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import net.mwplay.cocostudio.ui.model.CCData;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.CColor;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.GameProjectData;
+import net.mwplay.cocostudio.ui.model.InnerNodeSize;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.model.Scale;
+import net.mwplay.cocostudio.ui.model.Size;
+import net.mwplay.cocostudio.ui.model.animation.CCAction;
+import net.mwplay.cocostudio.ui.model.animation.CCActionFrame;
+import net.mwplay.cocostudio.ui.model.animation.CCActionNode;
+import net.mwplay.cocostudio.ui.model.animation.CCAnimation;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineActionData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineEasingData;
+import net.mwplay.cocostudio.ui.model.timelines.CCTimelineFrame;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CocoStudio导出json的流式解析器.
+ * 直接在JsonReader的回调中填充CCExport,不经过JsonValue树,也不使用反射.
+ * 字段名与模型类的字段名一一对应,未知字段会被忽略,结果与 Json.fromJson(CCExport.class) 一致.
+ * 非线程安全,每次解析请新建实例.
+ */
+public class CCExportReader extends JsonReader {
+
+    static final int SKIP = 0;
+    static final int EXPORT = 1;
+    static final int DATA = 2;
+    static final int PROJECT = 3;
+    static final int OBJECT_DATA = 4;
+    static final int SIZE = 5;
+    static final int SCALE = 6;
+    static final int COLOR = 7;
+    static final int FILE_DATA = 8;
+    static final int INNER_NODE_SIZE = 9;
+    static final int TIMELINE_ACTION = 10;
+    static final int TIMELINE = 11;
+    static final int TIMELINE_FRAME = 12;
+    static final int EASING = 13;
+    static final int ANIMATION = 14;
+    static final int ACTION = 15;
+    static final int ACTION_NODE = 16;
+    static final int ACTION_FRAME = 17;
+
+    static final int LIST_OBJECT_DATA = 20;
+    static final int LIST_STRING = 21;
+    static final int LIST_FLOAT = 22;
+    static final int LIST_TIMELINE = 23;
+    static final int LIST_TIMELINE_FRAME = 24;
+    static final int LIST_ANIMATION = 25;
+    static final int LIST_ACTION = 26;
+    static final int LIST_ACTION_NODE = 27;
+    static final int LIST_ACTION_FRAME = 28;
+
+    static final int VALUE_STRING = 0;
+    static final int VALUE_NUMBER = 1;
+    static final int VALUE_BOOLEAN = 2;
+
+    private final Array<Object> targets = new Array<Object>();
+    private final IntArray kinds = new IntArray();
+
+    private CCExport export;
+
+    private int valueType;
+    private String text;
+    private double number;
+    private boolean bool;
+
+    public CCExport read(FileHandle file) {
+        Reader reader = file.reader("UTF-8");
+        try {
+            // UTF-8字节数不小于字符数,多留一个字符用于检测文件结束,避免扩容
+            int length = (int) file.length();
+            char[] data = new char[length > 0 ? length + 1 : 1024];
+            int offset = 0;
+            while (true) {
+                if (offset == data.length) {
+                    char[] newData = new char[data.length * 2];
+                    System.arraycopy(data, 0, newData, 0, offset);
+                    data = newData;
+                }
+                int count = reader.read(data, offset, data.length - offset);
+                if (count == -1) {
+                    break;
+                }
+                offset += count;
+            }
+            return read(data, 0, offset);
+        } catch (IOException ex) {
+            throw new SerializationException("Error reading file: " + file, ex);
+        } finally {
+            StreamUtils.closeQuietly(reader);
+        }
+    }
+
+    public CCExport read(String json) {
+        char[] data = json.toCharArray();
+        return read(data, 0, data.length);
+    }
+
+    public CCExport read(char[] data, int offset, int length) {
+        // 跳过UTF-8 BOM
+        if (length > 0 && data[offset] == '\uFEFF') {
+            offset++;
+            length--;
+        }
+        export = null;
+        targets.clear();
+        kinds.clear();
+        parse(data, offset, length);
+        CCExport result = export;
+        export = null;
+        return result;
+    }
+
+    @Override
+    protected void startObject(String name) {
+        if (kinds.size == 0) {
+            export = new CCExport();
+            push(EXPORT, export);
+            return;
+        }
+        int kind = kinds.peek();
+        Object target = targets.peek();
+        switch (kind) {
+            case EXPORT:
+                if ("Content".equals(name)) {
+                    CCData data = new CCData();
+                    ((CCExport) target).setContent(data);
+                    push(DATA, data);
+                    return;
+                }
+                break;
+            case DATA:
+                if ("Content".equals(name)) {
+                    GameProjectData project = new GameProjectData();
+                    ((CCData) target).setContent(project);
+                    push(PROJECT, project);
+                    return;
+                }
+                break;
+            case PROJECT:
+                startProjectObject((GameProjectData) target, name);
+                return;
+            case OBJECT_DATA:
+                startWidgetObject((ObjectData) target, name);
+                return;
+            case TIMELINE_FRAME:
+                if ("EasingData".equals(name)) {
+                    CCTimelineEasingData easingData = new CCTimelineEasingData();
+                    ((CCTimelineFrame) target).setEasingData(easingData);
+                    push(EASING, easingData);
+                    return;
+                }
+                if ("TextureFile".equals(name)) {
+                    ((CCTimelineFrame) target).setTextureFile(pushFileData());
+                    return;
+                }
+                break;
+            case LIST_OBJECT_DATA:
+                ObjectData widget = new ObjectData();
+                add(target, widget);
+                push(OBJECT_DATA, widget);
+                return;
+            case LIST_TIMELINE:
+                CCTimelineData timeline = new CCTimelineData();
+                add(target, timeline);
+                push(TIMELINE, timeline);
+                return;
+            case LIST_TIMELINE_FRAME:
+                CCTimelineFrame frame = new CCTimelineFrame();
+                add(target, frame);
+                push(TIMELINE_FRAME, frame);
+                return;
+            case LIST_ANIMATION:
+                CCAnimation animation = new CCAnimation();
+                add(target, animation);
+                push(ANIMATION, animation);
+                return;
+            case LIST_ACTION:
+                CCAction action = new CCAction();
+                add(target, action);
+                push(ACTION, action);
+                return;
+            case LIST_ACTION_NODE:
+                CCActionNode actionNode = new CCActionNode();
+                add(target, actionNode);
+                push(ACTION_NODE, actionNode);
+                return;
+            case LIST_ACTION_FRAME:
+                CCActionFrame actionFrame = new CCActionFrame();
+                add(target, actionFrame);
+                push(ACTION_FRAME, actionFrame);
+                return;
+            default:
+                break;
+        }
+        push(SKIP, null);
+    }
+
+    private void startProjectObject(GameProjectData project, String name) {
+        if ("ObjectData".equals(name)) {
+            ObjectData widget = new ObjectData();
+            project.setObjectData(widget);
+            push(OBJECT_DATA, widget);
+        } else if ("Animation".equals(name)) {
+            CCTimelineActionData animation = new CCTimelineActionData();
+            project.setAnimation(animation);
+            push(TIMELINE_ACTION, animation);
+        } else {
+            push(SKIP, null);
+        }
+    }
+
+    private void startWidgetObject(ObjectData widget, String name) {
+        switch (name) {
+            case "Size":
+                widget.setSize(pushSize());
+                break;
+            case "Position":
+                widget.setPosition(pushSize());
+                break;
+            case "PrePosition":
+                widget.setPrePosition(pushSize());
+                break;
+            case "PreSize":
+                widget.setPreSize(pushSize());
+                break;
+            case "Scale":
+                widget.setScale(pushScale());
+                break;
+            case "AnchorPoint":
+                widget.setAnchorPoint(pushScale());
+                break;
+            case "CColor":
+                widget.setCColor(pushColor());
+                break;
+            case "TextColor":
+                widget.setTextColor(pushColor());
+                break;
+            case "SingleColor":
+                widget.setSingleColor(pushColor());
+                break;
+            case "FirstColor":
+                widget.setFirstColor(pushColor());
+                break;
+            case "EndColor":
+                widget.setEndColor(pushColor());
+                break;
+            case "ColorVector":
+                widget.setColorVector(pushScale());
+                break;
+            case "InnerNodeSize":
+                InnerNodeSize innerNodeSize = new InnerNodeSize();
+                widget.setInnerNodeSize(innerNodeSize);
+                push(INNER_NODE_SIZE, innerNodeSize);
+                break;
+            case "FileData":
+                widget.setFileData(pushFileData());
+                break;
+            case "ImageFileData":
+                widget.setImageFileData(pushFileData());
+                break;
+            case "DisabledFileData":
+                widget.setDisabledFileData(pushFileData());
+                break;
+            case "PressedFileData":
+                widget.setPressedFileData(pushFileData());
+                break;
+            case "NormalFileData":
+                widget.setNormalFileData(pushFileData());
+                break;
+            case "FontResource":
+                widget.setFontResource(pushFileData());
+                break;
+            case "LabelBMFontFile_CNB":
+                widget.setLabelBMFontFile_CNB(pushFileData());
+                break;
+            case "LabelAtlasFileImage_CNB":
+                widget.setLabelAtlasFileImage_CNB(pushFileData());
+                break;
+            case "NormalBackFileData":
+                widget.setNormalBackFileData(pushFileData());
+                break;
+            case "PressedBackFileData":
+                widget.setPressedBackFileData(pushFileData());
+                break;
+            case "DisableBackFileData":
+                widget.setDisableBackFileData(pushFileData());
+                break;
+            case "NodeNormalFileData":
+                widget.setNodeNormalFileData(pushFileData());
+                break;
+            case "NodeDisableFileData":
+                widget.setNodeDisableFileData(pushFileData());
+                break;
+            case "BackGroundData":
+                widget.setBackGroundData(pushFileData());
+                break;
+            case "ProgressBarData":
+                widget.setProgressBarData(pushFileData());
+                break;
+            case "BallNormalData":
+                widget.setBallNormalData(pushFileData());
+                break;
+            case "BallPressedData":
+                widget.setBallPressedData(pushFileData());
+                break;
+            case "BallDisabledData":
+                widget.setBallDisabledData(pushFileData());
+                break;
+            default:
+                push(SKIP, null);
+                break;
+        }
+    }
+
+    @Override
+    protected void startArray(String name) {
+        if (kinds.size == 0) {
+            push(SKIP, null);
+            return;
+        }
+        int kind = kinds.peek();
+        Object target = targets.peek();
+        int listKind = SKIP;
+        switch (kind) {
+            case PROJECT:
+                if ("UsedResources".equals(name)) {
+                    listKind = LIST_STRING;
+                    ((GameProjectData) target).setUsedResources(pushList(listKind, new ArrayList<String>()));
+                } else if ("AnimationList".equals(name)) {
+                    listKind = LIST_ANIMATION;
+                    ((GameProjectData) target).setAnimationList(pushList(listKind, new ArrayList<CCAnimation>()));
+                }
+                break;
+            case OBJECT_DATA:
+                if ("Children".equals(name)) {
+                    listKind = LIST_OBJECT_DATA;
+                    ((ObjectData) target).setChildren(pushList(listKind, new ArrayList<ObjectData>()));
+                }
+                break;
+            case TIMELINE_ACTION:
+                if ("Timelines".equals(name)) {
+                    listKind = LIST_TIMELINE;
+                    ((CCTimelineActionData) target).setTimelines(pushList(listKind, new ArrayList<CCTimelineData>()));
+                }
+                break;
+            case TIMELINE:
+                if ("Frames".equals(name)) {
+                    listKind = LIST_TIMELINE_FRAME;
+                    ((CCTimelineData) target).setFrames(pushList(listKind, new ArrayList<CCTimelineFrame>()));
+                }
+                break;
+            case ANIMATION:
+                if ("actionlist".equals(name)) {
+                    listKind = LIST_ACTION;
+                    ((CCAnimation) target).setActionlist(pushList(listKind, new ArrayList<CCAction>()));
+                }
+                break;
+            case ACTION:
+                if ("actionnodelist".equals(name)) {
+                    listKind = LIST_ACTION_NODE;
+                    ((CCAction) target).setActionnodelist(pushList(listKind, new ArrayList<CCActionNode>()));
+                }
+                break;
+            case ACTION_NODE:
+                if ("actionframelist".equals(name)) {
+                    listKind = LIST_ACTION_FRAME;
+                    ((CCActionNode) target).setActionframelist(pushList(listKind, new ArrayList<CCActionFrame>()));
+                }
+                break;
+            case ACTION_FRAME:
+                if ("tweenParameter".equals(name)) {
+                    listKind = LIST_FLOAT;
+                    ((CCActionFrame) target).setTweenParameter(pushList(listKind, new ArrayList<Float>()));
+                }
+                break;
+            default:
+                break;
+        }
+        if (listKind == SKIP) {
+            push(SKIP, null);
+        }
+    }
+
+    @Override
+    protected void pop() {
+        kinds.pop();
+        targets.pop();
+    }
+
+    @Override
+    protected void string(String name, String value) {
+        valueType = VALUE_STRING;
+        text = value;
+        value(name);
+    }
+
+    @Override
+    protected void number(String name, double value, String stringValue) {
+        valueType = VALUE_NUMBER;
+        number = value;
+        text = stringValue;
+        value(name);
+    }
+
+    @Override
+    protected void number(String name, long value, String stringValue) {
+        valueType = VALUE_NUMBER;
+        number = value;
+        text = stringValue;
+        value(name);
+    }
+
+    @Override
+    protected void bool(String name, boolean value) {
+        valueType = VALUE_BOOLEAN;
+        bool = value;
+        text = null;
+        value(name);
+    }
+
+    private void value(String name) {
+        if (kinds.size == 0) {
+            return;
+        }
+        Object target = targets.peek();
+        switch (kinds.peek()) {
+            case EXPORT:
+                exportField((CCExport) target, name);
+                break;
+            case OBJECT_DATA:
+                widgetField((ObjectData) target, name);
+                break;
+            case SIZE:
+                if ("X".equals(name)) {
+                    ((Size) target).setX(asFloat());
+                } else if ("Y".equals(name)) {
+                    ((Size) target).setY(asFloat());
+                }
+                break;
+            case SCALE:
+                if ("ScaleX".equals(name)) {
+                    ((Scale) target).setScaleX(asFloat());
+                } else if ("ScaleY".equals(name)) {
+                    ((Scale) target).setScaleY(asFloat());
+                }
+                break;
+            case COLOR:
+                if ("R".equals(name)) {
+                    ((CColor) target).setR(asInt());
+                } else if ("G".equals(name)) {
+                    ((CColor) target).setG(asInt());
+                } else if ("B".equals(name)) {
+                    ((CColor) target).setB(asInt());
+                }
+                break;
+            case FILE_DATA:
+                if ("Path".equals(name)) {
+                    ((FileData) target).setPath(asString());
+                } else if ("Type".equals(name)) {
+                    ((FileData) target).setType(asString());
+                }
+                break;
+            case INNER_NODE_SIZE:
+                // 与模型字段名保持一致
+                if ("Width".equals(name)) {
+                    ((InnerNodeSize) target).setWidth(asInt());
+                } else if ("height".equals(name)) {
+                    ((InnerNodeSize) target).setHeight(asInt());
+                }
+                break;
+            case TIMELINE_ACTION:
+                timelineActionField((CCTimelineActionData) target, name);
+                break;
+            case TIMELINE:
+                timelineField((CCTimelineData) target, name);
+                break;
+            case TIMELINE_FRAME:
+                timelineFrameField((CCTimelineFrame) target, name);
+                break;
+            case EASING:
+                if ("Type".equals(name)) {
+                    ((CCTimelineEasingData) target).setType(asInt());
+                }
+                break;
+            case ANIMATION:
+                if ("classname".equals(name)) {
+                    ((CCAnimation) target).setClassname(asString());
+                } else if ("name".equals(name)) {
+                    ((CCAnimation) target).setName(asString());
+                }
+                break;
+            case ACTION:
+                if ("classname".equals(name)) {
+                    ((CCAction) target).setClassname(asString());
+                } else if ("name".equals(name)) {
+                    ((CCAction) target).setName(asString());
+                }
+                break;
+            case ACTION_NODE:
+                actionNodeField((CCActionNode) target, name);
+                break;
+            case ACTION_FRAME:
+                actionFrameField((CCActionFrame) target, name);
+                break;
+            case LIST_STRING:
+                add(target, asString());
+                break;
+            case LIST_FLOAT:
+                add(target, asFloat());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void exportField(CCExport export, String name) {
+        switch (name) {
+            case "ID":
+                export.setID(asString());
+                break;
+            case "Version":
+                export.setVersion(asString());
+                break;
+            case "Type":
+                export.setType(asString());
+                break;
+            case "Name":
+                export.setName(asString());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void widgetField(ObjectData widget, String name) {
+        switch (name) {
+            case "Name":
+                widget.setName(asString());
+                break;
+            case "ctype":
+                widget.setCtype(asString());
+                break;
+            case "ActionTag":
+                widget.setActionTag(asInt());
+                break;
+            case "Tag":
+                widget.setTag(asInt());
+                break;
+            case "ZOrder":
+                widget.setZOrder(asInt());
+                break;
+            case "Alpha":
+                widget.setAlpha(asInt());
+                break;
+            case "Rotation":
+                widget.setRotation(asFloat());
+                break;
+            case "RotationSkewX":
+                widget.setRotationSkewX(asFloat());
+                break;
+            case "RotationSkewY":
+                widget.setRotationSkewY(asFloat());
+                break;
+            case "VisibleForFrame":
+                widget.setVisibleForFrame(asBoolean());
+                break;
+            case "TouchEnable":
+                widget.setTouchEnable(asBoolean());
+                break;
+            case "FlipX":
+                widget.setFlipX(asBoolean());
+                break;
+            case "FlipY":
+                widget.setFlipY(asBoolean());
+                break;
+            case "ClipAble":
+                widget.setClipAble(asBoolean());
+                break;
+            case "Scale9Enable":
+                widget.setScale9Enable(asBoolean());
+                break;
+            case "Scale9Width":
+                widget.setScale9Width(asInt());
+                break;
+            case "Scale9Height":
+                widget.setScale9Height(asInt());
+                break;
+            case "Scale9OriginX":
+                widget.setScale9OriginX(asInt());
+                break;
+            case "Scale9OriginY":
+                widget.setScale9OriginY(asInt());
+                break;
+            case "LeftMargin":
+                widget.setLeftMargin(asFloat());
+                break;
+            case "RightMargin":
+                widget.setRightMargin(asFloat());
+                break;
+            case "TopMargin":
+                widget.setTopMargin(asFloat());
+                break;
+            case "BottomMargin":
+                widget.setBottomMargin(asFloat());
+                break;
+            case "FontSize":
+                widget.setFontSize(asInt());
+                break;
+            case "LabelText":
+                widget.setLabelText(asString());
+                break;
+            case "ButtonText":
+                widget.setButtonText(asString());
+                break;
+            case "PlaceHolderText":
+                widget.setPlaceHolderText(asString());
+                break;
+            case "HorizontalAlignmentType":
+                widget.setHorizontalAlignmentType(asString());
+                break;
+            case "VerticalAlignmentType":
+                widget.setVerticalAlignmentType(asString());
+                break;
+            case "ComboBoxIndex":
+                widget.setComboBoxIndex(asInt());
+                break;
+            case "BackColorAlpha":
+                widget.setBackColorAlpha(asInt());
+                break;
+            case "ProgressInfo":
+                widget.setProgressInfo(asInt());
+                break;
+            case "ProgressType":
+                widget.setProgressType(asString());
+                break;
+            case "PercentInfo":
+                widget.setPercentInfo(asInt());
+                break;
+            case "CharWidth":
+                widget.setCharWidth(asInt());
+                break;
+            case "CharHeight":
+                widget.setCharHeight(asInt());
+                break;
+            case "StartChar":
+                widget.setStartChar(asString());
+                break;
+            case "MaxLengthEnable":
+                widget.setMaxLengthEnable(asBoolean());
+                break;
+            case "MaxLengthText":
+                widget.setMaxLengthText(asInt());
+                break;
+            case "PasswordEnable":
+                widget.setPasswordEnable(asBoolean());
+                break;
+            case "PasswordStyleText":
+                String password = asString();
+                if (password != null && password.length() > 0) {
+                    widget.setPasswordStyleText(password.charAt(0));
+                }
+                break;
+            case "DisplayState":
+                widget.setDisplayState(asBoolean());
+                break;
+            case "IsBounceEnabled":
+                widget.setIsBounceEnabled(asBoolean());
+                break;
+            case "ScrollDirectionType":
+                widget.setScrollDirectionType(asString());
+                break;
+            case "CallBackType":
+                widget.setCallBackType(asString());
+                break;
+            case "CallBackName":
+                widget.setCallBackName(asString());
+                break;
+            case "FrameEvent":
+                widget.setFrameEvent(asString());
+                break;
+            case "ButtonType":
+                widget.setButtonType(asString());
+                break;
+            case "isCustomSize":
+                widget.setIsCustomSize(asBoolean());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void timelineActionField(CCTimelineActionData data, String name) {
+        if ("Duration".equals(name)) {
+            data.setDuration(asFloat());
+        } else if ("Speed".equals(name)) {
+            data.setSpeed(asFloat());
+        } else if ("ctype".equals(name)) {
+            data.setCtype(asString());
+        }
+    }
+
+    private void timelineField(CCTimelineData timeline, String name) {
+        if ("ActionTag".equals(name)) {
+            timeline.setActionTag(asInt());
+        } else if ("Property".equals(name)) {
+            timeline.setProperty(asString());
+        } else if ("ctype".equals(name)) {
+            timeline.setCtype(asString());
+        }
+    }
+
+    private void timelineFrameField(CCTimelineFrame frame, String name) {
+        switch (name) {
+            case "X":
+                frame.setX(asFloat());
+                break;
+            case "Y":
+                frame.setY(asFloat());
+                break;
+            case "FrameIndex":
+                frame.setFrameIndex(asInt());
+                break;
+            case "ctype":
+                frame.setCtype(asString());
+                break;
+            case "Value":
+                frame.setValue(asBoolean());
+                break;
+            case "Tween":
+                frame.setTween(asBoolean());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void actionNodeField(CCActionNode node, String name) {
+        if ("classname".equals(name)) {
+            node.setClassname(asString());
+        } else if ("name".equals(name)) {
+            node.setName(asString());
+        } else if ("ActionTag".equals(name)) {
+            node.setActionTag(asInt());
+        }
+    }
+
+    private void actionFrameField(CCActionFrame frame, String name) {
+        switch (name) {
+            case "classname":
+                frame.setClassname(asString());
+                break;
+            case "name":
+                frame.setName(asString());
+                break;
+            case "frameid":
+                frame.setFrameid(asInt());
+                break;
+            case "colorb":
+                frame.setColorb(asInt());
+                break;
+            case "colorg":
+                frame.setColorg(asInt());
+                break;
+            case "colorr":
+                frame.setColorr(asInt());
+                break;
+            case "opacity":
+                frame.setOpacity(asInt());
+                break;
+            case "positionx":
+                frame.setPositionx(asFloat());
+                break;
+            case "positiony":
+                frame.setPositiony(asFloat());
+                break;
+            case "rotation":
+                frame.setRotation(asFloat());
+                break;
+            case "scalex":
+                frame.setScalex(asFloat());
+                break;
+            case "scaley":
+                frame.setScaley(asFloat());
+                break;
+            case "starttime":
+                frame.setStarttime(asString());
+                break;
+            case "tweenType":
+                frame.setTweenType(asInt());
+                break;
+            case "visible":
+                frame.setVisible(asBoolean());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void push(int kind, Object target) {
+        kinds.add(kind);
+        targets.add(target);
+    }
+
+    private <T> List<T> pushList(int kind, List<T> list) {
+        push(kind, list);
+        return list;
+    }
+
+    private Size pushSize() {
+        Size size = new Size();
+        push(SIZE, size);
+        return size;
+    }
+
+    private Scale pushScale() {
+        Scale scale = new Scale();
+        push(SCALE, scale);
+        return scale;
+    }
+
+    private CColor pushColor() {
+        CColor color = new CColor();
+        push(COLOR, color);
+        return color;
+    }
+
+    private FileData pushFileData() {
+        FileData fileData = new FileData();
+        push(FILE_DATA, fileData);
+        return fileData;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void add(Object list, Object value) {
+        ((List<Object>) list).add(value);
+    }
+
+    private String asString() {
+        if (valueType == VALUE_BOOLEAN) {
+            return String.valueOf(bool);
+        }
+        return text;
+    }
+
+    private float asFloat() {
+        if (valueType == VALUE_NUMBER) {
+            return (float) number;
+        }
+        if (valueType == VALUE_BOOLEAN) {
+            return bool ? 1 : 0;
+        }
+        return text == null ? 0 : Float.parseFloat(text);
+    }
+
+    private int asInt() {
+        if (valueType == VALUE_NUMBER) {
+            return (int) number;
+        }
+        if (valueType == VALUE_BOOLEAN) {
+            return bool ? 1 : 0;
+        }
+        return text == null ? 0 : (int) Float.parseFloat(text);
+    }
+
+    private boolean asBoolean() {
+        if (valueType == VALUE_NUMBER) {
+            return number != 0;
+        }
+        if (valueType == VALUE_BOOLEAN) {
+            return bool;
+        }
+        return "true".equalsIgnoreCase(text);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import net.mwplay.cocostudio.ui.CCResolutionTier;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 遍历导出文件用到的资源.回调中的路径与 CocoStudioUIEditor 查找资源时拼接的路径相同,
+ * 嵌套的导出文件不会自动遍历.
+ */
+abstract class CCExportVisitor {
+
+    /**
+     * 不为 null 时图片路径为该档位中的路径
+     */
+    CCResolutionTier tier;
+
+    void visit(CCExport export, String dirName) {
+        List<String> usedResources = export.getContent().getContent().getUsedResources();
+        if (usedResources != null) {
+            for (String name : usedResources) {
+                if (isImage(name)) {
+                    image(tier == null ? dirName + name : tier.resolve(dirName, name));
+                }
+            }
+        }
+        visit(export.getContent().getContent().getObjectData(), dirName);
+    }
+
+    void visit(ObjectData widget, String dirName) {
+        if (widget == null) {
+            return;
+        }
+        String ctype = widget.getCtype();
+        FileData fileData = widget.getFileData();
+        if ("ProjectNodeObjectData".equals(ctype)) {
+            if (fileData != null) {
+                export(dirName + fileData.getPath());
+            }
+        } else if ("ParticleObjectData".equals(ctype)) {
+            if (fileData != null) {
+                particle(dirName + fileData.getPath());
+            }
+        } else if ("TextBMFontObjectData".equals(ctype)) {
+            if (widget.getLabelBMFontFile_CNB() != null) {
+                bitmapFont(dirName + widget.getLabelBMFontFile_CNB().getPath());
+            }
+        } else if ("TextObjectData".equals(ctype)) {
+            font(widget, widget.getLabelText());
+        } else if ("TextFieldObjectData".equals(ctype)) {
+            font(widget, widget.getPlaceHolderText());
+        } else if ("ButtonObjectData".equals(ctype)) {
+            String text = widget.getButtonText();
+            if (text != null && !text.isEmpty()) {
+                font(widget, text);
+            }
+        }
+
+        if (widget.getChildren() != null) {
+            for (ObjectData child : widget.getChildren()) {
+                visit(child, dirName);
+            }
+        }
+    }
+
+    /**
+     * 与 CocoStudioUIEditor.createLabelStyle 查找ttf字体的方式相同
+     *
+     * @return 没有ttf字体时返回 null
+     */
+    static FileHandle findFontFile(ObjectData widget, Map<String, FileHandle> ttfs,
+                                   FileHandle defaultFont) {
+        FileHandle fontFile = null;
+        if (ttfs != null && widget.getFontResource() != null) {
+            fontFile = ttfs.get(widget.getFontResource().getPath());
+        }
+        if (fontFile == null) {
+            fontFile = defaultFont;
+        }
+        return fontFile;
+    }
+
+    static boolean isImage(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".jpg")
+            || lower.endsWith(".jpeg") || lower.endsWith(".bmp");
+    }
+
+    /**
+     * UsedResources 中的图片
+     */
+    void image(String path) {
+    }
+
+    /**
+     * 嵌套的导出文件
+     */
+    void export(String path) {
+    }
+
+    void particle(String path) {
+    }
+
+    /**
+     * .fnt 字体文件
+     */
+    void bitmapFont(String path) {
+    }
+
+    /**
+     * 使用ttf字体的控件
+     *
+     * @param text 需要光栅化的文字
+     */
+    void font(ObjectData widget, String text) {
+    }
+}
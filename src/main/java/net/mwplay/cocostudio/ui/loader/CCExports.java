@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import net.mwplay.cocostudio.ui.model.CCExport;
+
+/**
+ * CocoStudio导出文件的读取入口.
+ * 扩展名为 {@link #BINARY_EXTENSION} 的文件按二进制布局读取,其余按json读取.
+ */
+public final class CCExports {
+
+    /**
+     * 二进制布局文件的扩展名
+     */
+    public static final String BINARY_EXTENSION = "ccui";
+
+    private CCExports() {
+    }
+
+    public static CCExport read(FileHandle file) {
+        if (isBinary(file)) {
+            return new CCBinaryReader().read(file);
+        }
+        return new CCExportReader().read(file);
+    }
+
+    public static boolean isBinary(FileHandle file) {
+        return BINARY_EXTENSION.equalsIgnoreCase(file.extension());
+    }
+}
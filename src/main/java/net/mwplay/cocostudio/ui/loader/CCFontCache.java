@@ -0,0 +1,485 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker.Page;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntSet;
+
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+import net.mwplay.cocostudio.ui.util.FontUtil.PreparedFont;
+import net.mwplay.cocostudio.ui.util.StringUtil;
+import net.mwplay.nativefont.NativeFont;
+import net.mwplay.nativefont.NativeFontPaint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ttf字体缓存,每个 (字体文件, 字号, 颜色) 只有一个 BitmapFont,所有控件共用.
+ * 字体使用 FreeType 的增量模式,用到新字符时才光栅化,字形放在所有字体共用的纹理页中.
+ * 也可以放入工作线程中预先光栅化的字体,见 {@link #adopt(FileHandle, int, PreparedFont)}.
+ * 没有ttf字体时使用的 NativeFont 按字号共用.
+ * <p>
+ * 布局通过 {@link #retain(BitmapFont)}、{@link #release(BitmapFont)} 引用字体,
+ * 引用计数为 0 时释放字体,没有字体时释放共用的纹理页和不再使用的 FreeTypeFontGenerator.
+ * 缓存的字体不要自行 dispose.只能在GL线程调用
+ */
+public class CCFontCache {
+
+    static final int PAGE_SIZE = 1024;
+
+    /**
+     * 与 BitmapFontData.glyphs 的分页相同
+     */
+    private static final int LOG2_GLYPH_PAGE = 9;
+
+    private static final CCFontCache DEFAULT = new CCFontCache();
+
+    private static final int WHITE = Color.rgba8888(Color.WHITE);
+
+    private final Map<Key, Slot> slots = new HashMap<Key, Slot>();
+
+    /**
+     * 所有还未释放的字体,包括被替换的预先光栅化字体
+     */
+    private final Map<BitmapFont, Entry> entries = new IdentityHashMap<BitmapFont, Entry>();
+
+    /**
+     * 查找时复用,避免每次查找都创建键
+     */
+    private final Key lookup = new Key();
+
+    private PixmapPacker packer;
+
+    private int hits;
+    private int misses;
+    private int disposals;
+
+    /**
+     * CocoStudioUIEditor 使用的全局缓存
+     */
+    public static CCFontCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 取出共用的字体,并保证包含 text 中的字符.不增加引用计数
+     *
+     * @param color 写入字形的颜色,为 null 时为白色
+     * @return 字体文件无法加载时返回 null
+     */
+    public synchronized BitmapFont obtain(FileHandle fontFile, int size, Color color, CharSequence text) {
+        Slot slot = slots.get(lookup.set(fontFile, size, color));
+        if (slot != null) {
+            hits++;
+            return addGlyphs(slot.font, text);
+        }
+
+        misses++;
+        // 空格需要在生成时存在,增量模式下生成时还没有纹理区域
+        return generate(new Slot(new Key().set(fontFile, size, color)),
+            text == null ? " " : StringUtil.removeRepeatedChar(" " + text));
+    }
+
+    /**
+     * 取出字号共用的 NativeFont,并追加 text 中的字符.不增加引用计数
+     */
+    public synchronized NativeFont obtainNative(int size, CharSequence text) {
+        Slot slot = slots.get(lookup.set(null, size, null));
+        NativeFont font;
+        if (slot != null) {
+            hits++;
+            font = (NativeFont) slot.font;
+        } else {
+            misses++;
+            font = new NativeFont(new NativeFontPaint(size));
+            font.appendText(CocoStudioUIEditor.DEFAULT_CHARS);
+            slot = new Slot(new Key().set(null, size, null));
+            register(slot, font, new Entry(slot, null, null));
+        }
+        if (text != null) {
+            font.appendText(text.toString());
+        }
+        return font;
+    }
+
+    /**
+     * 放入工作线程中预先光栅化的字体,之后 obtain 相同的字体文件和字号(白色)时直接返回它.
+     * 预先光栅化的字体不能增量添加字形,缺少字符时换成增量生成的字体.
+     * 已有该字体时释放 prepared
+     *
+     * @return 缓存中的字体
+     */
+    public synchronized BitmapFont adopt(FileHandle fontFile, int size, PreparedFont prepared) {
+        Slot slot = slots.get(lookup.set(fontFile, size, null));
+        if (slot != null) {
+            prepared.dispose();
+            return slot.font;
+        }
+
+        misses++;
+        BitmapFont font = FontUtil.createFont(prepared);
+        slot = new Slot(new Key().set(fontFile, size, null));
+        register(slot, font, new Entry(slot, FontUtil.obtainGenerator(fontFile), prepared.getCharacters()));
+        return font;
+    }
+
+    private BitmapFont generate(Slot slot, String characters) {
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+        parameter.size = slot.key.size;
+        parameter.characters = characters;
+        if (slot.key.color != WHITE) {
+            parameter.color = new Color(slot.key.color);
+        }
+        parameter.incremental = true;
+        parameter.packer = getPacker();
+        FreeTypeFontGenerator generator = null;
+        BitmapFont font;
+        try {
+            generator = FontUtil.obtainGenerator(slot.key.file);
+            // 同一个字体文件的FreeType对象不能并发使用
+            synchronized (generator) {
+                font = generator.generateFont(parameter);
+            }
+        } catch (Exception e) {
+            if (generator != null) {
+                FontUtil.releaseGenerator(slot.key.file);
+            }
+            Gdx.app.error(CCFontCache.class.getName(), "无法生成字体: " + slot.key.file, e);
+            return null;
+        }
+        register(slot, font, new Entry(slot, generator, null));
+        return font;
+    }
+
+    /**
+     * 字体成为 slot 当前的字体,原来的字体保留到 slot 释放,仍在使用它的控件不受影响
+     */
+    private void register(Slot slot, BitmapFont font, Entry entry) {
+        entries.put(font, entry);
+        if (slot.font != null) {
+            slot.retired.add(slot.font);
+        }
+        slot.font = font;
+        slots.put(slot.key, slot);
+    }
+
+    /**
+     * 为缓存中的字体生成还没有的字形.已有的字符和字体文件中没有的字符不做任何事,也不分配内存
+     *
+     * @return 通常是 font 本身;预先光栅化的字体缺少字符时返回替换它的增量字体
+     */
+    public synchronized BitmapFont addGlyphs(BitmapFont font, CharSequence text) {
+        Entry entry = entries.get(font);
+        if (entry == null || text == null) {
+            return font;
+        }
+        // 预先光栅化的字体可能已被替换
+        font = entry.slot.font;
+        entry = entries.get(font);
+        if (entry.generator == null) {// NativeFont 由 TTFLabel 追加字符
+            return font;
+        }
+        if (entry.characters != null) {
+            if (hasGlyphs(font, text)) {
+                return font;
+            }
+            BitmapFont replacement = generate(entry.slot,
+                StringUtil.removeRepeatedChar(" " + entry.characters + text));
+            return replacement == null ? font : replacement;
+        }
+        BitmapFontData data = font.getData();
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char ch = text.charAt(i);
+            if (!hasGlyph(data, ch) && !entry.unsupported.contains(ch)) {
+                synchronized (entry.generator) {
+                    // 增量模式下 getGlyph 会生成并打包字形,纹理在下次排版时更新
+                    data.getGlyph(ch);
+                }
+                if (!hasGlyph(data, ch)) {
+                    entry.unsupported.add(ch);
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * 字体是否已有 text 中的全部字符,不触发增量生成
+     */
+    public static boolean hasGlyphs(BitmapFont font, CharSequence text) {
+        BitmapFontData data = font.getData();
+        for (int i = 0, n = text.length(); i < n; i++) {
+            if (!hasGlyph(data, text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 不触发增量生成
+     */
+    static boolean hasGlyph(BitmapFontData data, char ch) {
+        Glyph[] page = data.glyphs[ch >>> LOG2_GLYPH_PAGE];
+        return page != null && page[ch & (1 << LOG2_GLYPH_PAGE) - 1] != null;
+    }
+
+    public synchronized boolean contains(BitmapFont font) {
+        return entries.containsKey(font);
+    }
+
+    /**
+     * 增加字体的引用计数,替换前后的字体共用同一个计数
+     */
+    public synchronized void retain(BitmapFont font) {
+        Entry entry = entries.get(font);
+        if (entry != null) {
+            entry.slot.references++;
+        }
+    }
+
+    /**
+     * 减少引用计数,为 0 时释放字体
+     */
+    public synchronized void release(BitmapFont font) {
+        Entry entry = entries.get(font);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.slot.references <= 0) {
+            dispose(entry.slot);
+            disposeUnusedResources();
+        }
+    }
+
+    /**
+     * 释放没有布局引用的字体,直接 obtain 而没有 retain 的字体也会被释放
+     *
+     * @return 释放的字体数量
+     */
+    public synchronized int disposeUnused() {
+        List<Slot> unused = new ArrayList<Slot>();
+        for (Slot slot : slots.values()) {
+            if (slot.references <= 0) {
+                unused.add(slot);
+            }
+        }
+        for (Slot slot : unused) {
+            dispose(slot);
+        }
+        disposeUnusedResources();
+        return unused.size();
+    }
+
+    public synchronized int getReferences(BitmapFont font) {
+        Entry entry = entries.get(font);
+        return entry == null ? 0 : entry.slot.references;
+    }
+
+    private void dispose(Slot slot) {
+        slots.remove(slot.key);
+        disposeFont(slot.font);
+        for (BitmapFont font : slot.retired) {
+            disposeFont(font);
+        }
+        slot.retired.clear();
+        disposals++;
+    }
+
+    private void disposeFont(BitmapFont font) {
+        Entry entry = entries.remove(font);
+        // 共用纹理页的字体不拥有纹理,预先光栅化的字体和 NativeFont 释放自己的纹理
+        font.dispose();
+        if (entry.generator != null) {
+            FontUtil.releaseGenerator(entry.slot.key.file);
+        }
+    }
+
+    /**
+     * 没有字体时释放共用的纹理页,并释放没有被引用的 FreeTypeFontGenerator
+     */
+    private void disposeUnusedResources() {
+        if (slots.isEmpty() && packer != null) {
+            for (Page page : packer.getPages()) {
+                if (page.getTexture() != null) {
+                    page.getTexture().dispose();
+                }
+            }
+            packer.dispose();
+            packer = null;
+        }
+        FontUtil.disposeUnusedGenerators();
+    }
+
+    private PixmapPacker getPacker() {
+        if (packer == null) {
+            packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Format.RGBA8888, 1, false);
+        }
+        return packer;
+    }
+
+    /**
+     * 缓存的字体数量
+     */
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * 所有字体共用的纹理页数量
+     */
+    public synchronized int getPageCount() {
+        return packer == null ? 0 : packer.getPages().size;
+    }
+
+    /**
+     * 共用纹理页和预先光栅化字体的纹理估算占用的显存字节数,不含 NativeFont
+     */
+    public synchronized long getBytes() {
+        long bytes = (long) getPageCount() * PAGE_SIZE * PAGE_SIZE * 4;
+        for (Map.Entry<BitmapFont, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().characters != null) {
+                Array<TextureRegion> regions = entry.getKey().getRegions();
+                for (int i = 0; i < regions.size; i++) {
+                    Texture texture = regions.get(i).getTexture();
+                    bytes += (long) texture.getWidth() * texture.getHeight() * 4;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * 引用计数为 0 后被释放的字体数量
+     */
+    public synchronized int getDisposals() {
+        return disposals;
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        disposals = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CCFontCache{fonts=" + slots.size() + ", pages=" + getPageCount() + ", bytes=" + getBytes()
+            + ", generators=" + FontUtil.getGeneratorCount() + ", hits=" + hits + ", misses=" + misses
+            + ", disposals=" + disposals + "}";
+    }
+
+    /**
+     * 一个 (字体文件, 字号, 颜色) 的当前字体和引用计数
+     */
+    private static class Slot {
+        final Key key;
+        BitmapFont font;
+
+        /**
+         * 被替换的字体,仍可能被控件使用,随 slot 一起释放
+         */
+        final Array<BitmapFont> retired = new Array<BitmapFont>();
+
+        int references;
+
+        Slot(Key key) {
+            this.key = key;
+        }
+    }
+
+    private static class Entry {
+        final Slot slot;
+
+        /**
+         * NativeFont 为 null
+         */
+        final FreeTypeFontGenerator generator;
+
+        /**
+         * 预先光栅化的字体的字符,增量字体为 null
+         */
+        final String characters;
+
+        /**
+         * 字体文件中没有的字符,不再尝试生成
+         */
+        final IntSet unsupported = new IntSet();
+
+        Entry(Slot slot, FreeTypeFontGenerator generator, String characters) {
+            this.slot = slot;
+            this.generator = generator;
+            this.characters = characters;
+        }
+    }
+
+    /**
+     * file 为 null 时为 NativeFont
+     */
+    private static class Key {
+        FileHandle file;
+        int size;
+        int color;
+
+        Key set(FileHandle file, int size, Color color) {
+            this.file = file;
+            this.size = size;
+            this.color = color == null ? WHITE : Color.rgba8888(color);
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return size == key.size && color == key.color
+                && (file == null ? key.file == null : file.equals(key.file));
+        }
+
+        @Override
+        public int hashCode() {
+            return ((file == null ? 0 : file.hashCode()) * 31 + size) * 31 + color;
+        }
+    }
+}
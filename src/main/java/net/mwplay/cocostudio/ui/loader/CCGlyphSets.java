@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntSet;
+
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 布局用到的字符,按 (ttf字体文件, 字号) 合并.
+ * 创建控件前每个集合只光栅化一次,所有控件共用生成的字体,见 {@link CCFontCache}.
+ * 使用NativeFont的控件不统计
+ */
+public class CCGlyphSets {
+
+    private final Map<String, GlyphSet> sets = new LinkedHashMap<String, GlyphSet>();
+
+    /**
+     * 统计布局中所有ttf控件的字符
+     *
+     * @param includeNested 是否包含 ProjectNode 引用的嵌套布局
+     */
+    public static CCGlyphSets collect(FileHandle jsonFile, Map<String, FileHandle> ttfs,
+                                      FileHandle defaultFont, boolean includeNested) {
+        return collect(CCExportCache.getDefault().get(jsonFile), CocoStudioUIEditor.resolveDirName(jsonFile),
+            ttfs, defaultFont, includeNested);
+    }
+
+    /**
+     * @param dirName 资源路径相对的目录,见 {@link CocoStudioUIEditor#resolveDirName(FileHandle)}
+     */
+    public static CCGlyphSets collect(CCExport export, String dirName, Map<String, FileHandle> ttfs,
+                                      FileHandle defaultFont, boolean includeNested) {
+        CCGlyphSets glyphSets = new CCGlyphSets();
+        glyphSets.collect(export, dirName, ttfs, defaultFont, includeNested, new HashSet<String>());
+        return glyphSets;
+    }
+
+    private void collect(CCExport export, String dirName, Map<String, FileHandle> ttfs,
+                         FileHandle defaultFont, boolean includeNested, Set<String> visited) {
+        List<FileHandle> nested = new ArrayList<FileHandle>();
+        visitor(ttfs, defaultFont, includeNested ? nested : null).visit(export, dirName);
+        for (FileHandle file : nested) {
+            // 同一个布局被引用多次时只统计一次
+            if (visited.add(file.path())) {
+                collect(CCExportCache.getDefault().get(file), CocoStudioUIEditor.resolveDirName(file),
+                    ttfs, defaultFont, true, visited);
+            }
+        }
+    }
+
+    /**
+     * @param nested 不为 null 时放入遍历到的嵌套布局
+     */
+    CCExportVisitor visitor(final Map<String, FileHandle> ttfs, final FileHandle defaultFont,
+                            final List<FileHandle> nested) {
+        return new CCExportVisitor() {
+            @Override
+            void export(String path) {
+                if (nested != null) {
+                    nested.add(Gdx.files.internal(path));
+                }
+            }
+
+            @Override
+            void font(ObjectData widget, String text) {
+                FileHandle fontFile = findFontFile(widget, ttfs, defaultFont);
+                if (fontFile != null) {
+                    add(fontFile, widget.getFontSize(), text);
+                }
+            }
+        };
+    }
+
+    /**
+     * 加入一段文字,重复的字符只保留一个
+     */
+    public synchronized void add(FileHandle fontFile, int size, CharSequence text) {
+        String key = key(fontFile, size);
+        GlyphSet set = sets.get(key);
+        if (set == null) {
+            set = new GlyphSet(fontFile, size);
+            sets.put(key, set);
+        }
+        set.add(text);
+    }
+
+    /**
+     * @return 没有该字体时返回 null
+     */
+    public synchronized GlyphSet get(FileHandle fontFile, int size) {
+        return sets.get(key(fontFile, size));
+    }
+
+    public synchronized List<GlyphSet> getSets() {
+        return new ArrayList<GlyphSet>(sets.values());
+    }
+
+    /**
+     * 所有集合的字符总数
+     */
+    public synchronized int getCharCount() {
+        int count = 0;
+        for (GlyphSet set : sets.values()) {
+            count += set.chars.size;
+        }
+        return count;
+    }
+
+    static String key(FileHandle fontFile, int size) {
+        return size + ":" + CCPreparedResources.key(fontFile.path());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CCGlyphSets{sets=" + sets.size() + ", chars=" + getCharCount() + "}";
+    }
+
+    /**
+     * 一个字体文件和字号用到的字符
+     */
+    public static class GlyphSet {
+        private final FileHandle fontFile;
+        private final int size;
+        private final IntSet chars = new IntSet();
+        private final StringBuilder characters = new StringBuilder();
+
+        GlyphSet(FileHandle fontFile, int size) {
+            this.fontFile = fontFile;
+            this.size = size;
+        }
+
+        void add(CharSequence text) {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0, n = text.length(); i < n; i++) {
+                char ch = text.charAt(i);
+                if (chars.add(ch)) {
+                    characters.append(ch);
+                }
+            }
+        }
+
+        public FileHandle getFontFile() {
+            return fontFile;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * 不重复的字符,按第一次出现的顺序
+         */
+        public String getCharacters() {
+            return characters.toString();
+        }
+    }
+}
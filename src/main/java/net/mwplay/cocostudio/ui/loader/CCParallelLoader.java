@@ -0,0 +1,349 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+import net.mwplay.cocostudio.ui.CCResolutionTier;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.particleutil.CCParticleActor;
+import net.mwplay.cocostudio.ui.particleutil.LyU;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+import net.mwplay.cocostudio.ui.util.FontUtil.PreparedFont;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 两阶段加载.工作线程中解析导出文件、解码图片、光栅化ttf字形和解析粒子文件,
+ * GL线程中只上传纹理和创建控件.只用于小文件方式加载图片,合并纹理和 AssetManager 方式不受影响.
+ * <pre>
+ * CCParallelLoader loader = new CCParallelLoader();
+ * CCParallelLoader.Task task = loader.prepare(jsonFile, ttfs, bitmapFonts, defaultFont);
+ * // render 中
+ * if (task.isDone()) {
+ *     Group group = task.finish();
+ * }
+ * </pre>
+ * 准备失败的资源只记录日志,创建控件时会按原来的方式在GL线程加载.
+ */
+public class CCParallelLoader implements Disposable {
+
+    final String tag = CCParallelLoader.class.getName();
+
+    private final AsyncExecutor executor;
+
+    /**
+     * 线程数与CPU核数相同
+     */
+    public CCParallelLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CCParallelLoader(int threads) {
+        executor = new AsyncExecutor(Math.max(1, threads));
+    }
+
+    public Task prepare(FileHandle jsonFile) {
+        return prepare(jsonFile, null, null, null);
+    }
+
+    /**
+     * 开始在工作线程中准备资源,参数同 {@link CocoStudioUIEditor} 的构造方法
+     */
+    public Task prepare(FileHandle jsonFile, Map<String, FileHandle> ttfs,
+                        Map<String, BitmapFont> bitmapFonts, FileHandle defaultFont) {
+        return prepare(jsonFile, ttfs, bitmapFonts, defaultFont, null);
+    }
+
+    /**
+     * @param tier 图片的分辨率档位,为 null 时使用原图
+     */
+    public Task prepare(FileHandle jsonFile, Map<String, FileHandle> ttfs,
+                        Map<String, BitmapFont> bitmapFonts, FileHandle defaultFont, CCResolutionTier tier) {
+        Task task = new Task(jsonFile, ttfs, bitmapFonts, defaultFont);
+        task.tier = tier;
+        task.submitExport(jsonFile);
+        return task;
+    }
+
+    /**
+     * 在工作线程中并行解码布局和嵌套布局用到的图片,等待全部完成后返回.
+     * 结果交给编辑器后在GL线程中一次上传,见 {@link CocoStudioUIEditor#setParallelLoader(CCParallelLoader)}
+     */
+    public CCPreparedResources decodeImages(CCExport export, String dirName) {
+        return decodeImages(export, dirName, null);
+    }
+
+    /**
+     * 解码分辨率档位中的图片,没有该档位文件的图片解码原图
+     */
+    public CCPreparedResources decodeImages(CCExport export, String dirName, CCResolutionTier tier) {
+        Task task = new Task(null, null, null, null);
+        task.imagesOnly = true;
+        task.tier = tier;
+        task.visit(export, dirName);
+        task.await();
+        return task.resources;
+    }
+
+    /**
+     * 关闭工作线程
+     */
+    @Override
+    public void dispose() {
+        executor.dispose();
+    }
+
+    /**
+     * 一次加载任务
+     */
+    public class Task {
+        final FileHandle jsonFile;
+        final Map<String, FileHandle> ttfs;
+        final Map<String, BitmapFont> bitmapFonts;
+        final FileHandle defaultFont;
+        final CCPreparedResources resources = new CCPreparedResources();
+
+        /**
+         * 已经提交的文件,同一个文件只处理一次
+         */
+        private final Set<String> submitted = new HashSet<String>();
+        private int total;
+        private int done;
+
+        /**
+         * 还未遍历完的导出文件,都遍历完后才知道每个字体需要的全部字符
+         */
+        private int pendingExports;
+
+        /**
+         * 布局和嵌套布局用到的字符
+         */
+        final CCGlyphSets glyphSets = new CCGlyphSets();
+
+        /**
+         * 只解码图片,字体和粒子仍在创建控件时加载
+         */
+        boolean imagesOnly;
+
+        CCResolutionTier tier;
+
+        private CocoStudioUIEditor editor;
+
+        Task(FileHandle jsonFile, Map<String, FileHandle> ttfs,
+             Map<String, BitmapFont> bitmapFonts, FileHandle defaultFont) {
+            this.jsonFile = jsonFile;
+            this.ttfs = ttfs;
+            this.bitmapFonts = bitmapFonts;
+            this.defaultFont = defaultFont;
+        }
+
+        /**
+         * 工作线程是否都已完成
+         */
+        public synchronized boolean isDone() {
+            return done == total;
+        }
+
+        /**
+         * 已完成的比例,导出文件解析完之前总数还会增加
+         */
+        public synchronized float getProgress() {
+            return total == 0 ? 1 : done / (float) total;
+        }
+
+        /**
+         * 在GL线程中创建控件,工作线程未完成时会等待.
+         * 没有用到的预解码资源会被释放,布局不再使用时调用 getEditor().dispose() 释放纹理.
+         */
+        public Group finish() {
+            await();
+            if (editor == null) {
+                editor = new CocoStudioUIEditor(jsonFile, ttfs, bitmapFonts, defaultFont, null);
+                editor.setPrepared(resources);
+                editor.setResolutionTier(tier);
+                if (!imagesOnly) {
+                    editor.setGlyphSets(glyphSets);
+                }
+            }
+            Group group = editor.createGroup();
+            resources.disposeUnused();
+            return group;
+        }
+
+        synchronized void await() {
+            while (done < total) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new GdxRuntimeException(e);
+                }
+            }
+        }
+
+        /**
+         * finish 之后可用
+         */
+        public CocoStudioUIEditor getEditor() {
+            return editor;
+        }
+
+        public CCPreparedResources getResources() {
+            return resources;
+        }
+
+        /**
+         * @param key 需要去重时传入文件路径,否则为 null
+         */
+        private void submit(final String key, final AsyncTask<Void> job) {
+            synchronized (this) {
+                if (key != null && !submitted.add(key)) {
+                    return;
+                }
+                total++;
+            }
+            executor.submit(new AsyncTask<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        job.call();
+                    } catch (Exception e) {
+                        Gdx.app.error(tag, "预加载失败: " + (key == null ? "" : key), e);
+                    } finally {
+                        synchronized (Task.this) {
+                            done++;
+                            Task.this.notifyAll();
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+
+        void submitExport(final FileHandle file) {
+            synchronized (this) {
+                if (!submitted.add(file.path())) {
+                    return;
+                }
+                pendingExports++;
+            }
+            submit(null, new AsyncTask<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        visit(CCExportCache.getDefault().get(file), CocoStudioUIEditor.resolveDirName(file));
+                    } finally {
+                        exportVisited();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        /**
+         * 最后一个导出文件遍历完后,每个 (字体文件, 字号) 提交一次光栅化
+         */
+        void exportVisited() {
+            synchronized (this) {
+                if (--pendingExports > 0) {
+                    return;
+                }
+            }
+            if (imagesOnly) {
+                return;
+            }
+            for (final CCGlyphSets.GlyphSet set : glyphSets.getSets()) {
+                submit(null, new AsyncTask<Void>() {
+                    @Override
+                    public Void call() {
+                        PreparedFont font = FontUtil.prepareFont(set.getFontFile(), set.getCharacters(),
+                            set.getSize());
+                        if (font != null) {
+                            resources.putFont(set.getFontFile(), set.getSize(), font);
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+
+        void visit(CCExport export, String dirName) {
+            CCExportVisitor visitor = new CCExportVisitor() {
+                @Override
+                void image(String path) {
+                    submitImage(Gdx.files.internal(path));
+                }
+
+                @Override
+                void export(String path) {
+                    submitExport(Gdx.files.internal(path));
+                }
+
+                @Override
+                void particle(String path) {
+                    if (!imagesOnly) {
+                        submitParticle(Gdx.files.internal(path));
+                    }
+                }
+
+                @Override
+                void font(ObjectData widget, String text) {
+                    FileHandle fontFile = findFontFile(widget, ttfs, defaultFont);
+                    if (!imagesOnly && fontFile != null) {// 使用NativeFont时不需要预先光栅化
+                        glyphSets.add(fontFile, widget.getFontSize(), text);
+                    }
+                }
+            };
+            visitor.tier = tier;
+            visitor.visit(export, dirName);
+        }
+
+        void submitImage(final FileHandle file) {
+            submit(file.path(), new AsyncTask<Void>() {
+                @Override
+                public Void call() {
+                    resources.putPixmap(file, new Pixmap(file));
+                    return null;
+                }
+            });
+        }
+
+        void submitParticle(final FileHandle file) {
+            submit(file.path(), new AsyncTask<Void>() {
+                @Override
+                public Void call() {
+                    ObjectMap<String, Object> dictionary = LyU.createDictionaryWithContentsOfFile(file);
+                    resources.putParticle(file, dictionary,
+                        CCParticleActor.loadPixmap(dictionary, file.parent().path()));
+                    return null;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.mwplay.cocostudio.ui.util.FontUtil.PreparedFont;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 工作线程中预先解码好的资源,由 {@link CCParallelLoader} 填充.
+ * 编辑器创建控件时优先从这里取,GL线程只需上传纹理.
+ * 上传后的纹理交给 {@link CCTextureCache} 管理.
+ */
+public class CCPreparedResources implements Disposable {
+
+    /**
+     * k: 图片路径 v: 已解码,还未上传的纹理数据
+     */
+    private final Map<String, TextureData> textureData = new HashMap<String, TextureData>();
+
+    /**
+     * k: 字号:字体文件 v: 已光栅化的字体,见 {@link CCGlyphSets}
+     */
+    private final Map<String, PreparedFont> fonts = new HashMap<String, PreparedFont>();
+
+    private final Map<String, Particle> particles = new HashMap<String, Particle>();
+
+    /**
+     * 编辑器拼接的路径和 FileHandle 的路径分隔符可能不同
+     */
+    static String key(String path) {
+        return path.replace('\\', '/');
+    }
+
+    /**
+     * 放入工作线程中解码的图片,上传纹理时使用 FileTextureData,纹理仍可以从文件恢复
+     */
+    public synchronized void putPixmap(FileHandle file, Pixmap pixmap) {
+        String key = key(file.path());
+        if (textureData.containsKey(key)) {
+            pixmap.dispose();
+            return;
+        }
+        textureData.put(key, new FileTextureData(file, pixmap, null, false));
+    }
+
+    /**
+     * 取出预先解码的纹理数据,每个只能取一次
+     *
+     * @return 没有预先解码时返回 null
+     */
+    public synchronized TextureData takeTextureData(String path) {
+        return textureData.remove(key(path));
+    }
+
+    /**
+     * 还未取出的图片路径
+     */
+    public synchronized List<String> getTexturePaths() {
+        return new ArrayList<String>(textureData.keySet());
+    }
+
+    /**
+     * 放入一个字体文件和字号的全部字符光栅化后的字体
+     */
+    public synchronized void putFont(FileHandle fontFile, int size, PreparedFont font) {
+        PreparedFont old = fonts.put(CCGlyphSets.key(fontFile, size), font);
+        if (old != null) {
+            old.dispose();
+        }
+    }
+
+    /**
+     * 取出预先光栅化的字体,每个只能取一次
+     */
+    public synchronized PreparedFont takeFont(FileHandle fontFile, int size) {
+        return fonts.remove(CCGlyphSets.key(fontFile, size));
+    }
+
+    public synchronized void putParticle(FileHandle file, ObjectMap<String, Object> dictionary,
+                                         Pixmap pixmap) {
+        Particle old = particles.put(key(file.path()), new Particle(dictionary, pixmap));
+        if (old != null && old.pixmap != null) {
+            old.pixmap.dispose();
+        }
+    }
+
+    public synchronized Particle getParticle(String path) {
+        return particles.get(key(path));
+    }
+
+    /**
+     * 还未被使用的资源数量
+     */
+    public synchronized int getPendingCount() {
+        return textureData.size() + fonts.size() + particles.size();
+    }
+
+    /**
+     * 释放没有被使用的图片、字体和粒子数据
+     */
+    public synchronized void disposeUnused() {
+        for (TextureData data : textureData.values()) {
+            CCTextureCache.discard(data);
+        }
+        textureData.clear();
+        for (PreparedFont font : fonts.values()) {
+            font.dispose();
+        }
+        fonts.clear();
+        for (Particle particle : particles.values()) {
+            if (particle.pixmap != null) {
+                particle.pixmap.dispose();
+            }
+        }
+        particles.clear();
+    }
+
+    @Override
+    public void dispose() {
+        disposeUnused();
+    }
+
+    /**
+     * 解析好的粒子文件和它的纹理图片
+     */
+    public static class Particle {
+        public final ObjectMap<String, Object> dictionary;
+        public final Pixmap pixmap;
+
+        Particle(ObjectMap<String, Object> dictionary, Pixmap pixmap) {
+            this.dictionary = dictionary;
+            this.pixmap = pixmap;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 纹理显存预算.跟踪的布局不在 Stage 上时,超出预算后按最久未显示的顺序释放它们引用的纹理,
+ * 布局重新加到 Stage 上后自动重新上传.
+ * <p>
+ * 只管理 {@link CCTextureCache} 中小文件方式加载的纹理,被其他未跟踪的布局引用的纹理不会释放.
+ * 每帧在 stage.draw() 之前调用 {@link #update()},只能在GL线程使用.
+ */
+public class CCTextureBudget {
+
+    private final CCTextureCache cache;
+    private final List<Layout> layouts = new ArrayList<Layout>();
+    private long budget;
+    private long frame;
+
+    /**
+     * 上次释放后的占用,没有变化时不再重复查找可释放的纹理
+     */
+    private long settledBytes = -1;
+
+    public CCTextureBudget(long budget) {
+        this(CCTextureCache.getDefault(), budget);
+    }
+
+    public CCTextureBudget(CCTextureCache cache, long budget) {
+        this.cache = cache;
+        this.budget = budget;
+    }
+
+    /**
+     * 跟踪布局,root 为它创建的控件,任意一个在 Stage 上时布局视为显示中.可以多次调用添加多个实例
+     */
+    public void track(CocoStudioUIEditor editor, Actor root) {
+        Layout layout = find(editor);
+        if (layout == null) {
+            layout = new Layout(editor);
+            layouts.add(layout);
+        }
+        layout.roots.add(root);
+    }
+
+    public void track(CocosScene scene) {
+        track(scene.getEditor(), scene.getRoot());
+    }
+
+    /**
+     * 停止跟踪,布局 dispose 前调用
+     */
+    public void untrack(CocoStudioUIEditor editor) {
+        Layout layout = find(editor);
+        if (layout != null) {
+            restore(layout);
+            layouts.remove(layout);
+        }
+    }
+
+    /**
+     * 重新上传刚显示的布局的纹理,超出预算时释放不显示的布局的纹理
+     */
+    public void update() {
+        frame++;
+        boolean changed = false;
+        for (Layout layout : layouts) {
+            boolean attached = layout.isAttached();
+            if (attached) {
+                layout.lastAttached = frame;
+                if (!layout.attached) {
+                    restore(layout);
+                }
+            }
+            changed |= attached != layout.attached;
+            layout.attached = attached;
+        }
+        long bytes = cache.getBytes();
+        if (bytes > budget && (changed || bytes != settledBytes)) {
+            evict();
+            settledBytes = cache.getBytes();
+        }
+    }
+
+    private void restore(Layout layout) {
+        for (CocoStudioUIEditor editor : layout.editors()) {
+            for (String path : editor.getTexturePaths()) {
+                cache.restore(path);
+            }
+        }
+    }
+
+    private void evict() {
+        // 显示中的布局用到的纹理,和每个纹理被不显示的布局持有的引用数
+        Set<String> attachedPaths = new HashSet<String>();
+        ObjectIntMap<String> detachedReferences = new ObjectIntMap<String>();
+        List<Layout> detached = new ArrayList<Layout>();
+        for (Layout layout : layouts) {
+            if (!layout.attached) {
+                detached.add(layout);
+            }
+            for (CocoStudioUIEditor editor : layout.editors()) {
+                for (String path : editor.getTexturePaths()) {
+                    if (layout.attached) {
+                        attachedPaths.add(path);
+                    } else {
+                        detachedReferences.getAndIncrement(path, 0, 1);
+                    }
+                }
+            }
+        }
+        Collections.sort(detached, new Comparator<Layout>() {
+            @Override
+            public int compare(Layout o1, Layout o2) {
+                return o1.lastAttached < o2.lastAttached ? -1 : (o1.lastAttached == o2.lastAttached ? 0 : 1);
+            }
+        });
+
+        for (Layout layout : detached) {
+            for (CocoStudioUIEditor editor : layout.editors()) {
+                for (String path : editor.getTexturePaths()) {
+                    if (attachedPaths.contains(path)
+                        || detachedReferences.get(path, 0) != cache.getReferences(path)) {
+                        continue;
+                    }
+                    if (cache.evict(path) && cache.getBytes() <= budget) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 布局和嵌套布局引用的纹理当前占用的显存,被多个布局共用的纹理在每个布局中都计算
+     */
+    public long getUsage(CocoStudioUIEditor editor) {
+        Set<String> paths = new HashSet<String>();
+        Layout layout = find(editor);
+        List<CocoStudioUIEditor> editors = layout == null ? Layout.editors(editor) : layout.editors();
+        long usage = 0;
+        for (CocoStudioUIEditor each : editors) {
+            for (String path : each.getTexturePaths()) {
+                if (paths.add(CCPreparedResources.key(path)) && cache.isResident(path)) {
+                    usage += cache.getBytes(path);
+                }
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * 上次 {@link #update()} 时布局是否在 Stage 上
+     */
+    public boolean isAttached(CocoStudioUIEditor editor) {
+        Layout layout = find(editor);
+        return layout != null && layout.attached;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    public CCTextureCache getCache() {
+        return cache;
+    }
+
+    private Layout find(CocoStudioUIEditor editor) {
+        for (Layout layout : layouts) {
+            if (layout.editor == editor) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "CCTextureBudget{layouts=" + layouts.size() + ", budget=" + budget + ", bytes=" + cache.getBytes()
+            + "}";
+    }
+
+    private static class Layout {
+        final CocoStudioUIEditor editor;
+        final Array<Actor> roots = new Array<Actor>(1);
+        boolean attached;
+        long lastAttached;
+
+        Layout(CocoStudioUIEditor editor) {
+            this.editor = editor;
+        }
+
+        boolean isAttached() {
+            for (Actor root : roots) {
+                if (root.getStage() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<CocoStudioUIEditor> editors() {
+            return editors(editor);
+        }
+
+        static List<CocoStudioUIEditor> editors(CocoStudioUIEditor editor) {
+            List<CocoStudioUIEditor> editors = new ArrayList<CocoStudioUIEditor>();
+            collect(editor, editors);
+            return editors;
+        }
+
+        private static void collect(CocoStudioUIEditor editor, List<CocoStudioUIEditor> editors) {
+            editors.add(editor);
+            for (CocoStudioUIEditor nested : editor.getNestedEditors()) {
+                collect(nested, editors);
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 小文件方式加载图片时共用的纹理缓存,按路径缓存,引用计数为 0 时释放.
+ * 同一张图片被多个控件、多个布局使用时只创建一个纹理.
+ * 编辑器对用到的每张图片持有一个引用,在 CocoStudioUIEditor.dispose 时释放.
+ */
+public class CCTextureCache {
+
+    /**
+     * 单色、渐变背景共用的1x1白色纹理的路径
+     */
+    public static final String WHITE = "#white";
+
+    /**
+     * 渐进加载时占位用的1x1透明纹理的路径
+     */
+    public static final String CLEAR = "#clear";
+
+    private static final CCTextureCache DEFAULT = new CCTextureCache();
+
+    private final Map<String, Entry> textures = new HashMap<String, Entry>();
+
+    private long bytes;
+    private int hits;
+    private int misses;
+    private int evictions;
+    private int reloads;
+
+    /**
+     * CocoStudioUIEditor 使用的全局缓存
+     */
+    public static CCTextureCache getDefault() {
+        return DEFAULT;
+    }
+
+    public Texture obtain(String path) {
+        return obtain(path, null);
+    }
+
+    /**
+     * 取出纹理并增加引用计数,没有缓存时创建.只能在GL线程调用
+     *
+     * @param data 预先解码的纹理数据,可以为 null.已有缓存时会被释放
+     */
+    public synchronized Texture obtain(String path, TextureData data) {
+        String key = CCPreparedResources.key(path);
+        Entry entry = textures.get(key);
+        if (entry != null) {
+            hits++;
+            entry.references++;
+            if (data != null) {
+                discard(data);
+            }
+            if (entry.evicted) {
+                reload(entry);
+            }
+            return entry.texture;
+        }
+
+        misses++;
+        Texture texture = data == null ? new Texture(Gdx.files.internal(path)) : new Texture(data);
+        entry = new Entry(texture, sizeOf(texture));
+        textures.put(key, entry);
+        bytes += entry.bytes;
+        return texture;
+    }
+
+    /**
+     * 取出1x1白色纹理,用 {@link #release(String) release(WHITE)} 释放.只能在GL线程调用
+     */
+    public synchronized Texture obtainWhite() {
+        return obtainColor(WHITE, Color.WHITE);
+    }
+
+    /**
+     * 取出1x1透明纹理,用 {@link #release(String) release(CLEAR)} 释放.只能在GL线程调用
+     */
+    public synchronized Texture obtainClear() {
+        return obtainColor(CLEAR, Color.CLEAR);
+    }
+
+    private Texture obtainColor(String key, Color color) {
+        if (textures.containsKey(key)) {
+            return obtain(key, null);
+        }
+        Pixmap pixmap = new Pixmap(1, 1, Format.RGBA8888);
+        pixmap.setColor(color);
+        pixmap.fill();
+        return obtain(key, new PixmapTextureData(pixmap, null, false, true));
+    }
+
+    /**
+     * 减少引用计数,为 0 时释放纹理
+     */
+    public synchronized void release(String path) {
+        String key = CCPreparedResources.key(path);
+        Entry entry = textures.get(key);
+        if (entry == null) {
+            return;
+        }
+        entry.references--;
+        if (entry.references == 0) {
+            textures.remove(key);
+            if (!entry.evicted) {
+                bytes -= entry.bytes;
+            }
+            entry.texture.dispose();
+        }
+    }
+
+    /**
+     * 释放纹理占用的显存,纹理对象保持有效,{@link #restore(String)} 或再次 obtain 时重新从文件上传.
+     * 只能在GL线程调用
+     *
+     * @return 不能重新加载的纹理(如 {@link #WHITE})或已经释放时返回 false
+     */
+    public synchronized boolean evict(String path) {
+        Entry entry = textures.get(CCPreparedResources.key(path));
+        if (entry == null || entry.evicted || !entry.texture.getTextureData().isManaged()) {
+            return false;
+        }
+        Texture texture = entry.texture;
+        texture.bind();
+        // 保留纹理名,只把存储缩小到一个像素
+        Gdx.gl.glTexImage2D(texture.glTarget, 0, GL20.GL_RGBA, 1, 1, 0, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, null);
+        Gdx.gl.glBindTexture(texture.glTarget, 0);
+        entry.evicted = true;
+        bytes -= entry.bytes;
+        evictions++;
+        return true;
+    }
+
+    /**
+     * 重新上传被 {@link #evict(String)} 释放的纹理.只能在GL线程调用
+     *
+     * @return 纹理不存在或没有被释放时返回 false
+     */
+    public synchronized boolean restore(String path) {
+        Entry entry = textures.get(CCPreparedResources.key(path));
+        if (entry == null || !entry.evicted) {
+            return false;
+        }
+        reload(entry);
+        return true;
+    }
+
+    private void reload(Entry entry) {
+        entry.texture.load(entry.texture.getTextureData());
+        entry.evicted = false;
+        bytes += entry.bytes;
+        reloads++;
+    }
+
+    /**
+     * 纹理是否在显存中,没有缓存时返回 false
+     */
+    public synchronized boolean isResident(String path) {
+        Entry entry = textures.get(CCPreparedResources.key(path));
+        return entry != null && !entry.evicted;
+    }
+
+    /**
+     * 纹理在显存中时估算占用的字节数,没有缓存时返回 0
+     */
+    public synchronized long getBytes(String path) {
+        Entry entry = textures.get(CCPreparedResources.key(path));
+        return entry == null ? 0 : entry.bytes;
+    }
+
+    public synchronized boolean contains(String path) {
+        return textures.containsKey(CCPreparedResources.key(path));
+    }
+
+    public synchronized int getReferences(String path) {
+        Entry entry = textures.get(CCPreparedResources.key(path));
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * 存活的纹理数量
+     */
+    public synchronized int size() {
+        return textures.size();
+    }
+
+    /**
+     * 存活纹理估算占用的显存字节数,不含mipmap和被 {@link #evict(String)} 释放的纹理
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized int getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getReloads() {
+        return reloads;
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        reloads = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CCTextureCache{textures=" + textures.size() + ", bytes=" + bytes + ", hits=" + hits
+            + ", misses=" + misses + ", evictions=" + evictions + ", reloads=" + reloads + "}";
+    }
+
+    static long sizeOf(Texture texture) {
+        Format format = texture.getTextureData().getFormat();
+        int bytesPerPixel = 4;
+        if (format != null) {
+            switch (format) {
+                case Alpha:
+                case Intensity:
+                    bytesPerPixel = 1;
+                    break;
+                case LuminanceAlpha:
+                case RGB565:
+                case RGBA4444:
+                    bytesPerPixel = 2;
+                    break;
+                case RGB888:
+                    bytesPerPixel = 3;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return (long) texture.getWidth() * texture.getHeight() * bytesPerPixel;
+    }
+
+    /**
+     * 释放没有上传的纹理数据
+     */
+    static void discard(TextureData data) {
+        if (data.getType() != TextureData.TextureDataType.Pixmap) {
+            return;
+        }
+        if (!data.isPrepared()) {
+            data.prepare();
+        }
+        if (data.disposePixmap()) {
+            data.consumePixmap().dispose();
+        }
+    }
+
+    private static class Entry {
+        final Texture texture;
+        final long bytes;
+        int references = 1;
+        boolean evicted;
+
+        Entry(Texture texture, long bytes) {
+            this.texture = texture;
+            this.bytes = bytes;
+        }
+    }
+}
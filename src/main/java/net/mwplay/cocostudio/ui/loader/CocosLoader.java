@@ -22,12 +22,29 @@ import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 
+import net.mwplay.cocostudio.ui.CCResolutionTier;
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.particleutil.CCParticleActor;
+import net.mwplay.cocostudio.ui.particleutil.LyU;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+import net.mwplay.cocostudio.ui.util.FontUtil.PreparedFont;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * 通过 AssetManager 加载布局.每个布局只解析一次,图片、.fnt字体和嵌套的导出文件都声明为依赖,
+ * ttf字形和粒子文件在 loadAsync 中准备好,{@link CocosScene#getRoot(AssetManager)} 时不再读取文件.
+ */
 public class CocosLoader extends AsynchronousAssetLoader<CocosScene, CocosLoader.CocosParameter> {
 
     /**
@@ -39,39 +56,167 @@ public class CocosLoader extends AsynchronousAssetLoader<CocosScene, CocosLoader
         super(resolver);
     }
 
-    CocosScene cocosScene;
+    /**
+     * getDependencies 创建的编辑器,按文件名区分,多个布局同时加载时互不影响
+     */
+    private final Map<String, CocoStudioUIEditor> editors = new HashMap<String, CocoStudioUIEditor>();
+
+    /**
+     * loadAsync 中合并好的图片,见 {@link CocosParameter#packer}
+     */
+    private final Map<String, CCAtlasPacker.PackedAtlas> packedAtlases =
+        new HashMap<String, CCAtlasPacker.PackedAtlas>();
+
+    private CocoStudioUIEditor takeEditor(String fileName, FileHandle file, CocosParameter parameter) {
+        CocoStudioUIEditor editor;
+        synchronized (editors) {
+            editor = editors.get(fileName);
+        }
+        if (editor == null) {
+            editor = parameter == null
+                ? new CocoStudioUIEditor(file, null, null, null, null)
+                : new CocoStudioUIEditor(file, parameter.ttfs, null, parameter.defaultFont, null);
+            if (parameter != null) {
+                editor.setResolutionTier(parameter.tier);
+            }
+            synchronized (editors) {
+                editors.put(fileName, editor);
+            }
+        }
+        return editor;
+    }
 
     @Override
     public void loadAsync(AssetManager manager, String fileName, FileHandle file, CocosParameter parameter) {
-        CocoStudioUIEditor cocoStudioUIEditor = new CocoStudioUIEditor(file, null, null, null, null);
+        final CocoStudioUIEditor editor = takeEditor(fileName, file, parameter);
+        final CCPreparedResources prepared = new CCPreparedResources();
+        final Map<String, FileHandle> ttfs = parameter == null ? null : parameter.ttfs;
+        final FileHandle defaultFont = parameter == null ? null : parameter.defaultFont;
+        final CCGlyphSets glyphSets = new CCGlyphSets();
+
+        // 字形光栅化和粒子文件解析不需要GL
+        new CCExportVisitor() {
+            @Override
+            void particle(String path) {
+                FileHandle handle = resolve(path);
+                ObjectMap<String, Object> dictionary = LyU.createDictionaryWithContentsOfFile(handle);
+                prepared.putParticle(handle, dictionary,
+                    CCParticleActor.loadPixmap(dictionary, handle.parent().path()));
+            }
+
+            @Override
+            void font(ObjectData widget, String text) {
+                FileHandle fontFile = findFontFile(widget, ttfs, defaultFont);
+                if (fontFile != null) {
+                    glyphSets.add(fontFile, widget.getFontSize(), text);
+                }
+            }
+        }.visit(editor.getExport(), editor.getDirName());
+        // 嵌套的布局作为依赖单独加载,每个 (字体文件, 字号) 只光栅化一次
+        for (CCGlyphSets.GlyphSet set : glyphSets.getSets()) {
+            PreparedFont font = FontUtil.prepareFont(set.getFontFile(), set.getCharacters(), set.getSize());
+            if (font != null) {
+                prepared.putFont(set.getFontFile(), set.getSize(), font);
+            }
+        }
+        editor.setGlyphSets(glyphSets);
+        editor.setPrepared(prepared);
 
-        cocosScene = new CocosScene();
-        cocosScene.setEditor(cocoStudioUIEditor);
+        if (parameter != null && parameter.packer != null) {
+            // 嵌套的布局作为依赖单独合并
+            CCAtlasPacker.PackedAtlas packedAtlas = parameter.packer.prepare(file, false);
+            synchronized (packedAtlases) {
+                packedAtlases.put(fileName, packedAtlas);
+            }
+        }
     }
 
     @Override
     public CocosScene loadSync(AssetManager manager, String fileName, FileHandle file, CocosParameter parameter) {
-
-        if (cocosScene != null) {
-            return cocosScene;
+        CocoStudioUIEditor editor = takeEditor(fileName, file, parameter);
+        synchronized (editors) {
+            editors.remove(fileName);
         }
 
-        CocoStudioUIEditor cocoStudioUIEditor = new CocoStudioUIEditor(file, null, null, null, null);
         CocosScene cocosScene = new CocosScene();
-        cocosScene.setEditor(cocoStudioUIEditor);
+        cocosScene.setEditor(editor);
+
+        CCAtlasPacker.PackedAtlas packedAtlas;
+        synchronized (packedAtlases) {
+            packedAtlas = packedAtlases.remove(fileName);
+        }
+        if (packedAtlas != null) {
+            TextureAtlas atlas = packedAtlas.createAtlas();
+            editor.setTextureAtlas(Collections.singletonList(atlas));
+            // 合并的是原图,区域不需要缩放
+            editor.getRegionIndex().setScale(1);
+            cocosScene.setPackedAtlas(atlas);
+        }
         return cocosScene;
     }
 
     @Override
     public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, CocosParameter parameter) {
-        Array<AssetDescriptor> assetDescriptors = new Array<>();
-        List<String> list = CocoStudioUIEditor.getResources(file);
-        for (String name : list) {
-            assetDescriptors.add(new AssetDescriptor(CocoStudioUIEditor.dirName + name, Texture.class));
+        final CocoStudioUIEditor editor = takeEditor(fileName, file, parameter);
+        final Array<AssetDescriptor> assetDescriptors = new Array<>();
+        final Set<String> names = new HashSet<String>();
+        final CocosParameter nested = new CocosParameter();
+        if (parameter != null) {
+            nested.ttfs = parameter.ttfs;
+            nested.defaultFont = parameter.defaultFont;
+            nested.packer = parameter.packer;
+            nested.tier = parameter.tier;
         }
+        final boolean packImages = parameter != null && parameter.packer != null;
+
+        CCExportVisitor visitor = new CCExportVisitor() {
+            @Override
+            void image(String path) {
+                if (!packImages && names.add(path)) {
+                    assetDescriptors.add(new AssetDescriptor<Texture>(path, Texture.class));
+                }
+            }
+
+            @Override
+            void export(String path) {
+                if (names.add(path)) {
+                    assetDescriptors.add(new AssetDescriptor<CocosScene>(path, CocosScene.class, nested));
+                }
+            }
+
+            @Override
+            void bitmapFont(String path) {
+                if (names.add(path)) {
+                    assetDescriptors.add(new AssetDescriptor<BitmapFont>(path, BitmapFont.class));
+                }
+            }
+        };
+        visitor.tier = nested.tier;
+        visitor.visit(editor.getExport(), editor.getDirName());
         return assetDescriptors;
     }
 
     static public class CocosParameter extends AssetLoaderParameters<CocosScene> {
+        /**
+         * 字体文件集合,同 CocoStudioUIEditor 的构造参数
+         */
+        public Map<String, FileHandle> ttfs;
+
+        /**
+         * 默认ttf字体文件
+         */
+        public FileHandle defaultFont;
+
+        /**
+         * 不为 null 时在 loadAsync 中把布局用到的小图合并成图集,不再作为纹理依赖加载.
+         * 图集随 CocosScene.dispose 释放
+         */
+        public CCAtlasPacker packer;
+
+        /**
+         * 图片的分辨率档位,为 null 时使用原图,见 {@link CCResolutionTier#select(CCResolutionTier...)}.
+         * 运行时合并(packer)的图集仍使用原图
+         */
+        public CCResolutionTier tier;
     }
 }
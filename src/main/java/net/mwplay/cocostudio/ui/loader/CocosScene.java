@@ -16,8 +16,10 @@
 package net.mwplay.cocostudio.ui.loader;
 
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.scenes.scene2d.Group;
 
+import net.mwplay.cocostudio.ui.CCLayoutPool;
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
 public class CocosScene {
     private CocoStudioUIEditor editor;
@@ -28,9 +30,17 @@ public class CocosScene {
 
     private Group root;
 
+    /**
+     * CocosLoader 运行时合并的图集
+     */
+    private TextureAtlas packedAtlas;
+
     public Group getRoot(AssetManager assetManager) {
         if (root == null) {
             root = editor.createGroup(assetManager);
+            if (editor.getPrepared() != null) {
+                editor.getPrepared().disposeUnused();
+            }
         }
         return root;
     }
@@ -42,6 +52,15 @@ public class CocosScene {
         return root;
     }
 
+    /**
+     * 创建布局实例池,用于需要反复显示的界面
+     *
+     * @param max 池中最多保留的实例数
+     */
+    public CCLayoutPool createPool(int max) {
+        return new CCLayoutPool(editor, max);
+    }
+
     public void setRoot(Group root) {
         this.root = root;
     }
@@ -53,4 +72,24 @@ public class CocosScene {
     public CocoStudioUIEditor getEditor() {
         return editor;
     }
+
+    /**
+     * 释放布局引用的纹理、字体和运行时合并的图集.通过 AssetManager 加载的资源由 AssetManager 管理,不受影响
+     */
+    public void dispose() {
+        editor.dispose();
+        if (packedAtlas != null) {
+            packedAtlas.dispose();
+            packedAtlas = null;
+        }
+        root = null;
+    }
+
+    public TextureAtlas getPackedAtlas() {
+        return packedAtlas;
+    }
+
+    void setPackedAtlas(TextureAtlas packedAtlas) {
+        this.packedAtlas = packedAtlas;
+    }
 }
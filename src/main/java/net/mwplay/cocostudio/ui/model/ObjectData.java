@@ -119,6 +119,8 @@ public class ObjectData {
     int BackColorAlpha;
 
     CColor FirstColor;
+    CColor EndColor;
+    Scale ColorVector;
     int CharWidth;
     int CharHeight;
     String StartChar;
@@ -224,6 +226,22 @@ public class ObjectData {
         FirstColor = firstColor;
     }
 
+    public CColor getEndColor() {
+        return EndColor;
+    }
+
+    public void setEndColor(CColor endColor) {
+        EndColor = endColor;
+    }
+
+    public Scale getColorVector() {
+        return ColorVector;
+    }
+
+    public void setColorVector(Scale colorVector) {
+        ColorVector = colorVector;
+    }
+
     public FileData getBackGroundData() {
         return BackGroundData;
     }
@@ -560,6 +578,14 @@ public class ObjectData {
         ProgressInfo = progressInfo;
     }
 
+    public String getProgressType() {
+        return ProgressType;
+    }
+
+    public void setProgressType(String progressType) {
+        ProgressType = progressType;
+    }
+
     public Size getPrePosition() {
         return PrePosition;
     }
@@ -775,4 +801,20 @@ public class ObjectData {
     public String getStartChar() {
         return StartChar;
     }
+
+    public void setCharWidth(int charWidth) {
+        CharWidth = charWidth;
+    }
+
+    public void setCharHeight(int charHeight) {
+        CharHeight = charHeight;
+    }
+
+    public void setLabelAtlasFileImage_CNB(FileData labelAtlasFileImage_CNB) {
+        LabelAtlasFileImage_CNB = labelAtlasFileImage_CNB;
+    }
+
+    public void setStartChar(String startChar) {
+        StartChar = startChar;
+    }
 }
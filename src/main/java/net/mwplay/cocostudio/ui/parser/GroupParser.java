@@ -58,14 +58,7 @@ public abstract class GroupParser extends BaseWidgetParser {
             group.setTransform(true);
         }
 
-        for (ObjectData childrenWidget : widget.getChildren()) {
-            Actor childrenActor = editor.parseWidget(group, childrenWidget);
-            if (childrenActor == null) {
-                continue;
-            }
-            group.addActor(childrenActor);
-        }
-        sort(widget, group);
+        parseChildren(editor, widget, group);
 
         return group;
 
@@ -83,20 +83,21 @@ public abstract class WidgetParser extends BaseWidgetParser {
             table.setOrigin(anchorPoint.getScaleX() * table.getWidth(),
                 anchorPoint.getScaleY() * table.getHeight());
         }
-        for (ObjectData childrenWidget : widget.getChildren()) {
-            Actor childrenActor = editor.parseWidget(table, childrenWidget);
-            if (childrenActor == null) {
-                continue;
-            }
-            table.addActor(childrenActor);
-        }
-        sort(widget, table);
-
         // Widget的位置应该与Table重合.相当于Widget的属性被移植到了Table
         actor.setPosition(0, 0);
         actor.setScale(1, 1);
-        table.addActorAt(0, actor);
+        table.addActor(actor);
+
+        parseChildren(editor, widget, table);
         return table;
     }
 
+    @Override
+    protected void finishChildren(ObjectData widget, Group container) {
+        // 第一个子控件是Widget本身,排序时保持在最底层
+        Actor self = container.getChildren().removeIndex(0);
+        sort(widget, container);
+        container.getChildren().insert(0, self);
+    }
+
 }
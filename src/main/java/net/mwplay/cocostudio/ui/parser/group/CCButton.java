@@ -44,8 +44,7 @@ public class CCButton extends GroupParser {
         final Button button;
         //分开解决TextButton和ImageButton
         if (widget.getButtonText() != null && !widget.getButtonText().equals("")) {
-            BitmapFont bitmapFont = editor.createLabelStyleBitmapFint(widget, widget.getButtonText(), editor
-                    .getColor(widget.getTextColor(), widget.getAlpha()));
+            BitmapFont bitmapFont = editor.createLabelStyleBitmapFint(widget, widget.getButtonText());
 
             TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle(
                 editor.findDrawable(widget, widget.getNormalFileData()),
@@ -53,6 +52,8 @@ public class CCButton extends GroupParser {
                 null,
                 bitmapFont
             );
+            // 文字颜色通过着色实现,不同颜色的按钮共用字体
+            textButtonStyle.fontColor = editor.getColor(widget.getTextColor(), widget.getAlpha());
 
             button = new TextButton(widget.getButtonText(), textButtonStyle);
         } else {
@@ -15,23 +15,18 @@
  */
 package net.mwplay.cocostudio.ui.parser.group;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Pixmap.Format;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
 import net.mwplay.cocostudio.ui.model.ObjectData;
 import net.mwplay.cocostudio.ui.model.Size;
 import net.mwplay.cocostudio.ui.parser.GroupParser;
 
 /**
- * tip 还未支持单色背景属性, 背景图片在Cocostudio里面并不是铺满, 而是居中
+ * tip 背景图片在Cocostudio里面并不是铺满, 而是居中
  */
 public class CCPanel extends GroupParser {
 
@@ -45,22 +40,8 @@ public class CCPanel extends GroupParser {
         Table table = new Table();
 
         Size size = widget.getSize();
-        if (widget.getComboBoxIndex() == 0) { // 无颜色
-
-        } else if (widget.getComboBoxIndex() == 1 && widget.getBackColorAlpha() != 0) {// 单色
-            Pixmap pixmap = new Pixmap((int) size.getX(), (int) size.getY(),
-                Format.RGBA8888);
-
-            pixmap.setColor(editor.getColor(widget.getSingleColor(),
-                widget.getBackColorAlpha()));
-
-            pixmap.fill();
-
-            Drawable d = new TextureRegionDrawable(new TextureRegion(
-                new Texture(pixmap)));
-            table.setBackground(d);
-            pixmap.dispose();
-        }
+        // 单色或渐变
+        table.setBackground(editor.createBackground(widget, size.getX(), size.getY()));
 
         if (widget.getFileData() != null) {// Panel的图片并不是拉伸平铺的!!.但是这里修改为填充
             Drawable tr = editor.findDrawable(widget, widget.getFileData());
@@ -16,10 +16,12 @@
 package net.mwplay.cocostudio.ui.parser.group;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Group;
 
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.loader.CocosScene;
 import net.mwplay.cocostudio.ui.model.ObjectData;
 import net.mwplay.cocostudio.ui.parser.GroupParser;
 
@@ -35,9 +37,28 @@ public class CCProjectNode extends GroupParser {
             return new Group();
         }
 
+        String path = editor.getDirName() + widget.getFileData().getPath();
+        AssetManager assetManager = editor.getAssetManager();
+        if (assetManager != null && assetManager.isLoaded(path, CocosScene.class)) {
+            // 同一个布局可能被引用多次,每次都创建新的Group
+            return assetManager.get(path, CocosScene.class).getEditor().createGroup(assetManager);
+        }
+
         CocoStudioUIEditor cocoStudioUIEditor = new CocoStudioUIEditor(
-            Gdx.files.internal(editor.getDirName() + widget.getFileData().getPath()),
+            Gdx.files.internal(path),
             editor.getTtfs(), editor.getBitmapFonts(), editor.getDefaultFont(), editor.getTextureAtlas());
+        cocoStudioUIEditor.setPrepared(editor.getPrepared());
+        cocoStudioUIEditor.setTextureCache(editor.getTextureCache());
+        cocoStudioUIEditor.setFontCache(editor.getFontCache());
+        // 外层布局已统计并光栅化了嵌套布局的字符
+        cocoStudioUIEditor.setGlyphSets(editor.getGlyphSets());
+        cocoStudioUIEditor.setResolutionTier(editor.getResolutionTier());
+        cocoStudioUIEditor.setRegionIndex(editor.getRegionIndex());
+        editor.addNestedEditor(cocoStudioUIEditor);
+        if (editor.getProgressive() != null) {
+            cocoStudioUIEditor.setProgressive(editor.getProgressive());
+            return cocoStudioUIEditor.createGroup(assetManager);
+        }
         return cocoStudioUIEditor.createGroup();
     }
 }
@@ -15,18 +15,11 @@
  */
 package net.mwplay.cocostudio.ui.parser.group;
 
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Pixmap.Format;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
 import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane.ScrollPaneStyle;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
 import net.mwplay.cocostudio.ui.model.ObjectData;
 import net.mwplay.cocostudio.ui.parser.GroupParser;
@@ -68,26 +61,8 @@ public class CCScrollView extends GroupParser {
         table.setSize(widget.getInnerNodeSize().getWidth(), widget
             .getInnerNodeSize().getHeight());
 
-        if (widget.getComboBoxIndex() == 0) {// 无颜色
-
-        } else if (widget.getComboBoxIndex() == 1) {// 单色
-
-            Pixmap pixmap = new Pixmap((int) table.getWidth(),
-                (int) table.getHeight(), Format.RGBA8888);
-            Color color = editor.getColor(widget.getSingleColor(),
-                widget.getBackColorAlpha());
-
-            pixmap.setColor(color);
-
-            pixmap.fill();
-
-            Drawable drawable = new TextureRegionDrawable(new TextureRegion(
-                new Texture(pixmap)));
-
-            table.setBackground(drawable);
-            pixmap.dispose();
-
-        }
+        // 单色或渐变
+        table.setBackground(editor.createBackground(widget, table.getWidth(), table.getHeight()));
         scrollPane.setWidget(table);
         return scrollPane;
     }
@@ -96,23 +71,17 @@ public class CCScrollView extends GroupParser {
     public Group groupChildrenParse(CocoStudioUIEditor editor,
                                     ObjectData widget, Group parent, Actor actor) {
         ScrollPane scrollPane = (ScrollPane) actor;
-        Table table = new Table();
-        for (ObjectData childrenWidget : widget.getChildren()) {
-            Actor childrenActor = editor.parseWidget(table, childrenWidget);
-            if (childrenActor == null) {
-                continue;
-            }
-
-            table.setSize(Math.max(table.getWidth(), childrenActor.getRight()),
-                Math.max(table.getHeight(), childrenActor.getTop()));
-            table.addActor(childrenActor);
-        }
-        sort(widget, table);
-        //
-
-        scrollPane.setWidget(table);
+        Table table = (Table) scrollPane.getWidget();
+        parseChildren(editor, widget, table);
 
         return scrollPane;
     }
 
+    @Override
+    protected void attachChild(ObjectData widget, Group container, Actor child) {
+        container.setSize(Math.max(container.getWidth(), child.getRight()),
+            Math.max(container.getHeight(), child.getTop()));
+        container.addActor(child);
+    }
+
 }
@@ -36,13 +36,15 @@ public class CCLabelBMFont extends WidgetParser {
     @Override
     public Actor parse(CocoStudioUIEditor editor, ObjectData widget) {
         BitmapFont font = null;
-        if (editor.getBitmapFonts() != null) {
+        String path = editor.getDirName() + widget.getLabelBMFontFile_CNB().getPath();
+        if (editor.getAssetManager() != null && editor.getAssetManager().isLoaded(path, BitmapFont.class)) {
+            font = editor.getAssetManager().get(path, BitmapFont.class);
+        } else if (editor.getBitmapFonts() != null) {
             font = editor.getBitmapFonts().get(
                 widget.getLabelBMFontFile_CNB().getPath());
         }
         if (font == null) {// 备用创建字体方式
-            font = new BitmapFont(Gdx.files.internal(editor.getDirName()
-                + widget.getLabelBMFontFile_CNB().getPath()));
+            font = new BitmapFont(Gdx.files.internal(path));
         }
 
         if (font == null) {
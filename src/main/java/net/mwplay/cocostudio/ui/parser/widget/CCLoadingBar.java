@@ -37,7 +37,7 @@ public class CCLoadingBar extends WidgetParser {
             return new Image();
         }
 
-        TextureRegion textureRegion = editor.findTextureRegion(widget, widget.getImageFileData()
+        TextureRegion textureRegion = editor.findTextureRegionDeferred(widget, widget.getImageFileData()
                 .getPath());
         if (textureRegion == null) {
             return new Image();
@@ -18,6 +18,7 @@ package net.mwplay.cocostudio.ui.parser.widget;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.loader.CCPreparedResources;
 import net.mwplay.cocostudio.ui.parser.WidgetParser;
 import net.mwplay.cocostudio.ui.model.ObjectData;
 import net.mwplay.cocostudio.ui.particleutil.CCParticleActor;
@@ -30,8 +31,16 @@ public class CCParticle extends WidgetParser {
 
     @Override
     public Actor parse(CocoStudioUIEditor editor, ObjectData widget) {
-        CCParticleActor ccParticleActor = new CCParticleActor(editor.findParticePath(
-            widget.getFileData().getPath()));
+        String path = editor.findParticePath(widget.getFileData().getPath());
+        CCPreparedResources.Particle particle = editor.getPrepared() == null
+            ? null : editor.getPrepared().getParticle(path);
+
+        CCParticleActor ccParticleActor;
+        if (particle != null && particle.pixmap != null) {
+            ccParticleActor = new CCParticleActor(particle.dictionary, particle.pixmap);
+        } else {
+            ccParticleActor = new CCParticleActor(path);
+        }
         ccParticleActor.setBlendAdditive(true);
 
         return ccParticleActor;
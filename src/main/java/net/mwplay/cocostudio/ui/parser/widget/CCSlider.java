@@ -56,9 +56,10 @@ public class CCSlider extends GroupParser {
             editor.findTextureRegion(widget, widget.getProgressBarData().getPath()),
             editor.findTextureRegion(widget, widget.getBallNormalData().getPath()));
         slider.setValue(widget.getPercentInfo());*/
-        TSlider mySlider = new TSlider(0, 100, 1, false, editor.findTextureRegion(widget, widget.getBackGroundData().getPath()),
-            editor.findTextureRegion(widget, widget.getBallNormalData().getPath()),
-            editor.findTextureRegion(widget, widget.getProgressBarData().getPath()));
+        TSlider mySlider = new TSlider(0, 100, 1, false,
+            editor.findTextureRegionDeferred(widget, widget.getBackGroundData().getPath()),
+            editor.findTextureRegionDeferred(widget, widget.getBallNormalData().getPath()),
+            editor.findTextureRegionDeferred(widget, widget.getProgressBarData().getPath()));
         mySlider.setValue(widget.getPercentInfo());
         return mySlider;
     }
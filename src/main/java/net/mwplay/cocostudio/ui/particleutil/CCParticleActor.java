@@ -68,6 +68,14 @@ public class CCParticleActor extends Actor implements Disposable {
         initWithFileAndTexture(filePath, texture);
     }
 
+    /**
+     * 使用预先解析的粒子文件和解码好的图片创建,上传的纹理归本对象所有
+     */
+    public CCParticleActor(ObjectMap<String, Object> dictionary, Pixmap pixmap) {
+        initWithDictionary(dictionary, "", new Texture(pixmap));
+        ownesTexture = true;
+    }
+
     @Override
     public boolean remove() {
         if (super.remove()) {
@@ -214,30 +222,42 @@ public class CCParticleActor extends Actor implements Disposable {
             m_pTexture = texture;
         } else {
             ownesTexture = true;
-            String textureName = (String) dictionary.get("textureFileName");
-            FileHandle handle;
-            if ("".equals(dir)) {
-                handle = Gdx.files.internal(textureName);
-            } else {
-                handle = Gdx.files.internal(dir + "/" + textureName);
-            }
-            if (handle.exists() && !handle.isDirectory()) {
-                m_pTexture = new Texture(handle);
-            } else {
-                String textureData = new String(((String) dictionary.get("textureImageData")).getBytes(),
-                    Charset.forName("UTF-8"));
-                int dataLen = textureData.length();
-                if (dataLen > 0) {
-                    byte[] decodeData = Base64Coder.decode(textureData);
-                    byte[] imageData = LyU.unGzip(decodeData);
-                    Pixmap image = new Pixmap(imageData, 0, imageData.length);
-                    m_pTexture = new Texture(image);
-                    image.dispose();
-                }
+            Pixmap image = loadPixmap(dictionary, dir);
+            if (image != null) {
+                m_pTexture = new Texture(image);
+                image.dispose();
             }
         }
     }
 
+    /**
+     * 解码粒子文件使用的图片,优先读取textureFileName,没有时使用内嵌的textureImageData.
+     * 不创建纹理,可以在工作线程调用
+     *
+     * @return 没有图片时返回 null
+     */
+    public static Pixmap loadPixmap(ObjectMap<String, Object> dictionary, String dir) {
+        String textureName = (String) dictionary.get("textureFileName");
+        FileHandle handle;
+        if ("".equals(dir)) {
+            handle = Gdx.files.internal(textureName);
+        } else {
+            handle = Gdx.files.internal(dir + "/" + textureName);
+        }
+        if (handle.exists() && !handle.isDirectory()) {
+            return new Pixmap(handle);
+        }
+        String textureData = new String(((String) dictionary.get("textureImageData")).getBytes(),
+            Charset.forName("UTF-8"));
+        int dataLen = textureData.length();
+        if (dataLen > 0) {
+            byte[] decodeData = Base64Coder.decode(textureData);
+            byte[] imageData = LyU.unGzip(decodeData);
+            return new Pixmap(imageData, 0, imageData.length);
+        }
+        return null;
+    }
+
     public void initWithDictionary(ObjectMap<String, Object> dictionary, String dir) {
         initWithDictionary(dictionary, dir, null);
     }
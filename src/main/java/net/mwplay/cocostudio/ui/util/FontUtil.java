@@ -17,17 +17,90 @@ package net.mwplay.cocostudio.ui.util;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeBitmapFontData;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 public class FontUtil {
 
-    static FreeTypeFontGenerator generator;
-    static Map<FileHandle, FreeTypeFontGenerator> generators = new HashMap<FileHandle, FreeTypeFontGenerator>();
+    static final int PAGE_SIZE = 1024;
+
+    /**
+     * 所有线程共用,访问时需要加锁
+     */
+    static final Map<FileHandle, FreeTypeFontGenerator> generators = new HashMap<FileHandle, FreeTypeFontGenerator>();
+
+    /**
+     * k: 字体文件 v: 正在使用该 FreeTypeFontGenerator 的数量,与 generators 使用同一个锁
+     */
+    static final ObjectIntMap<FileHandle> references = new ObjectIntMap<FileHandle>();
+
+    /**
+     * 同一个字体文件共用的 FreeTypeFontGenerator,引用计数加一,使用时需要对它加锁.
+     * 不再使用时调用 {@link #releaseGenerator(FileHandle)}
+     */
+    public static FreeTypeFontGenerator obtainGenerator(FileHandle fontHandle) {
+        synchronized (generators) {
+            FreeTypeFontGenerator generator = generators.get(fontHandle);
+            if (generator == null) {
+                generator = new FreeTypeFontGenerator(fontHandle);
+                generators.put(fontHandle, generator);
+            }
+            references.getAndIncrement(fontHandle, 0, 1);
+            return generator;
+        }
+    }
+
+    /**
+     * 引用计数减一.计数为 0 的生成器仍然缓存,由 {@link #disposeUnusedGenerators()} 释放
+     */
+    public static void releaseGenerator(FileHandle fontHandle) {
+        synchronized (generators) {
+            if (references.getAndIncrement(fontHandle, 0, -1) <= 1) {
+                references.remove(fontHandle, 0);
+            }
+        }
+    }
+
+    /**
+     * 释放没有被引用的 FreeTypeFontGenerator
+     *
+     * @return 释放的数量
+     */
+    public static int disposeUnusedGenerators() {
+        int count = 0;
+        synchronized (generators) {
+            Iterator<Map.Entry<FileHandle, FreeTypeFontGenerator>> iterator = generators.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<FileHandle, FreeTypeFontGenerator> entry = iterator.next();
+                if (!references.containsKey(entry.getKey())) {
+                    entry.getValue().dispose();
+                    iterator.remove();
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 缓存中的 FreeTypeFontGenerator 数量
+     */
+    public static int getGeneratorCount() {
+        synchronized (generators) {
+            return generators.size();
+        }
+    }
 
     /**
      * 缓存FreeTypeFontGenerator 对性能有显著提升
@@ -45,14 +118,8 @@ public class FontUtil {
         }
 
         BitmapFont font = null;
-        // FreeTypeFontGenerator generator = null;
         try {
-
-            generator = generators.get(fontHandle);
-            if (generator == null) {
-                generator = new FreeTypeFontGenerator(fontHandle);
-                generators.put(fontHandle, generator);
-            }
+            FreeTypeFontGenerator generator = obtainGenerator(fontHandle);
 
             String newText = StringUtil.removeRepeatedChar(text);
 
@@ -60,7 +127,14 @@ public class FontUtil {
 
             parameter.size = fontSize;
             parameter.characters += newText;
-            font = generator.generateFont(parameter);
+            try {
+                // 同一个字体文件的FreeType对象不能并发使用
+                synchronized (generator) {
+                    font = generator.generateFont(parameter);
+                }
+            } finally {
+                releaseGenerator(fontHandle);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -71,6 +145,84 @@ public class FontUtil {
 
     }
 
+    /**
+     * 在工作线程中光栅化字形,只生成Pixmap,不创建纹理.
+     * 需要在GL线程中调用 {@link #createFont(PreparedFont)} 得到BitmapFont.
+     *
+     * @return 失败时返回 null
+     */
+    public static PreparedFont prepareFont(FileHandle fontHandle, String text, int fontSize) {
+        if (fontHandle == null) {
+            return null;
+        }
+
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+        parameter.size = fontSize;
+        if (text != null) {
+            parameter.characters += StringUtil.removeRepeatedChar(text);
+        }
+        // 使用自己的packer,generateData 就不会创建纹理
+        parameter.packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Format.RGBA8888, 1, false);
+
+        FreeTypeBitmapFontData data = new FreeTypeBitmapFontData();
+        try {
+            FreeTypeFontGenerator generator = obtainGenerator(fontHandle);
+            try {
+                // 同一个字体文件的FreeType对象不能并发使用
+                synchronized (generator) {
+                    generator.generateData(parameter, data);
+                }
+            } finally {
+                releaseGenerator(fontHandle);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            parameter.packer.dispose();
+            return null;
+        }
+        return new PreparedFont(parameter, data);
+    }
+
+    /**
+     * 把预先光栅化的字形上传为纹理,只能在GL线程调用
+     */
+    public static BitmapFont createFont(PreparedFont prepared) {
+        FreeTypeFontParameter parameter = prepared.parameter;
+        Array<TextureRegion> regions = new Array<TextureRegion>();
+        parameter.packer.updateTextureRegions(regions, parameter.minFilter,
+            parameter.magFilter, parameter.genMipMaps);
+        BitmapFont font = new BitmapFont(prepared.data, regions, true);
+        font.setOwnsTexture(true);
+        return font;
+    }
+
+    /**
+     * 已光栅化、还未上传纹理的字体
+     */
+    public static class PreparedFont {
+        final FreeTypeFontParameter parameter;
+        final FreeTypeBitmapFontData data;
+
+        PreparedFont(FreeTypeFontParameter parameter, FreeTypeBitmapFontData data) {
+            this.parameter = parameter;
+            this.data = data;
+        }
+
+        /**
+         * 光栅化时的字符
+         */
+        public String getCharacters() {
+            return parameter.characters;
+        }
+
+        /**
+         * 不再使用时释放Pixmap
+         */
+        public void dispose() {
+            parameter.packer.dispose();
+        }
+    }
+
     /**
      * 缓存FreeTypeFontGenerator 对性能有显著提升
      *
@@ -87,14 +239,8 @@ public class FontUtil {
         }
 
         BitmapFont font = null;
-        // FreeTypeFontGenerator generator = null;
         try {
-
-            generator = generators.get(fontHandle);
-            if (generator == null) {
-                generator = new FreeTypeFontGenerator(fontHandle);
-                generators.put(fontHandle, generator);
-            }
+            FreeTypeFontGenerator generator = obtainGenerator(fontHandle);
 
             String newText = StringUtil.removeRepeatedChar(text);
 
@@ -103,7 +249,14 @@ public class FontUtil {
             parameter.size = fontSize;
             parameter.characters += newText;
             parameter.color = color;
-            font = generator.generateFont(parameter);
+            try {
+                // 同一个字体文件的FreeType对象不能并发使用
+                synchronized (generator) {
+                    font = generator.generateFont(parameter);
+                }
+            } finally {
+                releaseGenerator(fontHandle);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
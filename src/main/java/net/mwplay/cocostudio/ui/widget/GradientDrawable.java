@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.widget;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
+
+/**
+ * 渐变背景,用顶点颜色给一个白色纹理区域上色,不需要额外的纹理.
+ * 颜色计算与 Cocos2d-x 的 LayerGradient 相同
+ */
+public class GradientDrawable extends BaseDrawable {
+
+    private static final float SQRT2 = (float) Math.sqrt(2);
+
+    private final TextureRegion region;
+    private final Color bottomLeft = new Color();
+    private final Color topLeft = new Color();
+    private final Color topRight = new Color();
+    private final Color bottomRight = new Color();
+    private final float[] vertices = new float[20];
+    private final Color tmp = new Color();
+
+    /**
+     * @param region 白色纹理区域
+     * @param start  起始颜色
+     * @param end    结束颜色
+     * @param vectorX 渐变方向
+     * @param vectorY 渐变方向
+     */
+    public GradientDrawable(TextureRegion region, Color start, Color end, float vectorX, float vectorY) {
+        this.region = region;
+        float length = (float) Math.sqrt(vectorX * vectorX + vectorY * vectorY);
+        float ux = 0;
+        float uy = 0;
+        if (length != 0) {
+            // 与 LayerGradient 的 compressedInterpolation 一致,保证两端颜色完整显示
+            float compressed = SQRT2 / (Math.abs(vectorX) + Math.abs(vectorY));
+            ux = vectorX * compressed;
+            uy = vectorY * compressed;
+        }
+        lerp(bottomLeft, start, end, (SQRT2 + ux + uy) / (2 * SQRT2));
+        lerp(bottomRight, start, end, (SQRT2 - ux + uy) / (2 * SQRT2));
+        lerp(topLeft, start, end, (SQRT2 + ux - uy) / (2 * SQRT2));
+        lerp(topRight, start, end, (SQRT2 - ux - uy) / (2 * SQRT2));
+    }
+
+    private static void lerp(Color target, Color start, Color end, float startWeight) {
+        target.set(end).lerp(start, startWeight);
+    }
+
+    public Color getBottomLeft() {
+        return bottomLeft;
+    }
+
+    public Color getTopLeft() {
+        return topLeft;
+    }
+
+    public Color getTopRight() {
+        return topRight;
+    }
+
+    public Color getBottomRight() {
+        return bottomRight;
+    }
+
+    @Override
+    public void draw(Batch batch, float x, float y, float width, float height) {
+        Color batchColor = batch.getColor();
+        // 取纹素中心,避免线性过滤采到边缘
+        float u = (region.getU() + region.getU2()) / 2;
+        float v = (region.getV() + region.getV2()) / 2;
+        vertex(0, x, y, bottomLeft, batchColor, u, v);
+        vertex(5, x, y + height, topLeft, batchColor, u, v);
+        vertex(10, x + width, y + height, topRight, batchColor, u, v);
+        vertex(15, x + width, y, bottomRight, batchColor, u, v);
+        batch.draw(region.getTexture(), vertices, 0, vertices.length);
+    }
+
+    private void vertex(int offset, float x, float y, Color color, Color batchColor, float u, float v) {
+        vertices[offset] = x;
+        vertices[offset + 1] = y;
+        vertices[offset + 2] = tmp.set(color).mul(batchColor).toFloatBits();
+        vertices[offset + 3] = u;
+        vertices[offset + 4] = v;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.widget;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * 低分辨率纹理上的区域,坐标和尺寸按布局的逻辑尺寸计算,纹理像素 = 逻辑尺寸 * scale.
+ * 控件、Drawable 和 SpriteBatch 看到的仍是原图的尺寸,见 {@link net.mwplay.cocostudio.ui.CCResolutionTier}
+ */
+public class ScaledTextureRegion extends TextureRegion {
+
+    private float scale;
+
+    /**
+     * 整张纹理
+     */
+    public ScaledTextureRegion(Texture texture, float scale) {
+        this.scale = scale;
+        setRegion(texture);
+    }
+
+    /**
+     * 与 region 相同的纹理坐标
+     */
+    public ScaledTextureRegion(TextureRegion region, float scale) {
+        this.scale = scale;
+        setRegion(region);
+    }
+
+    /**
+     * 坐标和尺寸为逻辑尺寸
+     */
+    public ScaledTextureRegion(Texture texture, float scale, int x, int y, int width, int height) {
+        this.scale = scale;
+        setTexture(texture);
+        setRegion(x, y, width, height);
+    }
+
+    /**
+     * 纹理像素相对逻辑尺寸的比例
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * 纹理坐标不变,只改变逻辑尺寸,替换纹理前使用
+     */
+    public void setScale(float scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * 普通区域为1
+     */
+    public static float scaleOf(TextureRegion region) {
+        return region instanceof ScaledTextureRegion ? ((ScaledTextureRegion) region).scale : 1;
+    }
+
+    /**
+     * 复制区域,保留逻辑尺寸
+     */
+    public static TextureRegion copy(TextureRegion region) {
+        if (region instanceof ScaledTextureRegion) {
+            return new ScaledTextureRegion(region, ((ScaledTextureRegion) region).scale);
+        }
+        return new TextureRegion(region);
+    }
+
+    @Override
+    public void setRegion(Texture texture) {
+        setTexture(texture);
+        setRegion(0f, 0f, 1f, 1f);
+    }
+
+    @Override
+    public void setRegion(int x, int y, int width, int height) {
+        super.setRegion(Math.round(x * scale), Math.round(y * scale),
+            Math.round(width * scale), Math.round(height * scale));
+    }
+
+    @Override
+    public int getRegionX() {
+        return Math.round(super.getRegionX() / scale);
+    }
+
+    @Override
+    public void setRegionX(int x) {
+        super.setRegionX(Math.round(x * scale));
+    }
+
+    @Override
+    public int getRegionY() {
+        return Math.round(super.getRegionY() / scale);
+    }
+
+    @Override
+    public void setRegionY(int y) {
+        super.setRegionY(Math.round(y * scale));
+    }
+
+    @Override
+    public int getRegionWidth() {
+        return Math.round(super.getRegionWidth() / scale);
+    }
+
+    @Override
+    public void setRegionWidth(int width) {
+        super.setRegionWidth(Math.round(width * scale));
+    }
+
+    @Override
+    public int getRegionHeight() {
+        return Math.round(super.getRegionHeight() / scale);
+    }
+
+    @Override
+    public void setRegionHeight(int height) {
+        super.setRegionHeight(Math.round(height * scale));
+    }
+
+    /**
+     * 按逻辑尺寸切分,切出的区域同样是逻辑尺寸
+     */
+    @Override
+    public TextureRegion[][] split(int tileWidth, int tileHeight) {
+        int x = getRegionX();
+        int y = getRegionY();
+        int rows = getRegionHeight() / tileHeight;
+        int cols = getRegionWidth() / tileWidth;
+
+        TextureRegion[][] tiles = new TextureRegion[rows][cols];
+        for (int row = 0; row < rows; row++, y += tileHeight) {
+            for (int col = 0; col < cols; col++) {
+                tiles[row][col] = new ScaledTextureRegion(getTexture(), scale,
+                    x + col * tileWidth, y, tileWidth, tileHeight);
+            }
+        }
+        return tiles;
+    }
+}
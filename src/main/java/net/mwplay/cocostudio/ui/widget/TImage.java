@@ -346,6 +346,11 @@ public class TImage extends Image {
     private Animation animation;
     private float stateTime;
     private boolean isPlaying;
+    /**
+     * 播放动画用的 Drawable.编辑器创建的 Drawable 被多个控件共用,不能修改;
+     * 渐进加载时也可能是占位的 Drawable,不是 TextureRegionDrawable
+     */
+    private TextureRegionDrawable frame;
 
     // 动画
     public void isAnimate(Animation ani) {
@@ -354,7 +359,8 @@ public class TImage extends Image {
         }
         this.animation = ani;
         isAnimate = true;
-        ((TextureRegionDrawable) getDrawable()).setRegion((TextureRegion) animation.getKeyFrame(0));
+        frame = new TextureRegionDrawable((TextureRegion) animation.getKeyFrame(0));
+        setDrawable(frame);
     }
 
     public void play() {
@@ -374,7 +380,7 @@ public class TImage extends Image {
     @Override
     public void act(float delta) {
         if (animation != null && isPlaying) {
-            ((TextureRegionDrawable) getDrawable()).setRegion((TextureRegion) animation.getKeyFrame(stateTime += delta, true));
+            frame.setRegion((TextureRegion) animation.getKeyFrame(stateTime += delta, true));
         }
         super.act(delta);
     }
@@ -15,6 +15,7 @@
  */
 package net.mwplay.cocostudio.ui.widget;
 
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -27,30 +28,65 @@ import net.mwplay.cocostudio.ui.model.Size;
  */
 public class TLoadingBar extends Actor {
     private int value = 100;
+    /**
+     * 完整的进度条图片,可能在之后被替换(如渐进加载的占位)
+     */
+    private TextureRegion source;
     private TextureRegion bar;
     private Size rect;
 
+    /**
+     * 复制 bar 时 source 的纹理和坐标,替换后需要重新复制
+     */
+    private Texture texture;
+    private float u, v, u2, v2;
+
     public TextureRegion getBar() {
         return bar;
     }
 
     public TLoadingBar(TextureRegion bar) {
-        this.bar = bar;
+        this.source = bar;
         rect = new Size();
-        rect.setX(bar.getRegionWidth());
-        rect.setY(bar.getRegionHeight());
+        copySource();
+    }
+
+    private void copySource() {
+        rect.setX(source.getRegionWidth());
+        rect.setY(source.getRegionHeight());
+        texture = source.getTexture();
+        u = source.getU();
+        v = source.getV();
+        u2 = source.getU2();
+        v2 = source.getV2();
+        bar = ScaledTextureRegion.copy(source);
+    }
+
+    /**
+     * 渐进加载的占位被替换时尺寸通常不变,纹理和坐标会变
+     */
+    private boolean sourceChanged() {
+        return rect.getX() != source.getRegionWidth() || rect.getY() != source.getRegionHeight()
+            || texture != source.getTexture() || u != source.getU() || v != source.getV()
+            || u2 != source.getU2() || v2 != source.getV2();
     }
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
+        if (sourceChanged()) {
+            copySource();
+            setValue(value);
+        }
         batch.draw(bar, getX(), getY(), getOriginX(), getOriginY(), bar.getRegionWidth(), bar.getRegionHeight(),
                 getScaleX(), getScaleY(), getRotation());
     }
 
     public void setValue(int value) {
         this.value = value;
-        bar.setRegion(0, 0, (int) (rect.getX() * value / 100f), (int)(rect.getY()));
+        bar.setRegion(source, 0, 0, (int) (rect.getX() * value / 100f), (int) (rect.getY()));
+        // 按像素设置区域会丢失翻转
+        bar.flip(source.isFlipX(), source.isFlipY());
     }
 
     public int getValue() {
@@ -30,8 +30,25 @@ public class TSlider extends Slider {
         TextureRegion background,
         TextureRegion knob,
         TextureRegion knobBefore) {
-        super(min, max, stepSize, vertical, new SliderStyle(new TextureRegionDrawable(background), new TextureRegionDrawable(knob)));
-        this.getStyle().knobBefore = new TextureRegionDrawable(knobBefore);
+        super(min, max, stepSize, vertical, new SliderStyle(drawable(background), drawable(knob)));
+        this.getStyle().knobBefore = drawable(knobBefore);
+    }
+
+    /**
+     * 最小尺寸随区域变化,区域被替换(如渐进加载的占位)后仍然正确
+     */
+    static TextureRegionDrawable drawable(TextureRegion region) {
+        return new TextureRegionDrawable(region) {
+            @Override
+            public float getMinWidth() {
+                return getRegion().getRegionWidth();
+            }
+
+            @Override
+            public float getMinHeight() {
+                return getRegion().getRegionHeight();
+            }
+        };
     }
 
     public TSlider(float min, float max, float stepSize, boolean vertical, Texture background, Texture knob, Texture knobBefore) {
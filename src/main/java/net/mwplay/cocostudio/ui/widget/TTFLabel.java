@@ -18,11 +18,11 @@ package net.mwplay.cocostudio.ui.widget;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 
-import net.mwplay.cocostudio.ui.util.FontUtil;
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
 import net.mwplay.nativefont.NativeFont;
 
 /**
- * 让Label支持TTF,使用ttf后Label的font不会发生变化,每次修改Text的时候重新创建font
+ * 让Label支持TTF.修改文字时只为没有的字符增量生成字形,字符都已存在时不做任何字体相关的工作
  */
 public class TTFLabel extends Label {
 
@@ -35,11 +35,15 @@ public class TTFLabel extends Label {
         LabelStyle style = getStyle();
         if (style.font instanceof NativeFont) {
             ((NativeFont) style.font).appendText(newText.toString());
-        } else {
-            style.font = createFont((TTFLabelStyle) style, "" + newText);
+            super.setStyle(style);
+        } else if (newText != null && style instanceof TTFLabelStyle) {
+            BitmapFont font = addGlyphs((TTFLabelStyle) style, newText);
+            if (font != style.font) {
+                style.font = font;
+                super.setStyle(style);
+            }
         }
 
-        super.setStyle(style);
         super.setText(newText);
     }
 
@@ -60,13 +64,34 @@ public class TTFLabel extends Label {
         if (ttfLabelStyle.font != null) {
             style.font = ttfLabelStyle.font;
         } else {
-            style.font = createFont(ttfLabelStyle, "" + getText());
+            style.font = obtainFont(ttfLabelStyle, getText());
         }
         super.setStyle(style);
     }
 
-    private BitmapFont createFont(TTFLabelStyle ttfStyle, String text) {
-        return FontUtil.createFont(ttfStyle.getFontFileHandle(), text,
-            ttfStyle.getFontSize());
+    /**
+     * @return 字体不能增量添加字形且缺少字符时返回共用字体,否则返回原来的字体
+     */
+    private BitmapFont addGlyphs(TTFLabelStyle ttfStyle, CharSequence text) {
+        CCFontCache fontCache = ttfStyle.getFontCache();
+        if (ttfStyle.getFontFileHandle() == null || fontCache == null) {
+            return ttfStyle.font;
+        }
+        if (fontCache.contains(ttfStyle.font)) {
+            return fontCache.addGlyphs(ttfStyle.font, text);
+        }
+        if (CCFontCache.hasGlyphs(ttfStyle.font, text)) {
+            return ttfStyle.font;
+        }
+        // 预先生成的字体不能添加字形,换成共用字体
+        return obtainFont(ttfStyle, text);
+    }
+
+    private BitmapFont obtainFont(TTFLabelStyle ttfStyle, CharSequence text) {
+        BitmapFont font = null;
+        if (ttfStyle.getFontFileHandle() != null && ttfStyle.getFontCache() != null) {
+            font = ttfStyle.getFontCache().obtain(ttfStyle.getFontFileHandle(), ttfStyle.getFontSize(), null, text);
+        }
+        return font == null ? new BitmapFont() : font;
     }
 }
@@ -18,12 +18,19 @@ package net.mwplay.cocostudio.ui.widget;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
+
 public class TTFLabelStyle extends LabelStyle {
 
     private FileHandle fontFileHandle;
 
     private int fontSize;
 
+    /**
+     * 修改文字时从这里增量添加字形
+     */
+    private CCFontCache fontCache = CCFontCache.getDefault();
+
     public TTFLabelStyle(LabelStyle labelStyle, FileHandle fontFileHandle,
                          int fontSize) {
         super(labelStyle);
@@ -47,4 +54,12 @@ public class TTFLabelStyle extends LabelStyle {
         this.fontFileHandle = fontFileHandle;
     }
 
+    public CCFontCache getFontCache() {
+        return fontCache;
+    }
+
+    public void setFontCache(CCFontCache fontCache) {
+        this.fontCache = fontCache;
+    }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCDrawableCacheTest {
+
+    @Test
+    public void shouldKeyByInsetsFlipAndColor() throws Exception {
+        CCDrawableCache cache = new CCDrawableCache();
+        ObjectData option = new ObjectData();
+        Drawable plain = new BaseDrawable();
+        cache.put(option, "a.png", 0, plain);
+
+        assertThat(cache.get(new ObjectData(), "a.png", 0), sameInstance(plain));
+        assertThat(cache.get(option, "b.png", 0), is(nullValue()));
+
+        ObjectData flipped = new ObjectData();
+        flipped.setFlipX(true);
+        assertThat(cache.get(flipped, "a.png", 0), is(nullValue()));
+
+        ObjectData scale9 = new ObjectData();
+        scale9.setScale9Enable(true);
+        scale9.setScale9Width(10);
+        Drawable patch = new BaseDrawable();
+        cache.put(scale9, "a.png", Color.rgba8888(Color.WHITE), patch);
+        assertThat(cache.get(scale9, "a.png", Color.rgba8888(Color.WHITE)), sameInstance(patch));
+        assertThat(cache.get(scale9, "a.png", Color.rgba8888(Color.RED)), is(nullValue()));
+        scale9.setScale9Width(12);
+        assertThat(cache.get(scale9, "a.png", Color.rgba8888(Color.WHITE)), is(nullValue()));
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getHits(), is(2));
+        assertThat(cache.getMisses(), is(4));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldShareDrawablesAcrossWidgetsAndInstances() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        ObjectData first = new ObjectData();
+        ObjectData second = new ObjectData();
+
+        Drawable drawable = editor.findDrawable(first, "LevelSelection/LS01.png");
+        assertThat(drawable, sameInstance(editor.findDrawable(second, "LevelSelection/LS01.png")));
+
+        second.setFlipY(true);
+        Drawable flipped = editor.findDrawable(second, "LevelSelection/LS01.png");
+        assertThat(flipped, not(sameInstance(drawable)));
+        assertThat(((TextureRegionDrawable) flipped).getRegion().isFlipY(), is(true));
+        assertThat(((TextureRegionDrawable) drawable).getRegion().isFlipY(), is(false));
+
+        editor.getDrawableCache().resetStats();
+        editor.createGroup();
+        int misses = editor.getDrawableCache().getMisses();
+        editor.createGroup();
+        assertThat(editor.getDrawableCache().getMisses(), is(misses));
+        assertThat(editor.getDrawableCache().getHitRate() > 0.5f, is(true));
+        editor.dispose();
+        assertThat(editor.getDrawableCache().size(), is(0));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCIncrementalBuilderTest {
+
+    @Test
+    @NeedGL
+    public void shouldBuildSameTreeAsCreateGroup() throws Exception {
+        String[] exports = {"nine/MainScene.json", "levelSelection/Layer.json", "mainMenu/MainMenu.json"};
+        for (String path : exports) {
+            Group expected = new CocoStudioUIEditor(Gdx.files.internal(path), null).createGroup();
+
+            CCIncrementalBuilder builder = new CocoStudioUIEditor(Gdx.files.internal(path), null)
+                .createGroupIncremental().setNodeBudget(1);
+            int updates = 0;
+            while (!builder.update()) {
+                updates++;
+            }
+
+            assertThat(path, updates >= builder.getTotal() - 1, is(true));
+            assertThat(path, builder.getBuilt(), is(builder.getTotal()));
+            assertThat(path, dump(builder.getRoot()), is(dump(expected)));
+        }
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReportProgressAndCompletion() throws Exception {
+        final int[] progress = {0};
+        final Group[] completed = {null};
+        CCIncrementalBuilder builder = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null)
+            .createGroupIncremental().setNodeBudget(3)
+            .setListener(new CCIncrementalBuilder.BuildListener() {
+                @Override
+                public void onProgress(int built, int total) {
+                    progress[0] = built;
+                }
+
+                @Override
+                public void onComplete(Group group) {
+                    completed[0] = group;
+                }
+            });
+
+        builder.update();
+        assertThat(progress[0], is(3));
+        assertThat(builder.getRoot(), nullValue());
+        assertThat(builder.getProgress() < 1, is(true));
+
+        Group stage = new Group();
+        stage.addAction(builder.action());
+        for (int i = 0; i < 1000 && !builder.isDone(); i++) {
+            stage.act(0.016f);
+        }
+        assertThat(builder.isDone(), is(true));
+        assertThat(completed[0], sameInstance(builder.getRoot()));
+        assertThat(stage.getActions().size, is(0));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReachFullProgressWithLazySubtrees() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        editor.addLazy("Panel_Page_1_2");
+        final int[] progress = {0, -1};
+        CCIncrementalBuilder builder = editor.createGroupIncremental().setNodeBudget(3)
+            .setListener(new CCIncrementalBuilder.BuildListener() {
+                @Override
+                public void onProgress(int built, int total) {
+                    progress[0] = built;
+                    progress[1] = total;
+                }
+
+                @Override
+                public void onComplete(Group group) {
+                }
+            });
+        while (!builder.update()) {
+            assertThat(builder.getProgress() < 1, is(true));
+        }
+
+        assertThat(editor.getLazyNodes().size, is(1));
+        assertThat(progress[0], is(progress[1]));
+        assertThat(builder.getProgress(), is(1f));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldExposeRootWhileBuilding() throws Exception {
+        CCIncrementalBuilder builder = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null)
+            .createGroupIncremental().setNodeBudget(2).setAttachWhileBuilding(true);
+
+        builder.update();
+        assertThat(builder.getRoot(), notNullValue());
+        assertThat(builder.isDone(), is(false));
+    }
+
+    private static String dump(Actor actor) {
+        StringBuilder builder = new StringBuilder();
+        dump(actor, builder);
+        return builder.toString();
+    }
+
+    private static void dump(Actor actor, StringBuilder builder) {
+        builder.append(actor.getClass().getSimpleName()).append(' ').append(actor.getName())
+            .append(' ').append(actor.getX()).append(',').append(actor.getY())
+            .append(' ').append(actor.getWidth()).append('x').append(actor.getHeight())
+            .append(' ').append(actor.getColor()).append(' ').append(actor.isVisible());
+        if (actor instanceof Group) {
+            builder.append('[');
+            for (Actor child : ((Group) actor).getChildren()) {
+                dump(child, builder);
+                builder.append(';');
+            }
+            builder.append(']');
+        }
+    }
+}
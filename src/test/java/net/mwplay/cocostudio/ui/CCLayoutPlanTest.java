@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCLayoutPlanTest {
+
+    @Test
+    @NeedGL
+    public void shouldBuildSameTreeAsUncompiledEditor() throws Exception {
+        String[] exports = {"nine/MainScene.json", "levelSelection/Layer.json", "animation/MainScene.json",
+            "slideBar/MainScene.json"};
+        for (String path : exports) {
+            CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal(path), null);
+            CocoStudioUIEditor compiled = new CocoStudioUIEditor(Gdx.files.internal(path), null);
+            compiled.compile();
+
+            assertThat(path, dump(compiled.createGroup()), is(dump(editor.createGroup())));
+            assertThat(path, dump(compiled.createGroup()), is(dump(editor.createGroup())));
+        }
+    }
+
+    @Test
+    @NeedGL
+    public void shouldPreResolveTransformsAndCallbacks() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        CocoStudioUIEditor compiled = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        // 两个编辑器共用缓存中的导出数据,测试后还原
+        List<ObjectData> children = editor.export.getContent().getContent().getObjectData().getChildren();
+        ObjectData click = children.get(0);
+        ObjectData touch = children.get(children.size() - 1);
+        try {
+            click.setCallBackType("Click");
+            click.setRotation(30);
+            touch.setCallBackType("Touch");
+            touch.setRotationSkewX(45);
+            touch.setRotationSkewY(45);
+            compiled.compile();
+
+            String expected = dump(editor.createGroup());
+            assertThat(dump(compiled.createGroup()), is(expected));
+        } finally {
+            click.setCallBackType(null);
+            click.setRotation(0);
+            touch.setCallBackType(null);
+            touch.setRotationSkewX(0);
+            touch.setRotationSkewY(0);
+        }
+    }
+
+    @Test
+    @NeedGL
+    public void shouldShareTexturesAcrossInstances() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        assertThat(editor.compile(), sameInstance(editor.compile()));
+        assertThat(editor.getPlan().size() > 0, is(true));
+
+        Group first = editor.createGroup();
+        Group second = editor.createGroup();
+
+        assertThat(second, not(sameInstance(first)));
+        Image image = findImage(first);
+        Image other = findImage(second);
+        assertThat(((TextureRegionDrawable) other.getDrawable()).getRegion().getTexture(),
+            sameInstance(((TextureRegionDrawable) image.getDrawable()).getRegion().getTexture()));
+    }
+
+    private static Image findImage(Group group) {
+        for (Actor actor : group.getChildren()) {
+            if (actor instanceof Image && ((Image) actor).getDrawable() instanceof TextureRegionDrawable) {
+                return (Image) actor;
+            }
+            if (actor instanceof Group) {
+                Image image = findImage((Group) actor);
+                if (image != null) {
+                    return image;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String dump(Actor actor) {
+        StringBuilder builder = new StringBuilder();
+        dump(actor, builder);
+        return builder.toString();
+    }
+
+    private static void dump(Actor actor, StringBuilder builder) {
+        builder.append(actor.getClass().getSimpleName()).append(' ').append(actor.getName())
+            .append(' ').append(actor.getX()).append(',').append(actor.getY())
+            .append(' ').append(actor.getWidth()).append('x').append(actor.getHeight())
+            .append(' ').append(actor.getOriginX()).append(',').append(actor.getOriginY())
+            .append(' ').append(actor.getScaleX()).append(',').append(actor.getScaleY())
+            .append(' ').append(actor.getRotation()).append(' ').append(actor.getColor())
+            .append(' ').append(actor.isVisible()).append(' ').append(actor.getTouchable())
+            .append(' ').append(actor.getActions().size).append(' ').append(actor.getListeners().size);
+        if (actor instanceof Group) {
+            builder.append('[');
+            for (Actor child : ((Group) actor).getChildren()) {
+                dump(child, builder);
+                builder.append(';');
+            }
+            builder.append(']');
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.scenes.scene2d.ui.Button;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.Slider;
+import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCLayoutPoolTest {
+
+    @Test
+    @NeedGL
+    public void shouldResetActorsWhenFreed() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("textField/MainScene.json"), null);
+        CCLayoutPool pool = new CCLayoutPool(editor, 2);
+
+        Group group = pool.obtain();
+        TextField field = group.findActor("TextField_1");
+        float x = field.getX();
+        Color color = new Color(field.getColor());
+        String text = field.getText();
+        int actions = field.getActions().size;
+
+        field.setX(x + 100);
+        field.setColor(Color.RED);
+        field.setVisible(false);
+        field.setText("changed");
+        field.addAction(Actions.fadeOut(1));
+        new Group().addActor(group);
+        pool.free(group);
+
+        assertThat(group.getParent() == null, is(true));
+        Group again = pool.obtain();
+        assertThat(again, sameInstance(group));
+        assertThat(field.getX(), is(x));
+        assertThat(field.getColor(), is(color));
+        assertThat(field.isVisible(), is(true));
+        assertThat(field.getText(), is(text));
+        assertThat(field.getActions().size, is(actions));
+        assertThat(pool.getCreated(), is(1));
+        assertThat(pool.getObtained(), is(2));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldRestartTimelineActions() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("animation/MainScene.json"), null);
+        CCLayoutPool pool = new CCLayoutPool(editor, 1);
+
+        Group group = pool.obtain();
+        Actor animated = findAnimated(group);
+        Action timeline = animated.getActions().first();
+        group.act(0.5f);
+        animated.clearActions();
+        pool.free(group);
+
+        assertThat(animated.getActions().size, is(1));
+        assertThat(animated.getActions().first(), sameInstance(timeline));
+        assertThat(timeline.getActor(), sameInstance(animated));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldRestoreWidgetValuesWithoutChangeEvents() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("slideBar/MainScene.json"), null);
+        CCLayoutPool pool = new CCLayoutPool(editor, 1);
+
+        Group group = pool.obtain();
+        Slider slider = group.findActor("Slider_1");
+        float value = slider.getValue();
+        slider.setAnimateDuration(1);
+        slider.setValue(value == 0 ? 50 : 0);
+        final int[] changes = {0};
+        slider.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                changes[0]++;
+            }
+        });
+        pool.free(group);
+
+        assertThat(changes[0], is(0));
+        assertThat(slider.getValue(), is(value));
+        assertThat(slider.getVisualValue(), is(value));
+        slider.setValue(value == 0 ? 50 : 0);
+        assertThat(changes[0], is(1));
+    }
+
+    @Test
+    public void shouldRestoreCheckedAndScrollSnapshot() throws Exception {
+        Button button = new Button(new Button.ButtonStyle());
+        final int[] changes = {0};
+        button.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                changes[0]++;
+            }
+        });
+        CCLayoutPool.ActorState buttonState = new CCLayoutPool.ActorState(button);
+        button.setChecked(true);
+        buttonState.restore();
+        assertThat(button.isChecked(), is(false));
+        assertThat(changes[0], is(1));
+
+        Actor content = new Actor();
+        content.setSize(500, 500);
+        ScrollPane scrollPane = new ScrollPane(content);
+        scrollPane.setSize(100, 100);
+        scrollPane.layout();
+        scrollPane.setScrollX(15);
+        scrollPane.setScrollY(25);
+        CCLayoutPool.ActorState scrollState = new CCLayoutPool.ActorState(scrollPane);
+        scrollPane.setScrollX(0);
+        scrollPane.setScrollY(0);
+        scrollState.restore();
+        assertThat(scrollPane.getScrollX(), is(15f));
+        assertThat(scrollPane.getScrollY(), is(25f));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldDiscardBeyondCapacity() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("textField/MainScene.json"), null);
+        CCLayoutPool pool = new CCLayoutPool(editor, 1);
+
+        Group first = pool.obtain();
+        Group second = pool.obtain();
+        assertThat(second, not(sameInstance(first)));
+        pool.free(first);
+        pool.free(second);
+
+        assertThat(pool.getFree(), is(1));
+        assertThat(pool.getFreed(), is(1));
+        assertThat(pool.getDiscarded(), is(1));
+        assertThat(editor.findActors("TextField_1").size, is(1));
+
+        pool.clear();
+        assertThat(pool.getFree(), is(0));
+        assertThat(pool.getDiscarded(), is(2));
+    }
+
+    private static Actor findAnimated(Actor actor) {
+        if (actor.getActions().size > 0) {
+            return actor;
+        }
+        if (actor instanceof Group) {
+            for (Actor child : ((Group) actor).getChildren()) {
+                Actor found = findAnimated(child);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCLazyNodeTest {
+
+    @Test
+    @NeedGL
+    public void shouldMaterializeOnFindActor() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        editor.addLazy("Panel_Page_1_2");
+        Group group = editor.createGroup();
+
+        assertThat(editor.getActors().get("Image_3"), nullValue());
+        assertThat(editor.getLazyNodes().size, is(1));
+        assertThat(group.findActor("Image_3"), nullValue());
+
+        assertThat(editor.findActor("Image_3"), notNullValue());
+        assertThat(editor.getLazyNodes().size, is(0));
+        assertThat(group.findActor("Image_3"), notNullValue());
+    }
+
+    @Test
+    @NeedGL
+    public void shouldMaterializeWhenVisible() throws Exception {
+        FileHandle hidden = Gdx.files.local("levelSelection/Hidden.json");
+        hidden.writeString(Gdx.files.internal("levelSelection/Layer.json").readString("utf-8")
+            .replace("\"Name\": \"Panel_Page_1_2\",", "\"Name\": \"Panel_Page_1_2\", \"VisibleForFrame\": false,"), false);
+        try {
+            CocoStudioUIEditor editor = new CocoStudioUIEditor(hidden, null);
+            editor.setLazyHidden(true);
+            Group group = editor.createGroup();
+            Group panel = group.findActor("Panel_Page_1_2");
+
+            group.act(0);
+            assertThat(editor.getLazyNodes().size, is(1));
+            assertThat(panel.getChildren().size, is(1));
+
+            panel.setVisible(true);
+            group.act(0);
+            assertThat(editor.getLazyNodes().size, is(0));
+            assertThat(panel.findActor("Image_2"), notNullValue());
+            assertThat(panel.findActor("Image_3"), notNullValue());
+        } finally {
+            hidden.delete();
+        }
+    }
+
+    @Test
+    @NeedGL
+    public void shouldDropDetachedPlaceholders() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        editor.addLazy("Panel_Page_1_2");
+        Group group = editor.createGroup();
+        Group panel = group.findActor("Panel_Page_1_2");
+        panel.clearChildren();
+
+        assertThat(editor.findActor("Image_3"), nullValue());
+        assertThat(editor.getLazyNodes().size, is(0));
+        assertThat(panel.getChildren().size, is(0));
+
+        editor.addLazy("Panel_Page_1_2");
+        Group other = editor.createGroup();
+        other.<Group>findActor("Panel_Page_1_2").getChildren().peek().remove();
+        editor.materializeAll();
+        assertThat(editor.getLazyNodes().size, is(0));
+    }
+}
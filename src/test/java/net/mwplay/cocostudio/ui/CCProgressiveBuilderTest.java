@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Slider;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.CCProgressiveBuilder.PlaceholderDrawable;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.parser.widget.CCTImageView;
+import net.mwplay.cocostudio.ui.widget.TImage;
+import net.mwplay.cocostudio.ui.widget.TLoadingBar;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(LibgdxRunner.class)
+public class CCProgressiveBuilderTest {
+
+    @Test
+    @NeedGL
+    public void shouldReturnPlaceholdersAndSwapInLoadedTextures() throws Exception {
+        AssetManager assetManager = new AssetManager();
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+
+        CCProgressiveBuilder builder = editor.createGroupProgressive(assetManager);
+        Group group = builder.getRoot();
+
+        Image image = group.findActor("Image_2");
+        assertThat(image.getDrawable(), is(instanceOf(PlaceholderDrawable.class)));
+        PlaceholderDrawable placeholder = (PlaceholderDrawable) image.getDrawable();
+        assertThat(placeholder.getDrawable(), is(nullValue()));
+        float width = image.getWidth();
+        assertTrue(builder.getPendingCount() > 0);
+        assertThat(builder.getProgress() < 1, is(true));
+
+        while (!builder.update()) {
+            Thread.sleep(1);
+        }
+
+        assertThat(builder.getProgress(), is(1f));
+        assertThat(placeholder.getDrawable(), is(instanceOf(TextureRegionDrawable.class)));
+        Texture texture = ((TextureRegionDrawable) placeholder.getDrawable()).getRegion().getTexture();
+        assertThat(texture, is(assetManager.get(editor.getDirName() + "LevelSelection/LS12.png", Texture.class)));
+        assertThat(image.getWidth(), is(width));
+
+        editor.dispose();
+        assetManager.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldAnimateTImageOnPlaceholder() throws Exception {
+        AssetManager assetManager = new AssetManager();
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        CCProgressiveBuilder builder = editor.createGroupProgressive(assetManager);
+
+        FileData fileData = new FileData();
+        fileData.setPath("LevelSelection/LS01.png");
+        ObjectData widget = new ObjectData();
+        widget.setFileData(fileData);
+        TImage image = (TImage) new CCTImageView().parse(editor, widget);
+        assertThat(image.getDrawable(), is(instanceOf(PlaceholderDrawable.class)));
+        image.act(1);
+
+        Texture texture = new Texture(Gdx.files.internal("levelSelection/LevelSelection/LS02.png"));
+        image.isAnimate(new Animation(0.1f, new TextureRegion(texture), new TextureRegion(texture)));
+        image.play();
+        image.act(0.15f);
+        assertThat(((TextureRegionDrawable) image.getDrawable()).getRegion().getTexture(), is(texture));
+
+        while (!builder.update()) {
+            Thread.sleep(1);
+        }
+        image.act(0.1f);
+        assertThat(((TextureRegionDrawable) image.getDrawable()).getRegion().getTexture(), is(texture));
+
+        texture.dispose();
+        editor.dispose();
+        assetManager.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReplaceSliderRegions() throws Exception {
+        AssetManager assetManager = new AssetManager();
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("slideBar/MainScene.json"), null);
+
+        CCProgressiveBuilder builder = editor.createGroupProgressive(assetManager);
+        Slider slider = findSlider(builder.getRoot());
+        assertThat(slider, notNullValue());
+        TextureRegionDrawable background = (TextureRegionDrawable) slider.getStyle().background;
+        assertThat(background.getRegion().getTexture().getWidth(), is(1));
+
+        while (!builder.update()) {
+            Thread.sleep(1);
+        }
+
+        Texture texture = background.getRegion().getTexture();
+        assertTrue(texture.getWidth() > 1);
+        assertThat(background.getMinWidth(), is((float) texture.getWidth()));
+        editor.dispose();
+        assetManager.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReplaceLoadingBarRegionOfSameSize() throws Exception {
+        AssetManager assetManager = new AssetManager();
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("loadingBar/MainScene.json"), null);
+
+        CCProgressiveBuilder builder = editor.createGroupProgressive(assetManager);
+        TLoadingBar loadingBar = builder.getRoot().findActor("LoadingBar_1");
+        Batch batch = mock(Batch.class);
+        loadingBar.draw(batch, 1);
+        assertThat(loadingBar.getBar().getTexture().getWidth(), is(1));
+
+        while (!builder.update()) {
+            Thread.sleep(1);
+        }
+
+        loadingBar.draw(batch, 1);
+        TextureRegion bar = loadingBar.getBar();
+        Texture texture = assetManager.get(editor.getDirName() + "Bar.png", Texture.class);
+        assertThat(bar.getTexture(), is(texture));
+        assertThat(bar.getRegionWidth(), is(texture.getWidth() / 2));
+        // 与同步加载一样水平翻转
+        assertThat(bar.isFlipX(), is(true));
+        editor.dispose();
+        assetManager.dispose();
+    }
+
+    private static Slider findSlider(Group group) {
+        for (Actor actor : group.getChildren()) {
+            if (actor instanceof Slider) {
+                return (Slider) actor;
+            }
+            if (actor instanceof Group) {
+                Slider slider = findSlider((Group) actor);
+                if (slider != null) {
+                    return slider;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCRegionIndexTest {
+
+    private static AtlasRegion addRegion(TextureAtlas atlas, Texture texture, String name, int index) {
+        AtlasRegion region = atlas.addRegion(name, texture, 0, 0, 1, 1);
+        region.index = index;
+        return region;
+    }
+
+    @Test
+    @NeedGL
+    public void shouldFindRegionsByExportPath() throws Exception {
+        Texture texture = new Texture(new Pixmap(2, 2, Pixmap.Format.RGBA8888));
+        TextureAtlas first = new TextureAtlas();
+        TextureAtlas second = new TextureAtlas();
+        AtlasRegion button = addRegion(first, texture, "button", -1);
+        AtlasRegion frame2 = addRegion(first, texture, "frame", 2);
+        AtlasRegion buttonCopy = addRegion(second, texture, "button", -1);
+        AtlasRegion bgTop = addRegion(second, texture, "bg_top", -1);
+        AtlasRegion deep = addRegion(second, texture, "sub/icon", -1);
+
+        CCRegionIndex index = new CCRegionIndex(Arrays.asList(first, null, second));
+
+        assertThat(index.find("Common/button.png"), sameInstance(button));
+        assertThat(index.find("button.png"), sameInstance(button));
+        assertThat(index.find("Common/frame_2.png"), sameInstance(frame2));
+        assertThat(index.find("Common/bg_top.png"), sameInstance(bgTop));
+        assertThat(index.find("Common/sub/icon.png"), sameInstance(deep));
+        assertThat(index.find("Common/frame_3.png"), nullValue());
+        assertThat(index.find("Common/missing.png"), nullValue());
+        assertThat(index.findRegion("button"), sameInstance(button));
+        assertThat(index.findRegion("button"), not(sameInstance(buttonCopy)));
+        assertThat(index.size(), is(4));
+    }
+
+    @Test
+    public void shouldParseIndexWithoutExceptions() throws Exception {
+        assertThat(CCRegionIndex.parseIndex("frame_12", 6), is(12));
+        assertThat(CCRegionIndex.parseIndex("bg_top", 3), is(-1));
+        assertThat(CCRegionIndex.parseIndex("frame_", 6), is(-1));
+        assertThat(CCRegionIndex.normalize("LevelSelection/LS01.png"), is("LS01"));
+        assertThat(CCRegionIndex.normalize("LS01.png"), is("LS01"));
+    }
+}
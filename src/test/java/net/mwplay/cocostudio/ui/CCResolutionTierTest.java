@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.utils.NinePatchDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.widget.ScaledTextureRegion;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCResolutionTierTest {
+
+    private static final CCResolutionTier LOW = new CCResolutionTier("@1x", 0.5f, 0);
+    private static final CCResolutionTier FULL = new CCResolutionTier(null, 1, 1.5f);
+
+    @Test
+    public void shouldSelectTierByDensity() throws Exception {
+        assertThat(CCResolutionTier.select(1, LOW, FULL), sameInstance(LOW));
+        assertThat(CCResolutionTier.select(2, LOW, FULL), sameInstance(FULL));
+        assertThat(CCResolutionTier.select(1.5f, FULL, LOW), sameInstance(FULL));
+        // 都不满足时选择最低的档位
+        CCResolutionTier medium = new CCResolutionTier("@2x", 0.75f, 1);
+        assertThat(CCResolutionTier.select(0.5f, FULL, medium), sameInstance(medium));
+    }
+
+    @Test
+    public void shouldResolveTierFilesWithFallback() throws Exception {
+        assertThat(LOW.resolve("levelSelection/", "LevelSelection/LS14.png"),
+            is("levelSelection/@1x/LevelSelection/LS14.png"));
+        assertThat(LOW.resolve("levelSelection/", "LevelSelection/LS01.png"),
+            is("levelSelection/LevelSelection/LS01.png"));
+        assertThat(FULL.resolve("levelSelection/", "LevelSelection/LS14.png"),
+            is("levelSelection/LevelSelection/LS14.png"));
+        assertThat(LOW.resolveAtlas(Gdx.files.internal("levelSelection/ui.atlas")).path(),
+            is("levelSelection/ui.atlas"));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldKeepLogicalSizeForTierTextures() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        editor.setResolutionTier(LOW);
+        ObjectData option = new ObjectData();
+
+        TextureRegion region = editor.findTextureRegion(option, "LevelSelection/LS14.png");
+        assertThat(region, instanceOf(ScaledTextureRegion.class));
+        assertThat(region.getTexture().getWidth(), is(218));
+        assertThat(region.getRegionWidth(), is(436));
+        assertThat(region.getRegionHeight(), is(486));
+        assertThat(editor.getTextureScale("LevelSelection/LS14.png"), is(0.5f));
+
+        // 没有该档位的图片使用原图
+        TextureRegion full = editor.findTextureRegion(option, "LevelSelection/LS01.png");
+        assertThat(full, not(instanceOf(ScaledTextureRegion.class)));
+        assertThat(full.getRegionWidth(), is(66));
+
+        TextureRegionDrawable drawable = (TextureRegionDrawable) editor.findDrawable(option, "LevelSelection/LS14.png");
+        assertThat(drawable.getMinWidth(), is(436f));
+        assertThat(drawable.getMinHeight(), is(486f));
+
+        ObjectData scale9 = new ObjectData();
+        scale9.setScale9Enable(true);
+        scale9.setScale9OriginX(20);
+        scale9.setScale9OriginY(30);
+        scale9.setScale9Width(396);
+        scale9.setScale9Height(426);
+        NinePatchDrawable patch = (NinePatchDrawable) editor.findDrawable(scale9, "LevelSelection/LS14.png");
+        assertThat(patch.getMinWidth(), is(436f));
+        assertThat(patch.getMinHeight(), is(486f));
+        assertThat(patch.getPatch().getLeftWidth(), is(20f));
+        assertThat(patch.getPatch().getRightWidth(), is(20f));
+        assertThat(patch.getPatch().getTopHeight(), is(30f));
+        assertThat(patch.getPatch().getBottomHeight(), is(30f));
+        editor.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldScaleTierAtlasRegions() throws Exception {
+        Texture texture = new Texture(new Pixmap(64, 32, Pixmap.Format.RGBA8888));
+        TextureAtlas atlas = new TextureAtlas();
+        atlas.addRegion("LS14", texture, 0, 0, 64, 32);
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"),
+            Collections.singletonList(atlas));
+        editor.setResolutionTier(LOW);
+
+        TextureRegion region = editor.findTextureRegion(new ObjectData(), "LevelSelection/LS14.png");
+        assertThat(region.getRegionWidth(), is(128));
+        assertThat(region.getRegionHeight(), is(64));
+
+        // 按逻辑尺寸切分和裁剪
+        TextureRegion[][] tiles = region.split(32, 32);
+        assertThat(tiles.length, is(2));
+        assertThat(tiles[0].length, is(4));
+        assertThat(tiles[0][1].getRegionX(), is(32));
+        assertThat(tiles[0][1].getU(), is(0.25f));
+        TextureRegion copy = ScaledTextureRegion.copy(region);
+        copy.setRegionWidth(64);
+        assertThat(copy.getU2(), is(0.5f));
+        texture.dispose();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.benchmark;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.jglfw.JglfwApplication;
+import com.badlogic.gdx.backends.jglfw.JglfwApplicationConfiguration;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 简单的基准测试工具,统计每次操作的平均耗时与分配字节数.
+ * 分配统计依赖 HotSpot 的 com.sun.management.ThreadMXBean,不支持时输出 -1.
+ */
+public final class Benchmark {
+
+    private Benchmark() {
+    }
+
+    public static Result measure(String name, int warmup, int iterations, Runnable task) {
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+        System.gc();
+
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        long time = System.nanoTime() - start;
+        long allocated = bytes < 0 ? -1 : allocatedBytes() - bytes;
+
+        Result result = new Result(name, time / (double) iterations, allocated < 0 ? -1 : allocated / iterations);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * 在GL线程中运行基准测试,结束后退出进程
+     */
+    public static void runOnGL(final Runnable task) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        JglfwApplicationConfiguration cfg = new JglfwApplicationConfiguration();
+        cfg.title = "Benchmark";
+        cfg.width = 2;
+        cfg.height = 2;
+        cfg.forceExit = true;
+        new JglfwApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    task.run();
+                } finally {
+                    done.countDown();
+                }
+            }
+        }, cfg);
+        done.await();
+        System.exit(0);
+    }
+
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    public static class Result {
+        public final String name;
+        public final double nanosPerOp;
+        public final long bytesPerOp;
+
+        Result(String name, double nanosPerOp, long bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %12.3f ms/op %14d B/op", name, nanosPerOp / 1e6, bytesPerOp);
+        }
+    }
+}
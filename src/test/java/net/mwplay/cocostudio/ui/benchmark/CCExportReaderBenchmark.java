@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.benchmark;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+import net.mwplay.cocostudio.ui.loader.CCBinaryReader;
+import net.mwplay.cocostudio.ui.loader.CCBinaryWriter;
+import net.mwplay.cocostudio.ui.loader.CCExportReader;
+import net.mwplay.cocostudio.ui.model.CCExport;
+
+/**
+ * 对比 readString + 反射Json、流式 CCExportReader 与二进制 CCBinaryReader 的解析耗时与内存分配.
+ * 用法: CCExportReaderBenchmark [json文件...],默认使用demo中最大的导出文件.
+ */
+public class CCExportReaderBenchmark {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            args = new String[]{"src/demo/resources/difficultySelection/Layer.json",
+                "src/demo/resources/mainscene/MenuScene.json"};
+        }
+        for (String path : args) {
+            final FileHandle file = new FileHandle(path);
+            System.out.println(file.path() + " (" + file.length() + " bytes)");
+
+            Benchmark.measure("readString + Json.fromJson", 50, 200, new Runnable() {
+                @Override
+                public void run() {
+                    Json json = new Json();
+                    json.setIgnoreUnknownFields(true);
+                    consume(json.fromJson(CCExport.class, file.readString("utf-8")));
+                }
+            });
+            Benchmark.measure("CCExportReader", 50, 200, new Runnable() {
+                @Override
+                public void run() {
+                    consume(new CCExportReader().read(file));
+                }
+            });
+
+            final byte[] binary = new CCBinaryWriter().toBytes(new CCExportReader().read(file));
+            System.out.println("binary (" + binary.length + " bytes)");
+            Benchmark.measure("CCBinaryReader", 50, 200, new Runnable() {
+                @Override
+                public void run() {
+                    consume(new CCBinaryReader().read(binary));
+                }
+            });
+        }
+    }
+
+    static int sink;
+
+    static void consume(CCExport export) {
+        sink += export.getContent().getContent().getObjectData().getChildren().size();
+    }
+}
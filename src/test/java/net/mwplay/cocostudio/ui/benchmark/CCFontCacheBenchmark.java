@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.benchmark;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 对比每个控件生成一个字体与共用字体缓存时,创建一屏文字的耗时、纹理页数和显存.
+ * 用法: CCFontCacheBenchmark [控件数],需要在项目根目录运行.
+ */
+public class CCFontCacheBenchmark {
+
+    private static final String CHARS = "开始游戏设置返回商店关卡得分时间金币钻石体力奖励任务成就排行好友邮件背包"
+        + "升级强化确定取消购买领取第一二三四五六七八九十0123456789:/+";
+    private static final int[] SIZES = {20, 24, 30};
+
+    public static void main(final String[] args) throws Exception {
+        Benchmark.runOnGL(new Runnable() {
+            @Override
+            public void run() {
+                final FileHandle ttf = Gdx.files.internal("src/test/resources/share/MLFZS.ttf");
+                final int count = args.length > 0 ? Integer.parseInt(args[0]) : 150;
+                final String[] texts = texts(count);
+                System.out.println(count + " labels, sizes 20/24/30");
+
+                Benchmark.measure("FontUtil.createFont per label", 1, 3, new Runnable() {
+                    @Override
+                    public void run() {
+                        Array<BitmapFont> fonts = new Array<BitmapFont>();
+                        for (int i = 0; i < count; i++) {
+                            fonts.add(FontUtil.createFont(ttf, texts[i], SIZES[i % SIZES.length]));
+                        }
+                        report(fonts);
+                        for (BitmapFont font : fonts) {
+                            font.dispose();
+                        }
+                    }
+                });
+
+                Benchmark.measure("CCFontCache shared", 1, 3, new Runnable() {
+                    @Override
+                    public void run() {
+                        CCFontCache cache = new CCFontCache();
+                        for (int i = 0; i < count; i++) {
+                            // 排版时上传新增的字形,与控件创建时相同
+                            new GlyphLayout(cache.obtain(ttf, SIZES[i % SIZES.length], null, texts[i]), texts[i]);
+                        }
+                        System.out.println("  fonts " + cache.size() + ", pages " + cache.getPageCount()
+                            + ", bytes " + cache.getBytes());
+                    }
+                });
+            }
+        });
+    }
+
+    static String[] texts(int count) {
+        Random random = new Random(1);
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0, n = 2 + random.nextInt(6); j < n; j++) {
+                sb.append(CHARS.charAt(random.nextInt(CHARS.length())));
+            }
+            texts[i] = sb.toString();
+        }
+        return texts;
+    }
+
+    static void report(Array<BitmapFont> fonts) {
+        Set<Texture> textures = new HashSet<Texture>();
+        long bytes = 0;
+        for (BitmapFont font : fonts) {
+            for (TextureRegion region : font.getRegions()) {
+                if (textures.add(region.getTexture())) {
+                    bytes += (long) region.getTexture().getWidth() * region.getTexture().getHeight() * 4;
+                }
+            }
+        }
+        System.out.println("  fonts " + fonts.size + ", pages " + textures.size() + ", bytes " + bytes);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.benchmark;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+
+/**
+ * 对比同一个布局反复 createGroup 时,未编译与预编译构建计划的耗时与内存分配.
+ * 用法: CCLayoutPlanBenchmark [json文件],需要在项目根目录运行.
+ */
+public class CCLayoutPlanBenchmark {
+
+    public static void main(final String[] args) throws Exception {
+        Benchmark.runOnGL(new Runnable() {
+            @Override
+            public void run() {
+                String path = args.length > 0 ? args[0] : "src/demo/resources/difficultySelection/Layer.json";
+                System.out.println(path);
+
+                final CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal(path), null);
+                final CocoStudioUIEditor compiled = new CocoStudioUIEditor(Gdx.files.internal(path), null);
+                System.out.println("compiled nodes: " + compiled.compile().size());
+                // 交替运行多轮,只看 JIT 稳定后的结果
+                for (int round = 0; round < ROUNDS; round++) {
+                    Benchmark.measure("createGroup", 200, 2000, new Runnable() {
+                        @Override
+                        public void run() {
+                            consume(editor, editor.createGroup());
+                        }
+                    });
+                    Benchmark.measure("compile + createGroup", 200, 2000, new Runnable() {
+                        @Override
+                        public void run() {
+                            consume(compiled, compiled.createGroup());
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    static final int ROUNDS = 8;
+
+    static int sink;
+
+    static void consume(CocoStudioUIEditor editor, Group group) {
+        sink += group.getChildren().size;
+        // 避免控件集合随迭代次数增长
+        editor.getActors().clear();
+        editor.getActionActors().clear();
+        editor.getActorActionMap().clear();
+    }
+}
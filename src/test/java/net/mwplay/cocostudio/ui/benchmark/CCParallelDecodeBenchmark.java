@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.benchmark;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.loader.CCExportCache;
+import net.mwplay.cocostudio.ui.loader.CCParallelLoader;
+import net.mwplay.cocostudio.ui.loader.CCTextureCache;
+
+import java.util.Random;
+
+/**
+ * 对比小文件方式下逐张加载与并行解码图片的 createGroup 耗时.
+ * 生成一个包含大量图片的布局到 build/benchmark-decode.
+ * 用法: CCParallelDecodeBenchmark [图片数] [图片边长],需要在项目根目录运行.
+ */
+public class CCParallelDecodeBenchmark {
+
+    public static void main(final String[] args) throws Exception {
+        Benchmark.runOnGL(new Runnable() {
+            @Override
+            public void run() {
+                int count = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+                int size = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+                final FileHandle jsonFile = generate(Gdx.files.local("build/benchmark-decode"), count, size);
+                System.out.println(count + " images " + size + "x" + size + ", "
+                    + Runtime.getRuntime().availableProcessors() + " cores");
+                CCExportCache.getDefault().get(jsonFile);
+
+                Benchmark.measure("sequential createGroup", 2, 5, new Runnable() {
+                    @Override
+                    public void run() {
+                        load(jsonFile, null);
+                    }
+                });
+
+                final CCParallelLoader loader = new CCParallelLoader();
+                Benchmark.measure("parallel decode createGroup", 2, 5, new Runnable() {
+                    @Override
+                    public void run() {
+                        load(jsonFile, loader);
+                    }
+                });
+                loader.dispose();
+            }
+        });
+    }
+
+    static int sink;
+
+    static void load(FileHandle jsonFile, CCParallelLoader loader) {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(jsonFile, null);
+        // 每次都从文件加载
+        editor.setTextureCache(new CCTextureCache());
+        editor.setParallelLoader(loader);
+        sink += editor.createGroup().getChildren().size;
+        editor.dispose();
+    }
+
+    /**
+     * 生成随机内容的图片,避免png压缩后过小,以及每张图片一个 ImageView 的布局
+     */
+    static FileHandle generate(FileHandle dir, int count, int size) {
+        FileHandle jsonFile = dir.child("Layer.json");
+        if (jsonFile.exists() && dir.child("images").list().length == count) {
+            return jsonFile;
+        }
+        dir.deleteDirectory();
+        Random random = new Random(1);
+        StringBuilder children = new StringBuilder();
+        StringBuilder resources = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    pixmap.drawPixel(x, y, random.nextInt());
+                }
+            }
+            PixmapIO.writePNG(dir.child("images/" + i + ".png"), pixmap);
+            pixmap.dispose();
+
+            if (i > 0) {
+                children.append(',');
+                resources.append(',');
+            }
+            children.append("{\"Name\":\"Image_").append(i).append("\",\"ctype\":\"ImageViewObjectData\",")
+                .append("\"Size\":{\"X\":").append(size).append(",\"Y\":").append(size).append("},")
+                .append("\"FileData\":{\"Type\":\"Normal\",\"Path\":\"images/").append(i).append(".png\"}}");
+            resources.append("\"images/").append(i).append(".png\"");
+        }
+        jsonFile.writeString("{\"Name\":\"Layer\",\"Content\":{\"Content\":{\"Animation\":{\"Duration\":0,\"Timelines\":[]},"
+            + "\"ObjectData\":{\"Name\":\"Layer\","
+            + "\"ctype\":\"LayerObjectData\",\"Size\":{\"X\":960,\"Y\":640},\"Children\":[" + children
+            + "]},\"UsedResources\":[" + resources + "]}}}", false, "UTF-8");
+        return jsonFile;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.benchmark;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.StringBuilder;
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+import net.mwplay.cocostudio.ui.widget.TTFLabel;
+import net.mwplay.cocostudio.ui.widget.TTFLabelStyle;
+
+/**
+ * HUD 每帧更新6个 TTFLabel 的文字,统计稳定状态下每帧的耗时与分配字节数.
+ * 用法: TTFLabelBenchmark,需要在项目根目录运行.
+ */
+public class TTFLabelBenchmark {
+
+    private static final int LABELS = 6;
+
+    public static void main(final String[] args) throws Exception {
+        Benchmark.runOnGL(new Runnable() {
+            @Override
+            public void run() {
+                final FileHandle ttf = Gdx.files.internal("src/test/resources/share/MLFZS.ttf");
+                CCFontCache cache = new CCFontCache();
+                final TTFLabel[] labels = new TTFLabel[LABELS];
+                for (int i = 0; i < LABELS; i++) {
+                    TTFLabelStyle style = new TTFLabelStyle(
+                        new LabelStyle(cache.obtain(ttf, 24, null, "得分:"), Color.WHITE), ttf, 24);
+                    style.setFontCache(cache);
+                    labels[i] = new TTFLabel("得分:0", style);
+                }
+
+                // gdx的StringBuilder,Label复制文字时不会创建String
+                final StringBuilder text = new StringBuilder(32);
+                Benchmark.measure("6 x TTFLabel.setText + layout", 1000, 10000, new Runnable() {
+                    int frame;
+
+                    @Override
+                    public void run() {
+                        frame++;
+                        for (int i = 0; i < LABELS; i++) {
+                            text.setLength(0);
+                            text.append("得分:").append(frame * (i + 1) % 100000);
+                            labels[i].setText(text);
+                            labels[i].validate();
+                        }
+                    }
+                });
+                System.out.println(cache);
+
+                // 原来的 setText 每次为整段文字重新生成字体
+                Benchmark.measure("6 x FontUtil.createFont (before)", 2, 20, new Runnable() {
+                    int frame;
+
+                    @Override
+                    public void run() {
+                        frame++;
+                        for (int i = 0; i < LABELS; i++) {
+                            text.setLength(0);
+                            text.append("得分:").append(frame * (i + 1) % 100000);
+                            FontUtil.createFont(ttf, text.toString(), 24).dispose();
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
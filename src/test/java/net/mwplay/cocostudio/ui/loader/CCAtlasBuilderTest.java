@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Region;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(LibgdxRunner.class)
+public class CCAtlasBuilderTest {
+
+    private FileHandle outputDir;
+
+    @Before
+    public void setUp() throws Exception {
+        outputDir = Gdx.files.local("build/test-atlas-builder");
+        outputDir.deleteDirectory();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        outputDir.deleteDirectory();
+    }
+
+    @Test
+    public void shouldPackUsedResourcesOfNestedScreens() throws Exception {
+        CCAtlasBuilder builder = new CCAtlasBuilder();
+        int pages = builder.build(resourceDir("levelSelection"), outputDir, "level");
+
+        assertThat(pages, is(1));
+        assertTrue(outputDir.child("level.png").exists());
+        Map<String, Region> regions = regions(outputDir.child("level.atlas"));
+        assertThat(regions.size(), is(15));
+        assertThat(regions.get("Cn21"), notNullValue());
+        assertThat(regions.get("LS01"), notNullValue());
+        assertThat(regions.get("LS01").page.textureFile.name(), is("level.png"));
+    }
+
+    @Test
+    public void shouldSplitPagesBetweenScreens() throws Exception {
+        CCAtlasBuilder builder = new CCAtlasBuilder();
+        builder.setPageSize(512);
+        int pages = builder.build(resourceDir("levelSelection"), outputDir, "level");
+
+        assertTrue(pages > 1);
+        Map<String, Region> regions = regions(outputDir.child("level.atlas"));
+        for (Region region : regions.values()) {
+            assertTrue(region.left + region.width <= 512);
+            assertTrue(region.top + region.height <= 512);
+        }
+    }
+
+    @Test
+    public void shouldReportImagesLargerThanPage() throws Exception {
+        CCAtlasBuilder builder = new CCAtlasBuilder();
+        builder.setPageSize(64);
+        builder.build(resourceDir("levelSelection"), outputDir, "level");
+
+        assertTrue(builder.getWarnings().size() > 0);
+        assertTrue(builder.getWarnings().get(0).startsWith("图片比页面大"));
+    }
+
+    @Test
+    public void shouldProduceSameAtlasForSameInput() throws Exception {
+        new CCAtlasBuilder().build(resourceDir("levelSelection"), outputDir, "first");
+        new CCAtlasBuilder().build(resourceDir("levelSelection"), outputDir, "second");
+
+        String first = outputDir.child("first.atlas").readString().replace("first", "");
+        String second = outputDir.child("second.atlas").readString().replace("second", "");
+        assertThat(first, is(second));
+        assertThat(regions(outputDir.child("first.atlas")).get("Button_Disable"), nullValue());
+    }
+
+    private static FileHandle resourceDir(String name) throws Exception {
+        return new FileHandle(new File(CCAtlasBuilderTest.class.getResource("/" + name).toURI()));
+    }
+
+    private static Map<String, Region> regions(FileHandle atlasFile) {
+        TextureAtlasData data = new TextureAtlasData(atlasFile, atlasFile.parent(), false);
+        Map<String, Region> regions = new HashMap<String, Region>();
+        for (Region region : data.getRegions()) {
+            regions.put(region.name, region);
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(LibgdxRunner.class)
+public class CCAtlasPackerTest {
+
+    private FileHandle cacheDir;
+    private CCAtlasPacker packer;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = Gdx.files.local("build/test-atlas");
+        cacheDir.deleteDirectory();
+        packer = new CCAtlasPacker(1024);
+        packer.setCacheDir(cacheDir);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cacheDir.deleteDirectory();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldPackUsedResources() throws Exception {
+        FileHandle jsonFile = Gdx.files.internal("levelSelection/Layer.json");
+        CCAtlasPacker.PackedAtlas packed = packer.prepare(jsonFile);
+        assertFalse(packed.isCached());
+        TextureAtlas atlas = packed.createAtlas();
+        assertThat(atlas.getRegions().size, is(CocoStudioUIEditor.getResources(jsonFile).size()));
+        assertThat(atlas.findRegion("LS06"), notNullValue());
+
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(jsonFile, Collections.singletonList(atlas));
+        Group group = editor.createGroup();
+        Image image = group.findActor("Image_2");
+        Texture texture = ((TextureRegionDrawable) image.getDrawable()).getRegion().getTexture();
+        assertTrue(atlas.getTextures().contains(texture));
+        atlas.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReuseCachedPages() throws Exception {
+        FileHandle jsonFile = Gdx.files.internal("mainMenu/MainMenu.json");
+        TextureAtlas atlas = packer.pack(jsonFile);
+        int regions = atlas.getRegions().size;
+        atlas.dispose();
+
+        CCAtlasPacker.PackedAtlas packed = packer.prepare(jsonFile);
+        assertTrue(packed.isCached());
+        atlas = packed.createAtlas();
+        assertThat(atlas.getRegions().size, is(regions));
+        assertThat(atlas.findRegion("MM01"), notNullValue());
+        atlas.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldRepackWhenImageContentChanges() throws Exception {
+        FileHandle dir = cacheDir.child("source");
+        Gdx.files.internal("loadingBar/MainScene.json").copyTo(dir.child("MainScene.json"));
+        FileHandle image = dir.child("Bar.png");
+        writeImage(image, new Color(0x102030ff));
+        FileHandle jsonFile = Gdx.files.internal(dir.child("MainScene.json").path());
+
+        assertFalse(packer.prepare(jsonFile).isCached());
+        assertTrue(packer.prepare(jsonFile).isCached());
+
+        // 文件大小不变,只有像素和修改时间不同
+        long length = image.length();
+        long lastModified = image.lastModified();
+        writeImage(image, new Color(0x302010ff));
+        image.file().setLastModified(lastModified + 2000);
+        assertThat(image.length(), is(length));
+
+        CCAtlasPacker.PackedAtlas packed = packer.prepare(jsonFile);
+        assertFalse(packed.isCached());
+        TextureAtlas atlas = packed.createAtlas();
+        assertThat(atlas.findRegion("Bar"), notNullValue());
+        atlas.dispose();
+    }
+
+    private static void writeImage(FileHandle file, Color color) {
+        Pixmap pixmap = new Pixmap(8, 8, Pixmap.Format.RGBA8888);
+        pixmap.setColor(color);
+        pixmap.fill();
+        PixmapIO.writePNG(file, pixmap);
+        pixmap.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldPackNestedLayoutsInAssetManager() throws Exception {
+        AssetManager assetManager = new AssetManager();
+        assetManager.setLoader(CocosScene.class, new CocosLoader(new InternalFileHandleResolver()));
+        CocosLoader.CocosParameter parameter = new CocosLoader.CocosParameter();
+        parameter.packer = packer;
+        try {
+            assetManager.load("nine/MainScene.json", CocosScene.class, parameter);
+            assetManager.finishLoading();
+
+            assertFalse(assetManager.isLoaded("nine/Setting/BaS07.png", Texture.class));
+            CocosScene setting = assetManager.get("nine/Setting.json", CocosScene.class);
+            assertThat(setting.getPackedAtlas(), notNullValue());
+            assertThat(setting.getPackedAtlas().findRegion("BaS07"), notNullValue());
+
+            Group group = assetManager.get("nine/MainScene.json", CocosScene.class).getRoot(assetManager);
+            assertTrue(((Group) group.getChildren().first()).getChildren().size > 0);
+            setting.dispose();
+        } finally {
+            assetManager.dispose();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.SerializationException;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCBinaryReaderTest {
+    private static final String[] EXPORTS = {
+        "animation/MainScene.json",
+        "levelSelection/Layer.json",
+        "levelSelection/MainScene.json",
+        "loadingBar/MainScene.json",
+        "mainMenu/MainMenu.json",
+        "mainMenu/MainScene.json",
+        "nine/MainScene.json",
+        "nine/Setting.json",
+        "particle/MainScene.json",
+        "single-button/MainScene.json",
+        "slideBar/MainScene.json",
+        "textField/MainScene.json"
+    };
+
+    @Test
+    public void shouldReadSameModelAsJson() throws Exception {
+        Json json = new Json();
+        for (String path : EXPORTS) {
+            CCExport expected = new CCExportReader().read(Gdx.files.internal(path));
+            byte[] bytes = new CCBinaryWriter().toBytes(expected);
+            CCExport actual = new CCBinaryReader().read(bytes);
+
+            assertThat(path, CCBinaryReader.isBinary(bytes), is(true));
+            assertThat(path, json.toJson(actual), is(json.toJson(expected)));
+        }
+    }
+
+    @Test
+    public void shouldRewriteProjectNodeReferences() throws Exception {
+        FileHandle output = FileHandle.tempDirectory("ccui");
+        try {
+            int count = new CCExportCompiler().compile(Gdx.files.internal("mainMenu"), output);
+            CCExport export = CCExports.read(output.child("MainScene.ccui"));
+
+            assertThat(count, is(2));
+            assertThat(export.getContent().getContent().getUsedResources().get(0), is("MainMenu.ccui"));
+            ObjectData node = export.getContent().getContent().getObjectData().getChildren().get(0);
+            assertThat(node.getFileData().getPath(), is("MainMenu.ccui"));
+        } finally {
+            output.deleteDirectory();
+        }
+    }
+
+    @Test(expected = SerializationException.class)
+    public void shouldRejectNonBinaryData() throws Exception {
+        new CCBinaryReader().read("{}".getBytes("UTF-8"));
+    }
+}
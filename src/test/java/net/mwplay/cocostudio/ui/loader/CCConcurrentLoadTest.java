@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCConcurrentLoadTest {
+
+    private static final String[] LAYOUTS = {
+        "levelSelection/Layer.json",
+        "nine/MainScene.json",
+        "single-button/MainScene.json",
+        "particle/MainScene.json",
+        "animation/MainScene.json",
+        "slideBar/MainScene.json",
+        "mainMenu/MainMenu.json"
+    };
+
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void shouldResolveEachLayoutAgainstItsOwnDirectory() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < ROUNDS; i++) {
+                for (final String layout : LAYOUTS) {
+                    results.add(executor.submit(new Callable<String>() {
+                        @Override
+                        public String call() throws Exception {
+                            FileHandle file = Gdx.files.internal(layout);
+                            CocoStudioUIEditor editor = new CocoStudioUIEditor(file, null);
+                            CocoStudioUIEditor.getResources(Gdx.files.internal(LAYOUTS[0]));
+                            return layout + "=" + editor.getDirName();
+                        }
+                    }));
+                }
+            }
+            int index = 0;
+            for (Future<String> result : results) {
+                String layout = LAYOUTS[index++ % LAYOUTS.length];
+                String dirName = layout.substring(0, layout.indexOf('/')) + File.separator;
+                assertThat(result.get(), is(layout + "=" + dirName));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @NeedGL
+    public void shouldPrepareLayoutsInParallel() throws Exception {
+        int[] expected = new int[LAYOUTS.length];
+        for (int i = 0; i < LAYOUTS.length; i++) {
+            expected[i] = count(new CocoStudioUIEditor(Gdx.files.internal(LAYOUTS[i]), null).createGroup());
+        }
+
+        CCParallelLoader loader = new CCParallelLoader(4);
+        try {
+            List<CCParallelLoader.Task> tasks = new ArrayList<CCParallelLoader.Task>();
+            for (int i = 0; i < ROUNDS; i++) {
+                for (String layout : LAYOUTS) {
+                    tasks.add(loader.prepare(Gdx.files.internal(layout)));
+                }
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                CCParallelLoader.Task task = tasks.get(i);
+                assertThat(count(task.finish()), is(expected[i % LAYOUTS.length]));
+                task.getEditor().dispose();
+            }
+        } finally {
+            loader.dispose();
+        }
+    }
+
+    @Test
+    @NeedGL
+    public void shouldLoadLayoutsWithOneAssetManager() throws Exception {
+        String[] layouts = {"levelSelection/Layer.json", "mainMenu/MainMenu.json", "single-button/MainScene.json"};
+        AssetManager assetManager = new AssetManager();
+        assetManager.setLoader(CocosScene.class, new CocosLoader(new InternalFileHandleResolver()));
+        try {
+            for (String layout : layouts) {
+                assetManager.load(layout, CocosScene.class);
+            }
+            assetManager.finishLoading();
+
+            for (String layout : layouts) {
+                CocosScene scene = assetManager.get(layout, CocosScene.class);
+                String dirName = layout.substring(0, layout.indexOf('/')) + File.separator;
+                assertThat(scene.getEditor().getDirName(), is(dirName));
+                assertThat(scene.getRoot(assetManager), notNullValue());
+            }
+        } finally {
+            assetManager.dispose();
+        }
+    }
+
+    private static int count(Actor actor) {
+        int count = 1;
+        if (actor instanceof Group) {
+            for (Actor child : ((Group) actor).getChildren()) {
+                count += count(child);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCExportCacheTest {
+
+    @Test
+    public void shouldReuseParsedExport() throws Exception {
+        CCExportCache cache = new CCExportCache(4);
+        CCExport first = cache.get(Gdx.files.internal("nine/Setting.json"));
+        CCExport second = cache.get(Gdx.files.internal("nine/Setting.json"));
+
+        assertThat(second, sameInstance(first));
+        assertThat(cache.getMisses(), is(1));
+        assertThat(cache.getHits(), is(1));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        CCExportCache cache = new CCExportCache(2);
+        FileHandle a = Gdx.files.internal("nine/Setting.json");
+        FileHandle b = Gdx.files.internal("nine/MainScene.json");
+        FileHandle c = Gdx.files.internal("mainMenu/MainMenu.json");
+        cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.contains(a), is(true));
+        assertThat(cache.contains(b), is(false));
+        assertThat(cache.getEvictions(), is(1));
+
+        cache.setMaxSize(1);
+        assertThat(cache.contains(a), is(false));
+        assertThat(cache.contains(c), is(true));
+    }
+
+    @Test
+    public void shouldReloadAfterInvalidate() throws Exception {
+        CCExportCache cache = new CCExportCache(4);
+        FileHandle file = Gdx.files.internal("nine/Setting.json");
+        CCExport first = cache.get(file);
+        cache.invalidate(file);
+
+        assertThat(cache.get(file), not(sameInstance(first)));
+        assertThat(cache.getMisses(), is(2));
+
+        cache.invalidateAll();
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotCacheWhenSizeIsZero() throws Exception {
+        CCExportCache cache = new CCExportCache(0);
+        FileHandle file = Gdx.files.internal("nine/Setting.json");
+
+        assertThat(cache.get(file), not(sameInstance(cache.get(file))));
+        assertThat(cache.size(), is(0));
+    }
+}
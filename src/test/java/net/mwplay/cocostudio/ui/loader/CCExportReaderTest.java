@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCExportReaderTest {
+    private static final String[] EXPORTS = {
+        "animation/MainScene.json",
+        "levelSelection/Layer.json",
+        "levelSelection/MainScene.json",
+        "loadingBar/MainScene.json",
+        "mainMenu/MainMenu.json",
+        "mainMenu/MainScene.json",
+        "nine/MainScene.json",
+        "nine/Setting.json",
+        "particle/MainScene.json",
+        "single-button/MainScene.json",
+        "slideBar/MainScene.json",
+        "textField/MainScene.json"
+    };
+
+    @Test
+    public void shouldReadSameModelAsReflectiveJson() throws Exception {
+        Json json = new Json();
+        json.setIgnoreUnknownFields(true);
+        for (String path : EXPORTS) {
+            FileHandle file = Gdx.files.internal(path);
+            CCExport expected = json.fromJson(CCExport.class, file.readString("utf-8"));
+            CCExport actual = new CCExportReader().read(file);
+
+            assertThat(path, json.toJson(actual), is(json.toJson(expected)));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreUnknownFieldsAndKeepDefaults() throws Exception {
+        CCExport export = new CCExportReader().read("{\"Name\":\"Scene\",\"Extra\":{\"A\":[1,{\"B\":2}]},"
+            + "\"Content\":{\"Content\":{\"ObjectData\":{\"Name\":\"Root\",\"CColor\":{\"G\":0},"
+            + "\"BlendFunc\":{\"Src\":1},\"Children\":[{\"Name\":\"Child\",\"Alpha\":255.0}]}}}}");
+
+        ObjectData root = export.getContent().getContent().getObjectData();
+        assertThat(export.getName(), is("Scene"));
+        assertThat(root.getName(), is("Root"));
+        assertThat(root.isVisibleForFrame(), is(true));
+        assertThat(root.getCColor().getR(), is(255));
+        assertThat(root.getCColor().getG(), is(0));
+        assertThat(root.getChildren().size(), is(1));
+        assertThat(root.getChildren().get(0).getAlpha(), is(255));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCFontCacheTest {
+
+    private static FileHandle ttf() {
+        return Gdx.files.internal("share/MLFZS.ttf");
+    }
+
+    @Test
+    @NeedGL
+    public void shouldShareFontsAndPagesByFileSizeAndColor() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        BitmapFont font = cache.obtain(ttf(), 20, null, "开始游戏");
+        assertThat(cache.obtain(ttf(), 20, Color.WHITE, "设置"), sameInstance(font));
+        BitmapFont larger = cache.obtain(ttf(), 24, null, "开始游戏");
+        BitmapFont red = cache.obtain(ttf(), 20, Color.RED, "开始游戏");
+        assertThat(larger, not(sameInstance(font)));
+        assertThat(red, not(sameInstance(font)));
+
+        assertThat(cache.size(), is(3));
+        assertThat(cache.getHits(), is(1));
+        assertThat(cache.getMisses(), is(3));
+        // 所有字体的字形在同一个纹理页中
+        assertThat(cache.getPageCount(), is(1));
+        assertThat(cache.getBytes(), is(1024L * 1024 * 4));
+        new GlyphLayout(larger, "开始游戏");
+        new GlyphLayout(font, "开始游戏设置");
+        assertThat(larger.getRegion().getTexture(), sameInstance(font.getRegion().getTexture()));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldAddGlyphsIncrementally() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        BitmapFont font = cache.obtain(ttf(), 20, null, "123");
+        assertThat(CCFontCache.hasGlyph(font.getData(), '1'), is(true));
+        assertThat(CCFontCache.hasGlyph(font.getData(), '得'), is(false));
+
+        cache.addGlyphs(font, "得分 456");
+        assertThat(CCFontCache.hasGlyph(font.getData(), '得'), is(true));
+        assertThat(CCFontCache.hasGlyph(font.getData(), '6'), is(true));
+        GlyphLayout layout = new GlyphLayout(font, "得分 456");
+        assertThat(layout.width > 0, is(true));
+        assertThat(cache.contains(font), is(true));
+        assertThat(cache.contains(new BitmapFont()), is(false));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReplaceAdoptedFontWhenCharactersAreMissing() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        BitmapFont adopted = cache.adopt(ttf(), 20, FontUtil.prepareFont(ttf(), "开始", 20));
+        assertThat(cache.obtain(ttf(), 20, null, "开始"), sameInstance(adopted));
+        assertThat(cache.addGlyphs(adopted, "开始"), sameInstance(adopted));
+
+        BitmapFont replacement = cache.addGlyphs(adopted, "得分");
+        assertThat(replacement, not(sameInstance(adopted)));
+        assertThat(CCFontCache.hasGlyphs(replacement, "开始得分"), is(true));
+        assertThat(cache.obtain(ttf(), 20, null, "开始"), sameInstance(replacement));
+        assertThat(cache.addGlyphs(adopted, "得分"), sameInstance(replacement));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldShareFontsAcrossLabels() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"),
+            null, null, ttf(), null);
+        editor.setFontCache(new CCFontCache());
+        ObjectData first = new ObjectData();
+        first.setFontSize(20);
+        ObjectData second = new ObjectData();
+        second.setFontSize(20);
+
+        BitmapFont font = editor.createLabelStyle(first, "第一关", Color.WHITE).font;
+        assertThat(editor.createLabelStyle(second, "第二关", Color.RED).font, sameInstance(font));
+        assertThat(editor.getFontCache().size(), is(1));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldDisposeFontsAndPagesWhenReleased() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        BitmapFont small = cache.obtain(ttf(), 20, null, "开始");
+        BitmapFont large = cache.obtain(ttf(), 24, null, "开始");
+        cache.retain(small);
+        cache.retain(small);
+        cache.retain(large);
+        assertThat(cache.getReferences(small), is(2));
+
+        cache.release(small);
+        assertThat(cache.contains(small), is(true));
+        cache.release(small);
+        assertThat(cache.contains(small), is(false));
+        assertThat(cache.size(), is(1));
+        // 其它字体还在使用共用的纹理页
+        assertThat(cache.getPageCount(), is(1));
+
+        cache.release(large);
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getPageCount(), is(0));
+        assertThat(cache.getBytes(), is(0L));
+        assertThat(cache.getDisposals(), is(2));
+
+        // 释放后可以重新生成
+        assertThat(cache.obtain(ttf(), 20, null, "开始"), not(sameInstance(small)));
+        assertThat(cache.disposeUnused(), is(1));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReleaseFontsWithScene() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        CocosScene first = scene(cache);
+        CocosScene second = scene(cache);
+        Label title = first.getRoot().findActor("Title");
+        BitmapFont font = title.getStyle().font;
+        assertThat(second.getRoot().<Label>findActor("Title").getStyle().font, sameInstance(font));
+        assertThat(first.getEditor().getUsedFonts().contains(font), is(true));
+        // 外层布局和嵌套布局各引用一次
+        assertThat(cache.getReferences(font), is(4));
+
+        first.dispose();
+        assertThat(cache.getReferences(font), is(2));
+        assertThat(cache.size(), is(2));
+        second.dispose();
+        assertThat(cache.contains(font), is(false));
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getPageCount(), is(0));
+    }
+
+    private static CocosScene scene(CCFontCache cache) {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("glyphSets/MainScene.json"),
+            null, null, ttf(), null);
+        editor.setFontCache(cache);
+        CocosScene scene = new CocosScene();
+        scene.setEditor(editor);
+        return scene;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCGlyphSetsTest {
+
+    private static FileHandle ttf() {
+        return Gdx.files.internal("share/MLFZS.ttf");
+    }
+
+    private static FileHandle layout() {
+        return Gdx.files.internal("glyphSets/MainScene.json");
+    }
+
+    @Test
+    public void shouldMergeCharactersByFontAndSize() throws Exception {
+        CCGlyphSets glyphSets = CCGlyphSets.collect(layout(), null, ttf(), true);
+        assertThat(glyphSets.getSets().size(), is(2));
+        assertThat(glyphSets.get(ttf(), 20).getCharacters(), is("开始游戏退出设置"));
+        assertThat(glyphSets.get(ttf(), 14).getCharacters(), is("得分"));
+        assertThat(glyphSets.getCharCount(), is(10));
+
+        CCGlyphSets outer = CCGlyphSets.collect(layout(), null, ttf(), false);
+        assertThat(outer.get(ttf(), 20).getCharacters(), is("开始游戏退出"));
+        assertThat(outer.get(ttf(), 14), nullValue());
+    }
+
+    @Test
+    public void shouldSkipNativeFonts() throws Exception {
+        assertThat(CCGlyphSets.collect(layout(), null, null, true).getSets().size(), is(0));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldRasterizeEachSetOnce() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(layout(), null, null, ttf(), null);
+        CCFontCache cache = new CCFontCache();
+        editor.setFontCache(cache);
+        Group group = editor.createGroup();
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getMisses(), is(2));
+        Label title = group.findActor("Title");
+        Label setting = group.findActor("Setting");
+        assertThat(setting, notNullValue());
+        BitmapFont font = title.getStyle().font;
+        assertThat(setting.getStyle().font, sameInstance(font));
+        assertThat(CCFontCache.hasGlyphs(font, "开始游戏退出设置"), is(true));
+        editor.dispose();
+    }
+}
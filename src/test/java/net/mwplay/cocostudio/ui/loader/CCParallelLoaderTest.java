@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.particleutil.CCParticleActor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(LibgdxRunner.class)
+public class CCParallelLoaderTest {
+
+    private CCParallelLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        loader = new CCParallelLoader(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        loader.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldUploadPreparedTextures() throws Exception {
+        CCParallelLoader.Task task = loader.prepare(Gdx.files.internal("levelSelection/Layer.json"));
+        Group group = task.finish();
+
+        assertTrue(task.isDone());
+        assertThat(task.getProgress(), is(1f));
+        assertThat(task.getResources().getPendingCount(), is(0));
+
+        CCTextureCache textureCache = task.getEditor().getTextureCache();
+        Image image = group.findActor("Image_2");
+        Texture texture = ((TextureRegionDrawable) image.getDrawable()).getRegion().getTexture();
+        int found = 0;
+        for (String name : CocoStudioUIEditor.getResources(Gdx.files.internal("levelSelection/Layer.json"))) {
+            String path = task.getEditor().getDirName() + name;
+            if (textureCache.contains(path) && textureCache.obtain(path) == texture) {
+                found++;
+                textureCache.release(path);
+            }
+        }
+        assertThat(found, is(1));
+        task.getEditor().dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldUsePreparedFonts() throws Exception {
+        FileHandle defaultFont = Gdx.files.internal("share/MLFZS.ttf");
+        CCParallelLoader.Task task = loader.prepare(Gdx.files.internal("textField/MainScene.json"),
+            null, null, defaultFont);
+        Group group = task.finish();
+
+        TextField textField = group.findActor("TextField_1");
+        assertThat(textField.getText(), is("Here is text"));
+        BitmapFont font = textField.getStyle().font;
+        for (char c : "Place Holder".toCharArray()) {
+            assertThat(font.getData().getGlyph(c), notNullValue());
+        }
+        assertThat(task.getResources().getPendingCount(), is(0));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldUsePreparedParticle() throws Exception {
+        CCParallelLoader.Task task = loader.prepare(Gdx.files.internal("particle/MainScene.json"));
+        Group group = task.finish();
+
+        CCParticleActor particleActor = group.findActor("Particle_1");
+        assertThat(particleActor, notNullValue());
+        assertThat(task.getResources().getPendingCount(), is(0));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldDecodeImagesOfNestedLayoutsBeforeCreateGroup() throws Exception {
+        CCTextureCache cache = new CCTextureCache();
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("nine/MainScene.json"), null);
+        editor.setTextureCache(cache);
+        editor.setParallelLoader(loader);
+
+        Group group = editor.createGroup();
+
+        assertThat(group, notNullValue());
+        assertTrue(cache.size() > 0);
+        // 嵌套布局的图片在创建控件前已经上传,之后只命中缓存
+        assertThat(cache.getMisses(), is(cache.size()));
+        assertThat(editor.getTexturePaths().size(), is(cache.size()));
+        assertThat(editor.getPrepared(), is(nullValue()));
+
+        editor.dispose();
+        assertThat(cache.size(), is(0));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(LibgdxRunner.class)
+public class CCTextureBudgetTest {
+
+    @Test
+    @NeedGL
+    public void shouldEvictDetachedLayoutsAndRestoreOnAttach() throws Exception {
+        CCTextureCache cache = new CCTextureCache();
+        CocoStudioUIEditor level = createEditor(cache, "levelSelection/Layer.json");
+        CocoStudioUIEditor menu = createEditor(cache, "mainMenu/MainMenu.json");
+        Group levelRoot = level.createGroup();
+        Group menuRoot = menu.createGroup();
+        long levelBytes = new CCTextureBudget(cache, 0).getUsage(level);
+        long menuBytes = new CCTextureBudget(cache, 0).getUsage(menu);
+        assertTrue(levelBytes > 0);
+        assertThat(cache.getBytes(), is(levelBytes + menuBytes));
+
+        CCTextureBudget budget = new CCTextureBudget(cache, menuBytes);
+        budget.track(level, levelRoot);
+        budget.track(menu, menuRoot);
+        Stage stage = new Stage(new ScreenViewport(), mock(Batch.class));
+        stage.addActor(menuRoot);
+        budget.update();
+
+        assertThat(budget.isAttached(menu), is(true));
+        assertThat(budget.getUsage(level), is(0L));
+        assertThat(budget.getUsage(menu), is(menuBytes));
+        assertThat(cache.getBytes(), is(menuBytes));
+        for (String path : level.getTexturePaths()) {
+            assertThat(path, cache.isResident(path), is(false));
+        }
+
+        menuRoot.remove();
+        stage.addActor(levelRoot);
+        budget.update();
+
+        assertThat(budget.getUsage(level), is(levelBytes));
+        assertThat(budget.getUsage(menu), is(0L));
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getReloads() > 0);
+
+        budget.untrack(menu);
+        assertThat(budget.getUsage(menu), is(menuBytes));
+        stage.dispose();
+        level.dispose();
+        menu.dispose();
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getBytes(), is(0L));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldKeepTexturesReferencedByUntrackedLayouts() throws Exception {
+        CCTextureCache cache = new CCTextureCache();
+        CocoStudioUIEditor tracked = createEditor(cache, "levelSelection/Layer.json");
+        CocoStudioUIEditor untracked = createEditor(cache, "levelSelection/Layer.json");
+        Group root = tracked.createGroup();
+        untracked.createGroup();
+        long bytes = cache.getBytes();
+
+        CCTextureBudget budget = new CCTextureBudget(cache, 0);
+        budget.track(tracked, root);
+        budget.update();
+
+        assertThat(cache.getBytes(), is(bytes));
+        tracked.dispose();
+        untracked.dispose();
+    }
+
+    private static CocoStudioUIEditor createEditor(CCTextureCache cache, String path) {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal(path), null);
+        editor.setTextureCache(cache);
+        return editor;
+    }
+}
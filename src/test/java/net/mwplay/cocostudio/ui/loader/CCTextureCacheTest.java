@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(LibgdxRunner.class)
+public class CCTextureCacheTest {
+
+    private CocoStudioUIEditor createEditor(CCTextureCache textureCache) {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("levelSelection/Layer.json"), null);
+        editor.setTextureCache(textureCache);
+        return editor;
+    }
+
+    @Test
+    @NeedGL
+    public void shouldShareTexturesBetweenLayouts() throws Exception {
+        CCTextureCache textureCache = new CCTextureCache();
+        CocoStudioUIEditor editor1 = createEditor(textureCache);
+        CocoStudioUIEditor editor2 = createEditor(textureCache);
+        Group group1 = editor1.createGroup();
+        Group group2 = editor2.createGroup();
+
+        Image image1 = group1.findActor("Image_2");
+        Image image2 = group2.findActor("Image_2");
+        assertThat(((TextureRegionDrawable) image1.getDrawable()).getRegion().getTexture(),
+            sameInstance(((TextureRegionDrawable) image2.getDrawable()).getRegion().getTexture()));
+
+        int size = textureCache.size();
+        assertTrue(size > 0);
+        assertTrue(textureCache.getBytes() > 0);
+        assertThat(textureCache.getMisses(), is(size));
+        assertThat(textureCache.getHits(), is(size));
+
+        String path = editor1.getDirName() + "LevelSelection/LS06.png";
+        assertThat(textureCache.getReferences(path), is(2));
+
+        editor1.dispose();
+        assertThat(textureCache.getReferences(path), is(1));
+        assertThat(textureCache.size(), is(size));
+
+        editor2.dispose();
+        assertThat(textureCache.size(), is(0));
+        assertThat(textureCache.getBytes(), is(0L));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldReleaseNestedLayouts() throws Exception {
+        CCTextureCache textureCache = new CCTextureCache();
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("nine/MainScene.json"), null);
+        editor.setTextureCache(textureCache);
+        editor.createGroup();
+        assertTrue(textureCache.size() > 0);
+
+        editor.dispose();
+        assertThat(textureCache.size(), is(0));
+    }
+}
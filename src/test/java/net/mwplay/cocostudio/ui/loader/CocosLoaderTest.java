@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.particleutil.CCParticleActor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(LibgdxRunner.class)
+public class CocosLoaderTest {
+
+    private AssetManager assetManager;
+
+    @Before
+    public void setUp() throws Exception {
+        assetManager = new AssetManager();
+        assetManager.setLoader(CocosScene.class, new CocosLoader(new InternalFileHandleResolver()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assetManager.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldLoadNestedExportsAsDependencies() throws Exception {
+        assetManager.load("nine/MainScene.json", CocosScene.class);
+        assetManager.finishLoading();
+
+        String dirName = "nine" + File.separator;
+        assertTrue(assetManager.isLoaded(dirName + "Setting.json", CocosScene.class));
+        assertTrue(assetManager.isLoaded(dirName + "Setting/BaS07.png", Texture.class));
+
+        Group group = assetManager.get("nine/MainScene.json", CocosScene.class).getRoot(assetManager);
+        assertThat(group.getChildren().size, is(1));
+        assertTrue(((Group) group.getChildren().first()).getChildren().size > 0);
+    }
+
+    @Test
+    @NeedGL
+    public void shouldPrepareParticles() throws Exception {
+        assetManager.load("particle/MainScene.json", CocosScene.class);
+        assetManager.finishLoading();
+
+        CocosScene scene = assetManager.get("particle/MainScene.json", CocosScene.class);
+        assertThat(scene.getEditor().getPrepared().getParticle("particle/Default/defaultParticle.plist"),
+            notNullValue());
+        CCParticleActor particleActor = scene.getRoot(assetManager).findActor("Particle_1");
+        assertThat(particleActor, notNullValue());
+    }
+
+    @Test
+    @NeedGL
+    public void shouldPrepareTtfFonts() throws Exception {
+        CocosLoader.CocosParameter parameter = new CocosLoader.CocosParameter();
+        parameter.defaultFont = Gdx.files.internal("share/MLFZS.ttf");
+        assetManager.load("textField/MainScene.json", CocosScene.class, parameter);
+        assetManager.finishLoading();
+
+        CocosScene scene = assetManager.get("textField/MainScene.json", CocosScene.class);
+        assertTrue(scene.getEditor().getPrepared().getPendingCount() > 0);
+        TextField textField = scene.getRoot(assetManager).findActor("TextField_1");
+        assertThat(textField.getText(), is("Here is text"));
+        assertThat(scene.getEditor().getPrepared().getPendingCount(), is(0));
+    }
+}
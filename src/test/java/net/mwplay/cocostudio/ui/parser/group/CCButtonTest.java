@@ -2,13 +2,16 @@ package net.mwplay.cocostudio.ui.parser.group;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.NinePatchDrawable;
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
 import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
 import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -38,4 +41,22 @@ public class CCButtonTest {
         assertThat(style.up, instanceOf(NinePatchDrawable.class));
         assertThat(style.down, instanceOf(NinePatchDrawable.class));
     }
+
+    @Test
+    @NeedGL
+    public void shouldTintSharedFontWithTextColor() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(Gdx.files.internal("glyphSets/MainScene.json"),
+            null, null, Gdx.files.internal("share/MLFZS.ttf"), null);
+        editor.setFontCache(new CCFontCache());
+        Group group = editor.createGroup();
+
+        TextButton start = group.findActor("Start");
+        TextButton quit = group.findActor("Quit");
+        assertThat(start.getStyle().font, sameInstance(quit.getStyle().font));
+        assertThat(start.getStyle().fontColor, is(Color.RED));
+        assertThat(quit.getStyle().fontColor, is(Color.BLUE));
+        assertThat(start.getLabel().getStyle().fontColor, is(Color.RED));
+        // 不同颜色的文字共用白色字形,只有 20 和 14 两个字号
+        assertThat(editor.getFontCache().size(), is(2));
+    }
 }
@@ -17,15 +17,25 @@ package net.mwplay.cocostudio.ui.parser.group;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.utils.SpriteDrawable;
 import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
 import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
 import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.loader.CCTextureCache;
+import net.mwplay.cocostudio.ui.model.CColor;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.model.Scale;
+import net.mwplay.cocostudio.ui.model.Size;
+import net.mwplay.cocostudio.ui.widget.GradientDrawable;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
@@ -43,4 +53,88 @@ public class CCPanelTest {
         Table table = group.findActor("Panel_7");
         assertThat(table.getBackground(), is(nullValue()));
     }
+
+    @Test
+    @NeedGL
+    public void shouldShareWhiteTextureBetweenSolidBackgrounds() throws Exception {
+        CCTextureCache cache = new CCTextureCache();
+        CocoStudioUIEditor editor = createEditor(cache);
+
+        Table first = (Table) new CCPanel().parse(editor, panel(1));
+        Table second = (Table) new CCPanel().parse(editor, panel(1));
+
+        SpriteDrawable background = (SpriteDrawable) first.getBackground();
+        assertThat(background.getSprite().getTexture().getWidth(), is(1));
+        assertThat(background.getSprite().getTexture(),
+            is(sameInstance(((SpriteDrawable) second.getBackground()).getSprite().getTexture())));
+        assertThat(background.getSprite().getColor(), is(new Color(1, 0, 0, 128 / 255f)));
+        assertThat(background.getMinWidth(), is(1280f));
+        assertThat(cache.getReferences(CCTextureCache.WHITE), is(1));
+
+        editor.dispose();
+        assertThat(cache.contains(CCTextureCache.WHITE), is(false));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldSkipTransparentBackground() throws Exception {
+        CocoStudioUIEditor editor = createEditor(new CCTextureCache());
+        ObjectData widget = panel(1);
+        widget.setBackColorAlpha(0);
+
+        Table table = (Table) new CCPanel().parse(editor, widget);
+
+        assertThat(table.getBackground(), is(nullValue()));
+        editor.dispose();
+    }
+
+    @Test
+    @NeedGL
+    public void shouldUseVertexColorsForGradientBackground() throws Exception {
+        CocoStudioUIEditor editor = createEditor(new CCTextureCache());
+        ObjectData widget = panel(2);
+        Scale vector = new Scale();
+        vector.setScaleX(1);
+        widget.setColorVector(vector);
+
+        Table table = (Table) new CCPanel().parse(editor, widget);
+
+        assertThat(table.getBackground(), is(instanceOf(GradientDrawable.class)));
+        GradientDrawable gradient = (GradientDrawable) table.getBackground();
+        assertThat(gradient.getBottomLeft(), is(new Color(1, 0, 0, 128 / 255f)));
+        assertThat(gradient.getTopLeft(), is(new Color(1, 0, 0, 128 / 255f)));
+        assertThat(gradient.getBottomRight(), is(new Color(0, 0, 1, 128 / 255f)));
+        assertThat(gradient.getTopRight(), is(new Color(0, 0, 1, 128 / 255f)));
+        editor.dispose();
+    }
+
+    private static CocoStudioUIEditor createEditor(CCTextureCache cache) {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(
+            Gdx.files.internal("levelSelection/MainScene.json"), null, null,
+            Gdx.files.internal("share/MLFZS.ttf"), null);
+        editor.setTextureCache(cache);
+        return editor;
+    }
+
+    private static ObjectData panel(int comboBoxIndex) {
+        ObjectData widget = new ObjectData();
+        Size size = new Size();
+        size.setX(1280);
+        size.setY(720);
+        widget.setSize(size);
+        widget.setComboBoxIndex(comboBoxIndex);
+        widget.setBackColorAlpha(128);
+        widget.setSingleColor(color(255, 0, 0));
+        widget.setFirstColor(color(255, 0, 0));
+        widget.setEndColor(color(0, 0, 255));
+        return widget;
+    }
+
+    private static CColor color(int r, int g, int b) {
+        CColor color = new CColor();
+        color.setR(r);
+        color.setG(g);
+        color.setB(b);
+        return color;
+    }
 }
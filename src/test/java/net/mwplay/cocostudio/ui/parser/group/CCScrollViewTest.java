@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.parser.group;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCScrollViewTest {
+    @Test
+    @NeedGL
+    public void shouldSkipTransparentBackground() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(
+            Gdx.files.internal("scrollView/MainScene.json"), null, null,
+            Gdx.files.internal("share/MLFZS.ttf"), null);
+
+        Group group = editor.createGroup();
+        ScrollPane clear = group.findActor("ScrollView_Clear");
+        ScrollPane color = group.findActor("ScrollView_Color");
+
+        assertThat(((Table) clear.getWidget()).getBackground(), is(nullValue()));
+        assertThat(((Table) color.getWidget()).getBackground(), is(notNullValue()));
+        editor.dispose();
+    }
+}
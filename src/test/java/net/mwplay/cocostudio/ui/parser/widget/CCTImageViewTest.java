@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.parser.widget;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import net.mwplay.cocostudio.ui.CocoStudioUIEditor;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+import net.mwplay.cocostudio.ui.widget.TImage;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class CCTImageViewTest {
+    @Test
+    @NeedGL
+    public void shouldNotAnimateSharedDrawable() throws Exception {
+        CocoStudioUIEditor editor = new CocoStudioUIEditor(
+            Gdx.files.internal("levelSelection/Layer.json"), null);
+        TImage animated = (TImage) new CCTImageView().parse(editor, widget());
+        TImage still = (TImage) new CCTImageView().parse(editor, widget());
+        TextureRegion region = ((TextureRegionDrawable) still.getDrawable()).getRegion();
+
+        Texture texture = new Texture(Gdx.files.internal("levelSelection/LevelSelection/LS02.png"));
+        TextureRegion frame = new TextureRegion(texture);
+        animated.isAnimate(new Animation(0.1f, frame, new TextureRegion(texture)));
+        animated.play();
+        animated.act(0.15f);
+
+        assertThat(animated.getDrawable(), not(sameInstance(still.getDrawable())));
+        assertThat(((TextureRegionDrawable) animated.getDrawable()).getRegion().getTexture(), is(texture));
+        assertThat(((TextureRegionDrawable) still.getDrawable()).getRegion(), sameInstance(region));
+        assertThat(region.getTexture(), not(sameInstance(texture)));
+        texture.dispose();
+        editor.dispose();
+    }
+
+    private static ObjectData widget() {
+        FileData fileData = new FileData();
+        fileData.setPath("LevelSelection/LS01.png");
+        ObjectData widget = new ObjectData();
+        widget.setFileData(fileData);
+        return widget;
+    }
+}
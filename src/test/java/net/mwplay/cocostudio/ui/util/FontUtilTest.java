@@ -3,6 +3,7 @@ package net.mwplay.cocostudio.ui.util;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
 import net.mwplay.cocostudio.ui.junit.NeedGL;
 import org.junit.Test;
@@ -10,6 +11,7 @@ import org.junit.runner.RunWith;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
@@ -48,4 +50,27 @@ public class FontUtilTest {
             }
         }
     }
+
+    @Test
+    public void shouldDisposeGeneratorsWithoutReferences() throws Exception {
+        FileHandle font = FileHandle.tempFile("font");
+        Gdx.files.internal("share/MLFZS.ttf").copyTo(font);
+        try {
+            FreeTypeFontGenerator generator = FontUtil.obtainGenerator(font);
+            assertThat(FontUtil.obtainGenerator(font), sameInstance(generator));
+            FontUtil.releaseGenerator(font);
+            FontUtil.disposeUnusedGenerators();
+            assertThat(FontUtil.obtainGenerator(font), sameInstance(generator));
+
+            FontUtil.releaseGenerator(font);
+            FontUtil.releaseGenerator(font);
+            FontUtil.disposeUnusedGenerators();
+            FreeTypeFontGenerator reloaded = FontUtil.obtainGenerator(font);
+            assertThat(reloaded, not(sameInstance(generator)));
+            FontUtil.releaseGenerator(font);
+            FontUtil.disposeUnusedGenerators();
+        } finally {
+            font.delete();
+        }
+    }
 }
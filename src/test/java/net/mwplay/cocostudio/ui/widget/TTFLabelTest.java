@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.widget;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import net.mwplay.cocostudio.ui.junit.LibgdxRunner;
+import net.mwplay.cocostudio.ui.junit.NeedGL;
+import net.mwplay.cocostudio.ui.loader.CCFontCache;
+import net.mwplay.cocostudio.ui.util.FontUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(LibgdxRunner.class)
+public class TTFLabelTest {
+
+    private static FileHandle ttf() {
+        return Gdx.files.internal("share/MLFZS.ttf");
+    }
+
+    @Test
+    @NeedGL
+    public void shouldOnlyAddUnseenGlyphsOnSetText() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        BitmapFont font = cache.obtain(ttf(), 20, null, "得分:0123456789");
+        TTFLabelStyle style = new TTFLabelStyle(new LabelStyle(font, Color.WHITE), ttf(), 20);
+        style.setFontCache(cache);
+        TTFLabel label = new TTFLabel("得分:0", style);
+
+        StringBuilder score = new StringBuilder("得分:");
+        score.append(98765);
+        label.setText(score);
+        label.validate();
+        assertThat(label.getStyle().font, sameInstance(font));
+        assertThat(cache.getMisses(), is(1));
+
+        label.setText("最高分:100");
+        assertThat(label.getStyle().font, sameInstance(font));
+        assertThat(CCFontCache.hasGlyphs(font, "最高分:100"), is(true));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    @NeedGL
+    public void shouldSwitchPreparedFontsToSharedFontForNewGlyphs() throws Exception {
+        CCFontCache cache = new CCFontCache();
+        BitmapFont own = FontUtil.createFont(ttf(), "0123456789", 20);
+        TTFLabelStyle style = new TTFLabelStyle(new LabelStyle(own, Color.WHITE), ttf(), 20);
+        style.setFontCache(cache);
+        TTFLabel label = new TTFLabel("0", style);
+
+        label.setText("42");
+        assertThat(label.getStyle().font, sameInstance(own));
+        assertThat(cache.size(), is(0));
+
+        label.setText("42分");
+        assertThat(label.getStyle().font, not(sameInstance(own)));
+        assertThat(cache.contains(label.getStyle().font), is(true));
+        own.dispose();
+    }
+}
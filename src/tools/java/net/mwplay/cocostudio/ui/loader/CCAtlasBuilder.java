@@ -0,0 +1,409 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.SerializationException;
+
+import net.mwplay.cocostudio.ui.CCRegionIndex;
+import net.mwplay.cocostudio.ui.model.CCExport;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 构建期根据导出文件的 UsedResources 生成合并纹理.
+ * <p>
+ * 用法: CCAtlasBuilder &lt;导出文件目录&gt; &lt;输出目录&gt; [图集名] [页面大小]
+ * <p>
+ * 被同一组界面使用的图片放在一起,共用的图片优先,尽量让每个界面只用到少数几张大图.
+ * 区域名与 {@link CCRegionIndex} 按资源路径查找时使用的名字相同,
+ * 生成的图集直接传给 CocoStudioUIEditor 即可.
+ * 只使用JDK读写图片,不依赖 Gdx 运行环境,同样的输入总是得到同样的输出.
+ */
+public class CCAtlasBuilder {
+
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int padding = 2;
+
+    private final List<String> pages = new ArrayList<String>();
+    private final List<String> warnings = new ArrayList<String>();
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("用法: CCAtlasBuilder <导出文件目录> <输出目录> [图集名] [页面大小]");
+            System.exit(1);
+        }
+        CCAtlasBuilder builder = new CCAtlasBuilder();
+        if (args.length > 3) {
+            builder.setPageSize(Integer.parseInt(args[3]));
+        }
+        int count = builder.build(new FileHandle(new File(args[0])), new FileHandle(new File(args[1])),
+            args.length > 2 ? args[2] : "layouts");
+        for (String warning : builder.getWarnings()) {
+            System.out.println(warning);
+        }
+        System.out.println("已生成 " + count + " 张合并纹理");
+    }
+
+    /**
+     * 生成 name.atlas 和对应的页面图片
+     *
+     * @return 页面数
+     */
+    public int build(FileHandle inputDir, FileHandle outputDir, String name) {
+        pages.clear();
+        warnings.clear();
+
+        // k: 导出文件的绝对路径
+        Map<String, Screen> screens = new TreeMap<String, Screen>();
+        List<FileHandle> files = new ArrayList<FileHandle>();
+        collect(inputDir, files);
+        for (FileHandle file : files) {
+            CCExport export;
+            try {
+                export = CCExports.read(file);
+            } catch (SerializationException e) {
+                warnings.add("跳过无法解析的文件: " + file.path());
+                continue;
+            }
+            if (export.getContent() == null || export.getContent().getContent() == null) {
+                warnings.add("跳过非CocoStudio导出文件: " + file.path());
+                continue;
+            }
+            screens.put(absolute(file), new Screen(file, export));
+        }
+
+        // 区域名 -> 图片,同名的不同图片只保留第一张
+        Map<String, Region> regions = new TreeMap<String, Region>();
+        for (Screen screen : screens.values()) {
+            for (String resource : screen.resources) {
+                FileHandle file = screen.file.parent().child(resource);
+                if (CCExportVisitor.isImage(resource)) {
+                    String regionName = CCRegionIndex.normalize(resource);
+                    Region region = regions.get(regionName);
+                    if (region == null) {
+                        region = new Region(regionName, file);
+                        regions.put(regionName, region);
+                    } else if (!region.path.equals(absolute(file))) {
+                        warnings.add("区域名重复,忽略: " + file.path() + " (" + regionName + ")");
+                        continue;
+                    }
+                    screen.images.add(region);
+                } else if (screens.containsKey(absolute(file))) {
+                    screen.nested.add(screens.get(absolute(file)));
+                }
+            }
+        }
+
+        // 按使用它的界面分组,包括通过嵌套节点使用
+        for (Screen screen : screens.values()) {
+            for (Region region : screen.allImages(new HashSet<Screen>())) {
+                region.screens.add(screen.file.path());
+            }
+        }
+        Map<String, List<Region>> groups = new HashMap<String, List<Region>>();
+        for (Region region : regions.values()) {
+            String key = region.screens.toString();
+            List<Region> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<Region>();
+                groups.put(key, group);
+            }
+            group.add(region);
+        }
+        List<List<Region>> sortedGroups = new ArrayList<List<Region>>(groups.values());
+        Collections.sort(sortedGroups, new Comparator<List<Region>>() {
+            @Override
+            public int compare(List<Region> o1, List<Region> o2) {
+                int screens1 = o1.get(0).screens.size();
+                int screens2 = o2.get(0).screens.size();
+                if (screens1 != screens2) {
+                    return screens2 - screens1;
+                }
+                return o1.get(0).screens.toString().compareTo(o2.get(0).screens.toString());
+            }
+        });
+
+        List<Page> packed = pack(sortedGroups);
+        write(packed, outputDir, name);
+        return packed.size();
+    }
+
+    /**
+     * 本次生成的页面图片
+     */
+    public List<String> getPages() {
+        return pages;
+    }
+
+    /**
+     * 本次生成时跳过的文件、重名区域和过大的图片
+     */
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public void setPadding(int padding) {
+        this.padding = padding;
+    }
+
+    /**
+     * 按行排列,一组图片放不下当前页剩余空间时换新页
+     */
+    private List<Page> pack(List<List<Region>> groups) {
+        List<Page> packed = new ArrayList<Page>();
+        Page page = null;
+        for (List<Region> group : groups) {
+            long area = 0;
+            for (Region region : group) {
+                region.load();
+                area += (long) (region.image.getWidth() + padding) * (region.image.getHeight() + padding);
+            }
+            Collections.sort(group, new Comparator<Region>() {
+                @Override
+                public int compare(Region o1, Region o2) {
+                    if (o1.image.getHeight() != o2.image.getHeight()) {
+                        return o2.image.getHeight() - o1.image.getHeight();
+                    }
+                    return o1.name.compareTo(o2.name);
+                }
+            });
+
+            if (page != null && area <= (long) pageSize * pageSize && area > page.remaining()) {
+                page = null;
+            }
+            for (Region region : group) {
+                int width = region.image.getWidth();
+                int height = region.image.getHeight();
+                if (width > pageSize || height > pageSize) {
+                    warnings.add("图片比页面大,不合并: " + region.path);
+                    continue;
+                }
+                if (page == null || !page.add(region)) {
+                    page = new Page();
+                    packed.add(page);
+                    page.add(region);
+                }
+            }
+        }
+        return packed;
+    }
+
+    private void write(List<Page> packed, FileHandle outputDir, String name) {
+        FileHandle atlasFile = outputDir.child(name + ".atlas");
+        Writer writer = atlasFile.writer(false, "UTF-8");
+        try {
+            for (int i = 0; i < packed.size(); i++) {
+                Page page = packed.get(i);
+                String pageName = i == 0 ? name + ".png" : name + (i + 1) + ".png";
+                BufferedImage image = page.draw();
+                OutputStream output = outputDir.child(pageName).write(false);
+                try {
+                    ImageIO.write(image, "png", output);
+                } finally {
+                    output.close();
+                }
+                pages.add(outputDir.child(pageName).path());
+
+                writer.write("\n" + pageName + "\n");
+                writer.write("size: " + image.getWidth() + "," + image.getHeight() + "\n");
+                writer.write("format: RGBA8888\n");
+                writer.write("filter: Linear,Linear\n");
+                writer.write("repeat: none\n");
+                for (Region region : page.regions) {
+                    writer.write(region.name + "\n");
+                    writer.write("  rotate: false\n");
+                    writer.write("  xy: " + region.x + ", " + region.y + "\n");
+                    writer.write("  size: " + region.image.getWidth() + ", " + region.image.getHeight() + "\n");
+                    writer.write("  orig: " + region.image.getWidth() + ", " + region.image.getHeight() + "\n");
+                    writer.write("  offset: 0, 0\n");
+                    writer.write("  index: -1\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("无法写入合并纹理: " + atlasFile.path(), e);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void collect(FileHandle dir, List<FileHandle> files) {
+        FileHandle[] children = dir.list();
+        // 不同系统上 list 的顺序不同
+        Arrays.sort(children, new Comparator<FileHandle>() {
+            @Override
+            public int compare(FileHandle o1, FileHandle o2) {
+                return o1.name().compareTo(o2.name());
+            }
+        });
+        for (FileHandle child : children) {
+            if (child.isDirectory()) {
+                collect(child, files);
+            } else if ("json".equalsIgnoreCase(child.extension())
+                || CCExports.BINARY_EXTENSION.equalsIgnoreCase(child.extension())) {
+                files.add(child);
+            }
+        }
+    }
+
+    private static String absolute(FileHandle file) {
+        return file.file().getAbsoluteFile().toURI().normalize().getPath();
+    }
+
+    private static class Screen {
+        final FileHandle file;
+        final List<String> resources;
+        final Set<Region> images = new LinkedHashSet<Region>();
+        final List<Screen> nested = new ArrayList<Screen>();
+
+        Screen(FileHandle file, CCExport export) {
+            this.file = file;
+            List<String> used = export.getContent().getContent().getUsedResources();
+            resources = used == null ? Collections.<String>emptyList() : used;
+        }
+
+        Set<Region> allImages(Set<Screen> visited) {
+            Set<Region> all = new LinkedHashSet<Region>(images);
+            if (visited.add(this)) {
+                for (Screen screen : nested) {
+                    all.addAll(screen.allImages(visited));
+                }
+            }
+            return all;
+        }
+    }
+
+    private static class Region {
+        final String name;
+        final String path;
+        final FileHandle file;
+        final Set<String> screens = new TreeSet<String>();
+        BufferedImage image;
+        int x;
+        int y;
+
+        Region(String name, FileHandle file) {
+            this.name = name;
+            this.file = file;
+            this.path = absolute(file);
+        }
+
+        void load() {
+            if (image != null) {
+                return;
+            }
+            InputStream input = file.read();
+            try {
+                image = ImageIO.read(input);
+            } catch (IOException e) {
+                throw new GdxRuntimeException("无法读取图片: " + file.path(), e);
+            } finally {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+            if (image == null) {
+                throw new GdxRuntimeException("不支持的图片格式: " + file.path());
+            }
+        }
+    }
+
+    private class Page {
+        final List<Region> regions = new ArrayList<Region>();
+        int shelfX;
+        int shelfY;
+        int shelfHeight;
+        int width;
+        int height;
+
+        boolean add(Region region) {
+            int w = region.image.getWidth();
+            int h = region.image.getHeight();
+            if (shelfX + w > pageSize) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfY + h > pageSize) {
+                return false;
+            }
+            region.x = shelfX;
+            region.y = shelfY;
+            regions.add(region);
+            shelfX += w + padding;
+            shelfHeight = Math.max(shelfHeight, h + padding);
+            width = Math.max(width, region.x + w);
+            height = Math.max(height, region.y + h);
+            return true;
+        }
+
+        long remaining() {
+            return (long) pageSize * (pageSize - shelfY - shelfHeight);
+        }
+
+        BufferedImage draw() {
+            BufferedImage image = new BufferedImage(potOf(width), potOf(height), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = image.createGraphics();
+            try {
+                for (Region region : regions) {
+                    graphics.drawImage(region.image, region.x, region.y, null);
+                }
+            } finally {
+                graphics.dispose();
+            }
+            return image;
+        }
+    }
+
+    private static int potOf(int value) {
+        int pot = 1;
+        while (pot < value) {
+            pot <<= 1;
+        }
+        return pot;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.mwplay.cocostudio.ui.loader;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.SerializationException;
+
+import net.mwplay.cocostudio.ui.model.CCExport;
+import net.mwplay.cocostudio.ui.model.FileData;
+import net.mwplay.cocostudio.ui.model.GameProjectData;
+import net.mwplay.cocostudio.ui.model.ObjectData;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 构建期把CocoStudio导出的json编译为二进制布局.
+ * <p>
+ * 用法: CCExportCompiler &lt;json文件或目录&gt; &lt;输出目录&gt;
+ * <p>
+ * 输出文件与输入保持相同的相对路径,扩展名改为 {@link CCExports#BINARY_EXTENSION}.
+ * 同一批次编译的导出之间的引用(ProjectNode 和 UsedResources 中的 .json)会一起改为新扩展名.
+ * 不依赖 Gdx 运行环境.
+ */
+public class CCExportCompiler {
+
+    private final List<String> compiled = new ArrayList<String>();
+    private final List<String> warnings = new ArrayList<String>();
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("用法: CCExportCompiler <json文件或目录> <输出目录>");
+            System.exit(1);
+        }
+        CCExportCompiler compiler = new CCExportCompiler();
+        int count = compiler.compile(new FileHandle(new File(args[0])), new FileHandle(new File(args[1])));
+        for (String warning : compiler.getWarnings()) {
+            System.out.println(warning);
+        }
+        System.out.println("已编译 " + count + " 个布局文件");
+    }
+
+    /**
+     * 编译单个json文件或目录下所有json文件
+     *
+     * @return 编译的文件数
+     */
+    public int compile(FileHandle input, FileHandle outputDir) {
+        compiled.clear();
+        warnings.clear();
+        List<FileHandle> files = new ArrayList<FileHandle>();
+        FileHandle root;
+        if (input.isDirectory()) {
+            root = input;
+            collect(input, files);
+        } else {
+            root = input.parent();
+            files.add(input);
+        }
+
+        List<String> paths = new ArrayList<String>();
+        List<CCExport> exports = new ArrayList<CCExport>();
+        for (FileHandle file : files) {
+            CCExport export;
+            try {
+                export = new CCExportReader().read(file);
+            } catch (SerializationException e) {
+                warnings.add("跳过无法解析的文件: " + file.path());
+                continue;
+            }
+            if (export.getContent() == null || export.getContent().getContent() == null) {
+                warnings.add("跳过非CocoStudio导出文件: " + file.path());
+                continue;
+            }
+            paths.add(relative(root, file));
+            exports.add(export);
+        }
+
+        Set<String> names = new HashSet<String>(paths);
+        for (int i = 0; i < exports.size(); i++) {
+            String path = paths.get(i);
+            String dir = path.lastIndexOf('/') == -1 ? "" : path.substring(0, path.lastIndexOf('/') + 1);
+            GameProjectData project = exports.get(i).getContent().getContent();
+            rewrite(project.getObjectData(), dir, names);
+            List<String> resources = project.getUsedResources();
+            if (resources != null) {
+                for (int j = 0; j < resources.size(); j++) {
+                    resources.set(j, rewrite(resources.get(j), dir, names));
+                }
+            }
+
+            FileHandle output = outputDir.child(toBinaryPath(path));
+            new CCBinaryWriter().write(exports.get(i), output);
+            compiled.add(output.path());
+        }
+        return compiled.size();
+    }
+
+    /**
+     * 本次编译输出的文件
+     */
+    public List<String> getCompiled() {
+        return compiled;
+    }
+
+    /**
+     * 本次编译跳过的文件
+     */
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    private void rewrite(ObjectData widget, String dir, Set<String> names) {
+        if (widget == null) {
+            return;
+        }
+        FileData fileData = widget.getFileData();
+        if ("ProjectNodeObjectData".equals(widget.getCtype()) && fileData != null
+            && fileData.getPath() != null) {
+            fileData.setPath(rewrite(fileData.getPath(), dir, names));
+        }
+        if (widget.getChildren() != null) {
+            for (ObjectData child : widget.getChildren()) {
+                rewrite(child, dir, names);
+            }
+        }
+    }
+
+    private static String rewrite(String path, String dir, Set<String> names) {
+        if (path.endsWith(".json") && names.contains(dir + path)) {
+            return toBinaryPath(path);
+        }
+        return path;
+    }
+
+    static String toBinaryPath(String path) {
+        int dot = path.lastIndexOf('.');
+        return (dot > path.lastIndexOf('/') ? path.substring(0, dot) : path) + "." + CCExports.BINARY_EXTENSION;
+    }
+
+    private static void collect(FileHandle dir, List<FileHandle> files) {
+        for (FileHandle child : dir.list()) {
+            if (child.isDirectory()) {
+                collect(child, files);
+            } else if ("json".equalsIgnoreCase(child.extension())) {
+                files.add(child);
+            }
+        }
+    }
+
+    private static String relative(FileHandle root, FileHandle file) {
+        String rootPath = root.file().getAbsoluteFile().toURI().getPath();
+        String filePath = file.file().getAbsoluteFile().toURI().getPath();
+        return filePath.startsWith(rootPath) ? filePath.substring(rootPath.length()) : file.name();
+    }
+}